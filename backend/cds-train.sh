@@ -0,0 +1,40 @@
+#!/bin/bash
+# Builds the startup-optimised layout in target/cds:
+#   app.jar  - application classes with a Class-Path manifest pointing at lib/
+#   app.jsa  - AppCDS archive recorded by a training run that stops after context refresh
+#
+# Usage: ./cds-train.sh [--aot]
+# Run:   java -XX:SharedArchiveFile=target/cds/app.jsa [-Dspring.aot.enabled=true] \
+#            -jar target/cds/app.jar --spring.profiles.active=fast-start
+set -euo pipefail
+cd "$(dirname "$0")"
+
+MAVEN_ARGS="-B -q package -DskipTests"
+JAVA_ARGS=""
+if [ "${1:-}" = "--aot" ]; then
+    MAVEN_ARGS="$MAVEN_ARGS -Paot"
+    JAVA_ARGS="-Dspring.aot.enabled=true"
+fi
+mvn $MAVEN_ARGS
+
+FAT_JAR=$(ls target/krb-backend-*.jar | grep -v original | head -1)
+OUT=target/cds
+rm -rf "$OUT" && mkdir -p "$OUT/extracted"
+unzip -q "$FAT_JAR" -d "$OUT/extracted"
+mv "$OUT/extracted/BOOT-INF/lib" "$OUT/lib"
+
+# CDS only archives classes loaded from plain jars on the class path, not from nested jars.
+CLASS_PATH=$(cd "$OUT" && ls lib/*.jar | tr '\n' ' ')
+{
+    echo "Main-Class: com.krb.backend.KrbBackendApplication"
+    echo "Class-Path: $CLASS_PATH" | fold -w 70 | sed '2,$s/^/ /'
+} > "$OUT/MANIFEST.MF"
+jar --create --file "$OUT/app.jar" --manifest "$OUT/MANIFEST.MF" -C "$OUT/extracted/BOOT-INF/classes" .
+rm -rf "$OUT/extracted" "$OUT/MANIFEST.MF"
+
+# The training run needs no database contents: it exits as soon as the context has refreshed.
+java -XX:ArchiveClassesAtExit="$OUT/app.jsa" -Xlog:cds=error -Dspring.context.exit=onRefresh $JAVA_ARGS \
+    -jar "$OUT/app.jar" --spring.profiles.active=fast-start \
+    --spring.datasource.url=jdbc:h2:mem:cds-training --krb.audit.directory="$OUT/training-audit"
+rm -rf "$OUT/training-audit"
+echo "CDS archive written to $OUT/app.jsa"
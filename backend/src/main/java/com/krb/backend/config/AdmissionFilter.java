@@ -0,0 +1,77 @@
+package com.krb.backend.config;
+
+import com.krb.backend.service.AdmissionControlService;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+// Runs after IdempotencyFilter, so a retried request that waits on its first attempt or replays
+// its response never holds a permit or counts towards the route's service time.
+@Component
+@Order(SecurityProperties.DEFAULT_FILTER_ORDER + 3)
+public class AdmissionFilter extends OncePerRequestFilter {
+    
+    public static final String DEADLINE_HEADER = "X-Request-Deadline-Ms";
+    
+    @Autowired
+    private AdmissionControlService admissionControlService;
+    
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return "OPTIONS".equals(request.getMethod()) || admissionControlService.isExcluded(request.getRequestURI());
+    }
+    
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        long received = System.nanoTime();
+        AdmissionControlService.Route route = admissionControlService.route(request.getRequestURI());
+        long deadlineNanos = received + TimeUnit.MILLISECONDS.toNanos(budgetMs(request, route));
+        
+        AdmissionControlService.Decision decision;
+        try {
+            decision = admissionControlService.acquire(route, deadlineNanos);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            decision = AdmissionControlService.Decision.REJECTED_QUEUE_TIMEOUT;
+        }
+        
+        if (decision != AdmissionControlService.Decision.ADMITTED) {
+            response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+            response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+            response.setContentType("text/plain;charset=UTF-8");
+            response.getWriter().write("Server is overloaded (" + decision + "), please retry");
+            return;
+        }
+        
+        long started = System.nanoTime();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            admissionControlService.release(route, started, deadlineNanos);
+        }
+    }
+    
+    // The header is the time the client is still willing to wait, so a caller that retries or
+    // fans out can pass its own remaining budget down; without it the route default applies.
+    private long budgetMs(HttpServletRequest request, AdmissionControlService.Route route) {
+        String header = request.getHeader(DEADLINE_HEADER);
+        if (header != null) {
+            try {
+                return Math.max(0, Math.min(Long.parseLong(header.trim()), route.getDeadlineMs() * 10));
+            } catch (NumberFormatException ignored) {
+            }
+        }
+        return route.getDeadlineMs();
+    }
+}
@@ -0,0 +1,52 @@
+package com.krb.backend.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+import java.util.ArrayList;
+import java.util.List;
+
+@Component
+@ConfigurationProperties(prefix = "krb.admission")
+public class AdmissionProperties {
+    
+    private boolean enabled = true;
+    private int maxConcurrency = 0;
+    private int maxQueued = 200;
+    private long defaultDeadlineMs = 10000;
+    private List<String> excludedPaths = new ArrayList<>();
+    private List<Route> routes = new ArrayList<>();
+    
+    public boolean isEnabled() { return enabled; }
+    public void setEnabled(boolean enabled) { this.enabled = enabled; }
+    
+    public int getMaxConcurrency() { return maxConcurrency; }
+    public void setMaxConcurrency(int maxConcurrency) { this.maxConcurrency = maxConcurrency; }
+    
+    public int getMaxQueued() { return maxQueued; }
+    public void setMaxQueued(int maxQueued) { this.maxQueued = maxQueued; }
+    
+    public long getDefaultDeadlineMs() { return defaultDeadlineMs; }
+    public void setDefaultDeadlineMs(long defaultDeadlineMs) { this.defaultDeadlineMs = defaultDeadlineMs; }
+    
+    public List<String> getExcludedPaths() { return excludedPaths; }
+    public void setExcludedPaths(List<String> excludedPaths) { this.excludedPaths = excludedPaths; }
+    
+    public List<Route> getRoutes() { return routes; }
+    public void setRoutes(List<Route> routes) { this.routes = routes; }
+    
+    public static class Route {
+        
+        private String name;
+        private List<String> paths = new ArrayList<>();
+        private long deadlineMs = 10000;
+        
+        public String getName() { return name; }
+        public void setName(String name) { this.name = name; }
+        
+        public List<String> getPaths() { return paths; }
+        public void setPaths(List<String> paths) { this.paths = paths; }
+        
+        public long getDeadlineMs() { return deadlineMs; }
+        public void setDeadlineMs(long deadlineMs) { this.deadlineMs = deadlineMs; }
+    }
+}
@@ -3,11 +3,16 @@ package com.krb.backend.config;
 import com.krb.backend.entity.Employee;
 import com.krb.backend.repository.EmployeeRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.CommandLineRunner;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Component;
 
+// Seeds before any other runner, in particular the warm-up, which needs the data to exist.
 @Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
 public class DataInitializer implements CommandLineRunner {
     
     @Autowired
@@ -16,9 +21,12 @@ public class DataInitializer implements CommandLineRunner {
     @Autowired
     private PasswordEncoder passwordEncoder;
     
+    @Value("${krb.seed.enabled:true}")
+    private boolean seedEnabled;
+    
     @Override
     public void run(String... args) throws Exception {
-        if (employeeRepository.count() == 0) {
+        if (seedEnabled && employeeRepository.count() == 0) {
             Employee admin = new Employee();
             admin.setUsername("admin");
             admin.setPassword(passwordEncoder.encode("admin123"));
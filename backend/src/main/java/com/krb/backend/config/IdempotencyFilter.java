@@ -0,0 +1,177 @@
+package com.krb.backend.config;
+
+import com.krb.backend.service.IdempotencyService;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StreamUtils;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.List;
+
+@Component
+@Order(SecurityProperties.DEFAULT_FILTER_ORDER + 2)
+public class IdempotencyFilter extends OncePerRequestFilter {
+    
+    public static final String HEADER = "Idempotency-Key";
+    
+    @Autowired
+    private IdempotencyService idempotencyService;
+    
+    @Value("${krb.idempotency.paths:/api/accounts,/api/customers}")
+    private List<String> paths;
+    
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !"POST".equals(request.getMethod())
+                || request.getHeader(HEADER) == null
+                || !paths.contains(request.getRequestURI());
+    }
+    
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String key = request.getHeader(HEADER).trim();
+        if (key.isEmpty() || key.length() > 255) {
+            reject(response, HttpStatus.BAD_REQUEST, HEADER + " must be 1-255 characters");
+            return;
+        }
+        
+        CachedBodyRequest cachedRequest = new CachedBodyRequest(request);
+        String requestKey = request.getMethod() + " " + request.getRequestURI() + " " + caller(request) + " " + key;
+        IdempotencyService.Claim claim = idempotencyService.claim(requestKey, fingerprint(cachedRequest));
+        
+        switch (claim.getOutcome()) {
+            case REPLAY -> replay(claim.getResponse(), response);
+            case FINGERPRINT_MISMATCH -> reject(response, HttpStatus.UNPROCESSABLE_ENTITY,
+                    HEADER + " was already used for a different request");
+            case IN_PROGRESS -> reject(response, HttpStatus.CONFLICT,
+                    "A request with this " + HEADER + " is still in progress");
+            case EXECUTE -> execute(claim, cachedRequest, response, chain);
+        }
+    }
+    
+    private void execute(IdempotencyService.Claim claim, HttpServletRequest request, HttpServletResponse response,
+                         FilterChain chain) throws ServletException, IOException {
+        ContentCachingResponseWrapper cachedResponse = new ContentCachingResponseWrapper(response);
+        try {
+            chain.doFilter(request, cachedResponse);
+        } catch (ServletException | IOException | RuntimeException e) {
+            idempotencyService.abandon(claim);
+            throw e;
+        }
+        
+        if (cachedResponse.getStatus() >= 500) {
+            idempotencyService.abandon(claim);
+        } else {
+            idempotencyService.complete(claim, new IdempotencyService.StoredResponse(
+                    cachedResponse.getStatus(), cachedResponse.getContentType(), cachedResponse.getContentAsByteArray()));
+        }
+        cachedResponse.copyBodyToResponse();
+    }
+    
+    // Keys are chosen by clients, so they are scoped to the caller: two clients that happen to use
+    // the same key must not see each other's responses. Requests carry no credentials, so the
+    // caller is the employee the request is made for, or the client IP without one.
+    private static String caller(HttpServletRequest request) {
+        String employeeId = request.getHeader(RateLimitFilter.EMPLOYEE_HEADER);
+        if (employeeId == null || employeeId.isBlank()) {
+            employeeId = request.getParameter("employeeId");
+        }
+        return employeeId != null && employeeId.matches("\\d{1,19}")
+                ? "employee:" + employeeId
+                : "ip:" + request.getRemoteAddr();
+    }
+    
+    private void replay(IdempotencyService.StoredResponse stored, HttpServletResponse response) throws IOException {
+        response.setStatus(stored.getStatus());
+        if (stored.getContentType() != null) {
+            response.setContentType(stored.getContentType());
+        }
+        response.setHeader("Idempotent-Replayed", "true");
+        response.setContentLength(stored.getBody().length);
+        response.getOutputStream().write(stored.getBody());
+    }
+    
+    private void reject(HttpServletResponse response, HttpStatus status, String message) throws IOException {
+        response.setStatus(status.value());
+        response.setContentType("text/plain;charset=UTF-8");
+        response.getWriter().write(message);
+    }
+    
+    private static String fingerprint(CachedBodyRequest request) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            if (request.getQueryString() != null) {
+                digest.update(request.getQueryString().getBytes(StandardCharsets.UTF_8));
+            }
+            digest.update((byte) 0);
+            digest.update(request.body);
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+    
+    private static final class CachedBodyRequest extends HttpServletRequestWrapper {
+        
+        private final byte[] body;
+        
+        private CachedBodyRequest(HttpServletRequest request) throws IOException {
+            super(request);
+            this.body = StreamUtils.copyToByteArray(request.getInputStream());
+        }
+        
+        @Override
+        public ServletInputStream getInputStream() {
+            ByteArrayInputStream input = new ByteArrayInputStream(body);
+            return new ServletInputStream() {
+                @Override
+                public boolean isFinished() { return input.available() == 0; }
+                
+                @Override
+                public boolean isReady() { return true; }
+                
+                // The whole body is already in memory, so it is available and fully read at once.
+                @Override
+                public void setReadListener(ReadListener listener) {
+                    try {
+                        listener.onDataAvailable();
+                        listener.onAllDataRead();
+                    } catch (IOException e) {
+                        listener.onError(e);
+                    }
+                }
+                
+                @Override
+                public int read() { return input.read(); }
+                
+                @Override
+                public int read(byte[] buffer, int offset, int length) { return input.read(buffer, offset, length); }
+            };
+        }
+        
+        @Override
+        public BufferedReader getReader() {
+            return new BufferedReader(new InputStreamReader(getInputStream(), StandardCharsets.UTF_8));
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.krb.backend.config;
+
+import com.krb.backend.service.RateLimitService;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+@Component
+@Order(SecurityProperties.DEFAULT_FILTER_ORDER + 1)
+public class RateLimitFilter extends OncePerRequestFilter {
+    
+    public static final String EMPLOYEE_HEADER = "X-Employee-Id";
+    
+    @Autowired
+    private RateLimitService rateLimitService;
+    
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return "OPTIONS".equals(request.getMethod());
+    }
+    
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        RateLimitService.Group group = rateLimitService.match(request.getMethod(), request.getRequestURI());
+        if (group == null) {
+            chain.doFilter(request, response);
+            return;
+        }
+        
+        long waitNanos = rateLimitService.tryAcquire(group, "ip:" + request.getRemoteAddr(), employeeKey(group, request));
+        if (waitNanos == 0) {
+            chain.doFilter(request, response);
+            return;
+        }
+        
+        long retryAfterSeconds = Math.max(1, (waitNanos + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1));
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+        response.setContentType("text/plain;charset=UTF-8");
+        response.getWriter().write("Rate limit exceeded for " + group.getName() + ", retry after " + retryAfterSeconds + "s");
+    }
+    
+    // Requests carry no credentials, so the employee is taken from the header the frontend sends
+    // (or the employeeId parameter); anything unidentified is keyed by its client IP alone.
+    private String employeeKey(RateLimitService.Group group, HttpServletRequest request) {
+        if (group.getKeyType() != RateLimitProperties.KeyType.EMPLOYEE) {
+            return null;
+        }
+        String employeeId = request.getHeader(EMPLOYEE_HEADER);
+        if (employeeId == null || employeeId.isBlank()) {
+            employeeId = request.getParameter("employeeId");
+        }
+        return employeeId != null && employeeId.matches("\\d{1,19}") ? "employee:" + employeeId : null;
+    }
+}
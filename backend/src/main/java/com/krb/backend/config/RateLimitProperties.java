@@ -0,0 +1,64 @@
+package com.krb.backend.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+import java.util.ArrayList;
+import java.util.List;
+
+@Component
+@ConfigurationProperties(prefix = "krb.rate-limit")
+public class RateLimitProperties {
+    
+    public enum KeyType {
+        EMPLOYEE, IP
+    }
+    
+    private boolean enabled = true;
+    private int maxBuckets = 100000;
+    private long idleEvictionMs = 300000;
+    private double employeeIpFactor = 4;
+    private List<RouteGroup> groups = new ArrayList<>();
+    
+    public boolean isEnabled() { return enabled; }
+    public void setEnabled(boolean enabled) { this.enabled = enabled; }
+    
+    public int getMaxBuckets() { return maxBuckets; }
+    public void setMaxBuckets(int maxBuckets) { this.maxBuckets = maxBuckets; }
+    
+    public long getIdleEvictionMs() { return idleEvictionMs; }
+    public void setIdleEvictionMs(long idleEvictionMs) { this.idleEvictionMs = idleEvictionMs; }
+    
+    public double getEmployeeIpFactor() { return employeeIpFactor; }
+    public void setEmployeeIpFactor(double employeeIpFactor) { this.employeeIpFactor = employeeIpFactor; }
+    
+    public List<RouteGroup> getGroups() { return groups; }
+    public void setGroups(List<RouteGroup> groups) { this.groups = groups; }
+    
+    public static class RouteGroup {
+        
+        private String name;
+        private List<String> paths = new ArrayList<>();
+        private List<String> methods = new ArrayList<>();
+        private KeyType key = KeyType.EMPLOYEE;
+        private double requestsPerSecond = 10;
+        private int burst = 20;
+        
+        public String getName() { return name; }
+        public void setName(String name) { this.name = name; }
+        
+        public List<String> getPaths() { return paths; }
+        public void setPaths(List<String> paths) { this.paths = paths; }
+        
+        public List<String> getMethods() { return methods; }
+        public void setMethods(List<String> methods) { this.methods = methods; }
+        
+        public KeyType getKey() { return key; }
+        public void setKey(KeyType key) { this.key = key; }
+        
+        public double getRequestsPerSecond() { return requestsPerSecond; }
+        public void setRequestsPerSecond(double requestsPerSecond) { this.requestsPerSecond = requestsPerSecond; }
+        
+        public int getBurst() { return burst; }
+        public void setBurst(int burst) { this.burst = burst; }
+    }
+}
@@ -0,0 +1,121 @@
+package com.krb.backend.config;
+
+import com.krb.backend.service.ServerTimingService;
+import com.krb.backend.service.SlowQueryService;
+import com.krb.backend.util.RequestTiming;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.aop.ClassFilter;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.aop.support.ComposablePointcut;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.aop.framework.autoproxy.AbstractBeanFactoryAwareAdvisingPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.MethodParameter;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.core.env.Environment;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.stereotype.Service;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Marks the phase boundaries the Server-Timing filter cannot see: controller and service calls
+ * through an advisor added to their proxies, response body writing through a body advice, and the
+ * return to the filter chain through a handler interceptor. Repository, JDBC and mapping time are
+ * marked where they happen (SlowQueryConfig and the convertToDto methods).
+ */
+@Configuration
+public class ServerTimingConfig implements WebMvcConfigurer {
+    
+    // Called from inside the timed phases themselves, so proxying them would only add noise.
+    private static final Set<Class<?>> UNTIMED = Set.of(ServerTimingService.class, SlowQueryService.class);
+    
+    @Bean
+    public static AbstractBeanFactoryAwareAdvisingPostProcessor serverTimingAdvisingPostProcessor(Environment environment) {
+        AbstractBeanFactoryAwareAdvisingPostProcessor postProcessor = new AbstractBeanFactoryAwareAdvisingPostProcessor() {
+            {
+                if (environment.getProperty("krb.server-timing.enabled", Boolean.class, true)) {
+                    ClassFilter timed = type -> phaseOf(type) != null;
+                    this.advisor = new DefaultPointcutAdvisor(new ComposablePointcut(timed), new PhaseInterceptor());
+                }
+            }
+        };
+        postProcessor.setProxyTargetClass(true);
+        postProcessor.setBeforeExistingAdvisors(true);
+        return postProcessor;
+    }
+    
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new HandlerInterceptor() {
+            @Override
+            public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+                                        Exception ex) {
+                RequestTiming.switchTo(RequestTiming.Phase.FILTER);
+            }
+        });
+    }
+    
+    private static RequestTiming.Phase phaseOf(Class<?> type) {
+        if (UNTIMED.contains(type)) {
+            return null;
+        }
+        if (AnnotatedElementUtils.hasAnnotation(type, RestController.class)) {
+            return RequestTiming.Phase.CONTROLLER;
+        }
+        if (AnnotatedElementUtils.hasAnnotation(type, Service.class)) {
+            return RequestTiming.Phase.SERVICE;
+        }
+        return null;
+    }
+    
+    private static final class PhaseInterceptor implements MethodInterceptor {
+        
+        private final Map<Class<?>, RequestTiming.Phase> phases = new ConcurrentHashMap<>();
+        
+        @Override
+        public Object invoke(MethodInvocation invocation) throws Throwable {
+            if (invocation.getMethod().getDeclaringClass() == Object.class) {
+                return invocation.proceed();
+            }
+            RequestTiming.Phase phase = phases.computeIfAbsent(AopUtils.getTargetClass(invocation.getThis()),
+                    ServerTimingConfig::phaseOf);
+            try (RequestTiming timing = phase == RequestTiming.Phase.CONTROLLER
+                    ? RequestTiming.enterController() : RequestTiming.enterService()) {
+                return invocation.proceed();
+            }
+        }
+    }
+    
+    // Runs after the handler returned and right before the converter writes the body.
+    @ControllerAdvice
+    public static class SerializationPhaseAdvice implements ResponseBodyAdvice<Object> {
+        
+        @Override
+        public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+            return true;
+        }
+        
+        @Override
+        public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+                                      Class<? extends HttpMessageConverter<?>> selectedConverterType,
+                                      ServerHttpRequest request, ServerHttpResponse response) {
+            RequestTiming.switchTo(RequestTiming.Phase.SERIALIZATION);
+            return body;
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.krb.backend.config;
+
+import com.krb.backend.service.ServerTimingService;
+import com.krb.backend.util.RequestTiming;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+import java.io.IOException;
+
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class ServerTimingFilter extends OncePerRequestFilter {
+    
+    public static final String RESPONSE_HEADER = "Server-Timing";
+    
+    @Autowired
+    private ServerTimingService serverTimingService;
+    
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return "OPTIONS".equals(request.getMethod()) || !serverTimingService.isTimed(request.getRequestURI());
+    }
+    
+    // The header has to be set before the body is committed, so a response that exposes it is
+    // buffered and copied out once the timing is final. Everything else streams as before and is
+    // only counted in the histograms.
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        boolean expose = serverTimingService.shouldExpose(request.getHeader(ServerTimingService.REQUEST_HEADER));
+        ContentCachingResponseWrapper cachedResponse = expose ? new ContentCachingResponseWrapper(response) : null;
+        RequestTiming timing = RequestTiming.begin();
+        try {
+            chain.doFilter(request, expose ? cachedResponse : response);
+        } finally {
+            timing.finish();
+            serverTimingService.record(route(request), timing);
+            if (expose) {
+                response.setHeader(RESPONSE_HEADER, serverTimingService.formatHeader(timing));
+                cachedResponse.copyBodyToResponse();
+            }
+        }
+    }
+    
+    private static String route(HttpServletRequest request) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return pattern == null ? "unmatched" : request.getMethod() + " " + pattern;
+    }
+}
@@ -0,0 +1,87 @@
+package com.krb.backend.config;
+
+import com.krb.backend.service.SlowQueryService;
+import com.krb.backend.util.JdbcTimingProxy;
+import com.krb.backend.util.RequestTiming;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.data.repository.core.support.RepositoryFactoryBeanSupport;
+import javax.sql.DataSource;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Configuration
+public class SlowQueryConfig {
+    
+    // Wraps the DataSource so every statement is timed, and tags repository calls so a slow
+    // statement can name the repository method that issued it. The recorder is looked up on the
+    // first statement rather than here, so the post-processor does not pull it in early. The same
+    // hooks feed the repository and db phases of the Server-Timing breakdown.
+    @Bean
+    public static BeanPostProcessor slowQueryInstrumentation(Environment environment,
+                                                             ObjectProvider<SlowQueryService> recorder) {
+        boolean slowQueries = environment.getProperty("krb.slow-query.enabled", Boolean.class, true);
+        boolean enabled = slowQueries || environment.getProperty("krb.server-timing.enabled", Boolean.class, true);
+        return new BeanPostProcessor() {
+            
+            private volatile SlowQueryService slowQueryService;
+            
+            @Override
+            public Object postProcessBeforeInitialization(Object bean, String beanName) {
+                if (enabled && bean instanceof RepositoryFactoryBeanSupport<?, ?, ?> factoryBean) {
+                    factoryBean.addRepositoryFactoryCustomizer(factory -> factory.addRepositoryProxyPostProcessor(
+                            (proxyFactory, information) -> proxyFactory.addAdvice(
+                                    new RepositoryMethodTagger(information.getRepositoryInterface()))));
+                }
+                return bean;
+            }
+            
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!enabled || !(bean instanceof DataSource dataSource) || Proxy.isProxyClass(bean.getClass())) {
+                    return bean;
+                }
+                return JdbcTimingProxy.wrap(dataSource, execution -> {
+                    RequestTiming.recordDatabase(execution.getTotalNanos());
+                    if (!slowQueries) {
+                        return;
+                    }
+                    SlowQueryService service = slowQueryService;
+                    if (service == null) {
+                        service = recorder.getObject();
+                        slowQueryService = service;
+                    }
+                    service.onStatement(execution);
+                });
+            }
+        };
+    }
+    
+    private static final class RepositoryMethodTagger implements MethodInterceptor {
+        
+        private final String repositoryName;
+        private final Map<Method, String> labels = new ConcurrentHashMap<>();
+        
+        private RepositoryMethodTagger(Class<?> repositoryInterface) {
+            this.repositoryName = repositoryInterface.getSimpleName();
+        }
+        
+        @Override
+        public Object invoke(MethodInvocation invocation) throws Throwable {
+            String label = labels.computeIfAbsent(invocation.getMethod(), method -> repositoryName + "." + method.getName());
+            String previous = SlowQueryService.enterRepository(label);
+            try (RequestTiming timing = RequestTiming.enter(RequestTiming.Phase.REPOSITORY)) {
+                return invocation.proceed();
+            } finally {
+                SlowQueryService.exitRepository(previous);
+            }
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package com.krb.backend.config;
+
+import com.krb.backend.service.AccountArchivalService;
+import com.krb.backend.service.AuditService;
+import com.krb.backend.service.OutboxService;
+import com.krb.backend.service.RollupService;
+import com.krb.backend.service.SyncService;
+import com.krb.backend.service.TypeaheadService;
+import com.krb.backend.service.UniquenessFilterService;
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class StartupConfig {
+    
+    // Services with scheduled maintenance or startup work must exist even if no request has
+    // touched them yet; everything else can wait for its first use under lazy initialisation.
+    @Bean
+    public static LazyInitializationExcludeFilter eagerBackgroundServices() {
+        return LazyInitializationExcludeFilter.forBeanTypes(
+                SyncService.class, UniquenessFilterService.class, AuditService.class, TypeaheadService.class,
+                OutboxService.class, RollupService.class, AccountArchivalService.class);
+    }
+}
@@ -0,0 +1,158 @@
+package com.krb.backend.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.krb.backend.dto.AccountDto;
+import com.krb.backend.entity.Account;
+import com.krb.backend.service.AccountService;
+import com.krb.backend.service.CustomerService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import java.math.BigDecimal;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// Runs before Spring Boot marks the application ready (ReadinessState.ACCEPTING_TRAFFIC), so the
+// readiness endpoint keeps the load balancer away until the hot read paths have been compiled.
+// Ordered last so it runs after DataInitializer has seeded the database.
+@Component
+@Order(Ordered.LOWEST_PRECEDENCE)
+public class WarmupRunner implements ApplicationRunner {
+    
+    public enum Status {
+        PENDING, RUNNING, COMPLETED, SKIPPED
+    }
+    
+    private static final Logger log = LoggerFactory.getLogger(WarmupRunner.class);
+    
+    @Autowired
+    private AccountService accountService;
+    
+    @Autowired
+    private CustomerService customerService;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    @Value("${krb.warmup.enabled:true}")
+    private boolean enabled;
+    
+    @Value("${krb.warmup.iterations:2000}")
+    private int iterations;
+    
+    @Value("${krb.warmup.max-duration-ms:30000}")
+    private long maxDurationMs;
+    
+    private volatile Status status = Status.PENDING;
+    private volatile int completedIterations;
+    private volatile int failedIterations;
+    private volatile long elapsedMs;
+    private volatile double firstIterationMs;
+    private volatile double lastIterationMs;
+    
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!enabled) {
+            status = Status.SKIPPED;
+            return;
+        }
+        
+        status = Status.RUNNING;
+        long start = System.nanoTime();
+        long deadline = start + TimeUnit.MILLISECONDS.toNanos(maxDurationMs);
+        Long accountId = null;
+        Long customerId = null;
+        
+        for (int i = 0; i < iterations && System.nanoTime() - deadline < 0; i++) {
+            long iterationStart = System.nanoTime();
+            try {
+                List<AccountDto> top = runReadPaths(accountId, customerId);
+                if (accountId == null && !top.isEmpty()) {
+                    accountId = top.get(0).getId();
+                    customerId = top.get(0).getCustomerId();
+                }
+            } catch (RuntimeException e) {
+                if (failedIterations++ == 0) {
+                    log.warn("Warm-up iteration failed, continuing", e);
+                }
+            }
+            double iterationMs = (System.nanoTime() - iterationStart) / 1e6;
+            if (i == 0) {
+                firstIterationMs = iterationMs;
+            }
+            lastIterationMs = iterationMs;
+            completedIterations = i + 1;
+            elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        }
+        
+        status = Status.COMPLETED;
+        log.info("Warm-up finished: {} iterations in {} ms (first {} ms, last {} ms)",
+                completedIterations, elapsedMs, String.format("%.2f", firstIterationMs),
+                String.format("%.3f", lastIterationMs));
+    }
+    
+    public boolean isFinished() {
+        return status == Status.COMPLETED || status == Status.SKIPPED;
+    }
+    
+    public Map<String, Object> getProgress() {
+        Map<String, Object> progress = new LinkedHashMap<>();
+        progress.put("status", status);
+        progress.put("iterations", completedIterations);
+        progress.put("targetIterations", iterations);
+        progress.put("failedIterations", failedIterations);
+        progress.put("elapsedMs", elapsedMs);
+        progress.put("firstIterationMs", firstIterationMs);
+        progress.put("lastIterationMs", lastIterationMs);
+        return progress;
+    }
+    
+    // The same service calls and serialization the busiest list and detail endpoints perform, all
+    // read-only and bounded to a page so the cost does not grow with the database.
+    private List<AccountDto> runReadPaths(Long accountId, Long customerId) {
+        List<AccountDto> top = null;
+        for (Account.AccountType type : Account.AccountType.values()) {
+            List<AccountDto> accounts = accountService.getTopAccountsByBalance(type, 20);
+            serialize(accounts);
+            if (top == null || top.isEmpty()) {
+                top = accounts;
+            }
+        }
+        serialize(accountService.getAccountsByBalanceRange(BigDecimal.ZERO, null, null, 0, 50));
+        serialize(accountService.getLargestCreditExposures(0, 20));
+        serialize(customerService.getCustomersWithAccounts(0, 20));
+        serialize(customerService.searchCustomers("a", 50));
+        serialize(Map.of(
+                "accounts", accountService.getAccountCount(),
+                "activeBalance", accountService.getTotalActiveBalance(),
+                "customers", customerService.getCustomerCount()));
+        
+        if (accountId != null) {
+            accountService.getAccountById(accountId).ifPresent(account -> {
+                serialize(account);
+                accountService.getAccountByAccountNumber(account.getAccountNumber()).ifPresent(this::serialize);
+            });
+        }
+        if (customerId != null) {
+            customerService.getCustomerWithAccounts(customerId).ifPresent(this::serialize);
+            serialize(accountService.getAccountsByCustomer(customerId));
+        }
+        return top;
+    }
+    
+    private void serialize(Object value) {
+        try {
+            objectMapper.writeValueAsBytes(value);
+        } catch (Exception e) {
+            throw new IllegalStateException("Warm-up serialization failed", e);
+        }
+    }
+}
@@ -1,9 +1,15 @@
 package com.krb.backend.controller;
 
 import com.krb.backend.dto.AccountDto;
+import com.krb.backend.dto.AccountQuery;
+import com.krb.backend.dto.BatchGetRequest;
 import com.krb.backend.dto.CreateAccountRequest;
+import com.krb.backend.dto.PageResponse;
 import com.krb.backend.entity.Account;
+import com.krb.backend.service.AccountNumberIndexService;
 import com.krb.backend.service.AccountService;
+import com.krb.backend.service.AggregateReadService;
+import com.krb.backend.service.BalanceLeaderboardService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
@@ -21,30 +27,65 @@ public class AccountController {
     @Autowired
     private AccountService accountService;
     
+    @Autowired
+    private BalanceLeaderboardService balanceLeaderboardService;
+    
+    @Autowired
+    private AccountNumberIndexService accountNumberIndexService;
+    
+    @Autowired
+    private AggregateReadService aggregateReadService;
+    
     @GetMapping
-    public ResponseEntity<List<AccountDto>> getAllAccounts() {
-        List<AccountDto> accounts = accountService.getAllAccounts();
-        return ResponseEntity.ok(accounts);
+    public ResponseEntity<?> getAllAccounts(@RequestParam(required = false) List<String> fields) {
+        return FieldSelection.respond(fields, () -> accountService.getAllAccountFields(fields),
+                accountService::getAllAccounts);
+    }
+    
+    @GetMapping("/query")
+    public ResponseEntity<?> queryAccounts(AccountQuery query) {
+        try {
+            return ResponseEntity.ok(accountService.queryAccounts(query));
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
     }
     
     @GetMapping("/{id}")
-    public ResponseEntity<AccountDto> getAccountById(@PathVariable Long id) {
-        Optional<AccountDto> account = accountService.getAccountById(id);
+    public ResponseEntity<AccountDto> getAccountById(@PathVariable Long id,
+                                                     @RequestParam(defaultValue = "false") boolean includeArchived) {
+        Optional<AccountDto> account = accountService.getAccountById(id, includeArchived);
         return account.map(ResponseEntity::ok)
                      .orElse(ResponseEntity.notFound().build());
     }
     
+    @PostMapping("/batch-get")
+    public ResponseEntity<?> batchGetAccounts(@RequestBody BatchGetRequest request) {
+        try {
+            return ResponseEntity.ok(accountService.getAccountsByIds(request.getIds(), request.isIncludeArchived()));
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+    
     @GetMapping("/number/{accountNumber}")
-    public ResponseEntity<AccountDto> getAccountByAccountNumber(@PathVariable String accountNumber) {
-        Optional<AccountDto> account = accountService.getAccountByAccountNumber(accountNumber);
+    public ResponseEntity<AccountDto> getAccountByAccountNumber(@PathVariable String accountNumber,
+                                                                @RequestParam(defaultValue = "false") boolean includeArchived) {
+        Optional<AccountDto> account = accountNumberIndexService.getAccountByAccountNumber(accountNumber);
+        if (account.isEmpty() && includeArchived) {
+            account = accountService.getAccountByAccountNumber(accountNumber, true);
+        }
         return account.map(ResponseEntity::ok)
                      .orElse(ResponseEntity.notFound().build());
     }
     
     @GetMapping("/customer/{customerId}")
-    public ResponseEntity<List<AccountDto>> getAccountsByCustomer(@PathVariable Long customerId) {
-        List<AccountDto> accounts = accountService.getAccountsByCustomer(customerId);
-        return ResponseEntity.ok(accounts);
+    public ResponseEntity<?> getAccountsByCustomer(@PathVariable Long customerId,
+                                                   @RequestParam(required = false) List<String> fields,
+                                                   @RequestParam(defaultValue = "false") boolean includeArchived) {
+        return FieldSelection.respond(fields,
+                () -> accountService.getAccountFieldsByCustomer(customerId, fields, includeArchived),
+                () -> accountService.getAccountsByCustomer(customerId, includeArchived));
     }
     
     @GetMapping("/employee/{employeeId}")
@@ -65,6 +106,32 @@ public class AccountController {
         return ResponseEntity.ok(accounts);
     }
     
+    @GetMapping("/top")
+    public ResponseEntity<List<AccountDto>> getTopAccountsByBalance(@RequestParam Account.AccountType type,
+                                                                    @RequestParam(defaultValue = "100") int limit) {
+        if (limit <= balanceLeaderboardService.getCapacity()) {
+            return ResponseEntity.ok(balanceLeaderboardService.getTopAccounts(type, Math.max(limit, 0)));
+        }
+        return ResponseEntity.ok(accountService.getTopAccountsByBalance(type, Math.min(limit, 1000)));
+    }
+    
+    @GetMapping("/balance-range")
+    public ResponseEntity<PageResponse<AccountDto>> getAccountsByBalanceRange(@RequestParam BigDecimal min,
+                                                                             @RequestParam(required = false) BigDecimal max,
+                                                                             @RequestParam(required = false) Account.AccountType type,
+                                                                             @RequestParam(defaultValue = "0") int page,
+                                                                             @RequestParam(defaultValue = "50") int size) {
+        PageResponse<AccountDto> accounts = accountService.getAccountsByBalanceRange(min, max, type, page, size);
+        return ResponseEntity.ok(accounts);
+    }
+    
+    @GetMapping("/credit-exposures")
+    public ResponseEntity<PageResponse<AccountDto>> getLargestCreditExposures(@RequestParam(defaultValue = "0") int page,
+                                                                             @RequestParam(defaultValue = "50") int size) {
+        PageResponse<AccountDto> accounts = accountService.getLargestCreditExposures(page, size);
+        return ResponseEntity.ok(accounts);
+    }
+    
     @PostMapping
     public ResponseEntity<?> createAccount(@Valid @RequestBody CreateAccountRequest request, 
                                          @RequestParam Long employeeId) {
@@ -110,13 +177,13 @@ public class AccountController {
     
     @GetMapping("/count")
     public ResponseEntity<Long> getAccountCount() {
-        long count = accountService.getAccountCount();
+        long count = aggregateReadService.getAccountCount();
         return ResponseEntity.ok(count);
     }
     
     @GetMapping("/total-balance")
     public ResponseEntity<BigDecimal> getTotalActiveBalance() {
-        BigDecimal total = accountService.getTotalActiveBalance();
+        BigDecimal total = aggregateReadService.getTotalActiveBalance();
         return ResponseEntity.ok(total);
     }
     
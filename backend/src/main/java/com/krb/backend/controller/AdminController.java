@@ -0,0 +1,183 @@
+package com.krb.backend.controller;
+
+import com.krb.backend.dto.AuditEvent;
+import com.krb.backend.dto.SlowQuery;
+import com.krb.backend.entity.Tombstone;
+import com.krb.backend.service.AccountArchivalService;
+import com.krb.backend.service.AccountNumberIndexService;
+import com.krb.backend.service.AdmissionControlService;
+import com.krb.backend.service.AggregateReadService;
+import com.krb.backend.service.AuditService;
+import com.krb.backend.service.OutboxService;
+import com.krb.backend.service.RateLimitService;
+import com.krb.backend.service.RollupService;
+import com.krb.backend.service.ServerTimingService;
+import com.krb.backend.service.SlowQueryService;
+import com.krb.backend.service.TypeaheadService;
+import com.krb.backend.service.UniquenessFilterService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/admin")
+@CrossOrigin(origins = {"http://localhost:3000", "http://localhost:5173"})
+public class AdminController {
+    
+    @Autowired
+    private UniquenessFilterService uniquenessFilterService;
+    
+    @Autowired
+    private RateLimitService rateLimitService;
+    
+    @Autowired
+    private AdmissionControlService admissionControlService;
+    
+    @Autowired
+    private AuditService auditService;
+    
+    @Autowired
+    private AccountArchivalService accountArchivalService;
+    
+    @Autowired
+    private TypeaheadService typeaheadService;
+    
+    @Autowired
+    private AccountNumberIndexService accountNumberIndexService;
+    
+    @Autowired
+    private OutboxService outboxService;
+    
+    @Autowired
+    private RollupService rollupService;
+    
+    @Autowired
+    private AggregateReadService aggregateReadService;
+    
+    @Autowired
+    private SlowQueryService slowQueryService;
+    
+    @Autowired
+    private ServerTimingService serverTimingService;
+    
+    @GetMapping("/uniqueness-filters")
+    public ResponseEntity<Map<String, Map<String, Object>>> getUniquenessFilterStats() {
+        return ResponseEntity.ok(uniquenessFilterService.getStats());
+    }
+    
+    @PostMapping("/uniqueness-filters/rebuild")
+    public ResponseEntity<Map<String, Map<String, Object>>> rebuildUniquenessFilters() {
+        uniquenessFilterService.rebuildAll();
+        return ResponseEntity.ok(uniquenessFilterService.getStats());
+    }
+    
+    @GetMapping("/rate-limits")
+    public ResponseEntity<Map<String, Map<String, Object>>> getRateLimitStats() {
+        return ResponseEntity.ok(rateLimitService.getStats());
+    }
+    
+    @GetMapping("/admission")
+    public ResponseEntity<Map<String, Object>> getAdmissionStats() {
+        return ResponseEntity.ok(admissionControlService.getStats());
+    }
+    
+    @GetMapping("/audit")
+    public ResponseEntity<?> getAuditTrail(@RequestParam(defaultValue = "1") long fromSequence,
+                                           @RequestParam(defaultValue = "100") int limit,
+                                           @RequestParam(required = false) Tombstone.EntityType entityType,
+                                           @RequestParam(required = false) Long entityId) {
+        try {
+            List<AuditEvent> events = auditService.read(fromSequence, Math.min(Math.max(limit, 1), 1000),
+                    entityType, entityId);
+            return ResponseEntity.ok(events);
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+    
+    @GetMapping("/audit/stats")
+    public ResponseEntity<Map<String, Object>> getAuditStats() {
+        return ResponseEntity.ok(auditService.getStats());
+    }
+    
+    @GetMapping("/archive")
+    public ResponseEntity<Map<String, Object>> getArchiveStats() {
+        return ResponseEntity.ok(accountArchivalService.getStats());
+    }
+    
+    @PostMapping("/archive/run")
+    public ResponseEntity<Map<String, Object>> runArchive() {
+        accountArchivalService.archiveClosedAccounts();
+        return ResponseEntity.ok(accountArchivalService.getStats());
+    }
+    
+    @GetMapping("/typeahead")
+    public ResponseEntity<Map<String, Object>> getTypeaheadStats() {
+        return ResponseEntity.ok(typeaheadService.getStats());
+    }
+    
+    @PostMapping("/typeahead/rebuild")
+    public ResponseEntity<Map<String, Object>> rebuildTypeahead() {
+        typeaheadService.rebuildAll();
+        return ResponseEntity.ok(typeaheadService.getStats());
+    }
+    
+    @GetMapping("/account-index")
+    public ResponseEntity<Map<String, Object>> getAccountIndexStats() {
+        return ResponseEntity.ok(accountNumberIndexService.getStats());
+    }
+    
+    @GetMapping("/outbox")
+    public ResponseEntity<Map<String, Object>> getOutboxStats() {
+        return ResponseEntity.ok(outboxService.getStats());
+    }
+    
+    @GetMapping("/rollups")
+    public ResponseEntity<Map<String, Object>> getRollupStats() {
+        return ResponseEntity.ok(rollupService.getStats());
+    }
+    
+    @PostMapping("/rollups/backfill")
+    public ResponseEntity<Map<String, Object>> backfillRollups() {
+        rollupService.backfill();
+        return ResponseEntity.ok(rollupService.getStats());
+    }
+    
+    @GetMapping("/coalescing")
+    public ResponseEntity<Map<String, Object>> getCoalescingStats() {
+        return ResponseEntity.ok(aggregateReadService.getStats());
+    }
+    
+    @GetMapping("/slow-queries")
+    public ResponseEntity<List<SlowQuery>> getSlowQueries(@RequestParam(defaultValue = "worst") String order,
+                                                          @RequestParam(defaultValue = "50") int limit) {
+        int bounded = Math.min(Math.max(limit, 1), 1000);
+        return ResponseEntity.ok("recent".equalsIgnoreCase(order)
+                ? slowQueryService.getRecent(bounded)
+                : slowQueryService.getWorst(bounded));
+    }
+    
+    @GetMapping("/slow-queries/stats")
+    public ResponseEntity<Map<String, Object>> getSlowQueryStats() {
+        return ResponseEntity.ok(slowQueryService.getStats());
+    }
+    
+    @PostMapping("/slow-queries/reset")
+    public ResponseEntity<Map<String, Object>> resetSlowQueries() {
+        slowQueryService.reset();
+        return ResponseEntity.ok(slowQueryService.getStats());
+    }
+    
+    @GetMapping("/server-timing")
+    public ResponseEntity<Map<String, Object>> getServerTimingStats() {
+        return ResponseEntity.ok(serverTimingService.getStats());
+    }
+    
+    @PostMapping("/server-timing/reset")
+    public ResponseEntity<Map<String, Object>> resetServerTiming() {
+        serverTimingService.reset();
+        return ResponseEntity.ok(serverTimingService.getStats());
+    }
+}
@@ -0,0 +1,38 @@
+package com.krb.backend.controller;
+
+import com.krb.backend.service.ChangeStreamService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/events")
+@CrossOrigin(origins = {"http://localhost:3000", "http://localhost:5173"})
+public class ChangeStreamController {
+    
+    @Autowired
+    private ChangeStreamService changeStreamService;
+    
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter stream(@RequestParam(required = false) Long customerId,
+                             @RequestParam(required = false) Long employeeId) {
+        try {
+            return changeStreamService.subscribe(customerId, employeeId);
+        } catch (RuntimeException e) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, e.getMessage());
+        }
+    }
+    
+    @GetMapping("/stats")
+    public ResponseEntity<Map<String, Long>> getStats() {
+        return ResponseEntity.ok(Map.of(
+                "subscribers", (long) changeStreamService.getSubscriberCount(),
+                "droppedSubscribers", changeStreamService.getDroppedSubscriberCount(),
+                "stalledWrites", changeStreamService.getStalledWriteCount()));
+    }
+}
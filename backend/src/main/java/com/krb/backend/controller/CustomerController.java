@@ -1,6 +1,9 @@
 package com.krb.backend.controller;
 
+import com.krb.backend.dto.BatchGetRequest;
 import com.krb.backend.dto.CustomerDto;
+import com.krb.backend.dto.PageResponse;
+import com.krb.backend.service.AggregateReadService;
 import com.krb.backend.service.CustomerService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -18,15 +21,19 @@ public class CustomerController {
     @Autowired
     private CustomerService customerService;
     
+    @Autowired
+    private AggregateReadService aggregateReadService;
+    
     @GetMapping
-    public ResponseEntity<List<CustomerDto>> getAllCustomers() {
-        List<CustomerDto> customers = customerService.getAllCustomers();
-        return ResponseEntity.ok(customers);
+    public ResponseEntity<?> getAllCustomers(@RequestParam(required = false) List<String> fields) {
+        return FieldSelection.respond(fields, () -> customerService.getAllCustomerFields(fields),
+                customerService::getAllCustomers);
     }
     
     @GetMapping("/with-accounts")
-    public ResponseEntity<List<CustomerDto>> getAllCustomersWithAccounts() {
-        List<CustomerDto> customers = customerService.getAllCustomersWithAccounts();
+    public ResponseEntity<PageResponse<CustomerDto>> getCustomersWithAccounts(@RequestParam(defaultValue = "0") int page,
+                                                                              @RequestParam(defaultValue = "50") int size) {
+        PageResponse<CustomerDto> customers = customerService.getCustomersWithAccounts(page, size);
         return ResponseEntity.ok(customers);
     }
     
@@ -37,6 +44,32 @@ public class CustomerController {
                       .orElse(ResponseEntity.notFound().build());
     }
     
+    @PostMapping("/batch-get")
+    public ResponseEntity<?> batchGetCustomers(@RequestBody BatchGetRequest request) {
+        try {
+            return ResponseEntity.ok(customerService.getCustomersByIds(request.getIds(), request.isIncludeAccounts()));
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+    
+    @GetMapping("/{id}/with-accounts")
+    public ResponseEntity<CustomerDto> getCustomerWithAccounts(@PathVariable Long id) {
+        Optional<CustomerDto> customer = customerService.getCustomerWithAccounts(id);
+        return customer.map(ResponseEntity::ok)
+                      .orElse(ResponseEntity.notFound().build());
+    }
+    
+    @GetMapping("/employee/{employeeId}/portfolio")
+    public ResponseEntity<?> getPortfolioByEmployee(@PathVariable Long employeeId) {
+        try {
+            List<CustomerDto> customers = customerService.getPortfolioByEmployee(employeeId);
+            return ResponseEntity.ok(customers);
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+    
     @GetMapping("/employee/{employeeId}")
     public ResponseEntity<List<CustomerDto>> getCustomersByEmployee(@PathVariable Long employeeId) {
         List<CustomerDto> customers = customerService.getCustomersByEmployee(employeeId);
@@ -44,9 +77,10 @@ public class CustomerController {
     }
     
     @GetMapping("/search")
-    public ResponseEntity<List<CustomerDto>> searchCustomers(@RequestParam String term) {
-        List<CustomerDto> customers = customerService.searchCustomers(term);
-        return ResponseEntity.ok(customers);
+    public ResponseEntity<?> searchCustomers(@RequestParam String term,
+                                             @RequestParam(required = false) List<String> fields) {
+        return FieldSelection.respond(fields, () -> customerService.searchCustomerFields(term, fields),
+                () -> customerService.searchCustomers(term));
     }
     
     @PostMapping
@@ -82,7 +116,7 @@ public class CustomerController {
     
     @GetMapping("/count")
     public ResponseEntity<Long> getCustomerCount() {
-        long count = customerService.getCustomerCount();
+        long count = aggregateReadService.getCustomerCount();
         return ResponseEntity.ok(count);
     }
 }
@@ -3,6 +3,7 @@ package com.krb.backend.controller;
 import com.krb.backend.dto.CreateEmployeeRequest;
 import com.krb.backend.dto.EmployeeDto;
 import com.krb.backend.entity.Employee;
+import com.krb.backend.service.AggregateReadService;
 import com.krb.backend.service.EmployeeService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -20,6 +21,9 @@ public class EmployeeController {
     @Autowired
     private EmployeeService employeeService;
     
+    @Autowired
+    private AggregateReadService aggregateReadService;
+    
     @GetMapping
     public ResponseEntity<List<EmployeeDto>> getAllEmployees() {
         List<EmployeeDto> employees = employeeService.getAllEmployees();
@@ -78,7 +82,7 @@ public class EmployeeController {
     
     @GetMapping("/count")
     public ResponseEntity<Long> getEmployeeCount() {
-        long count = employeeService.getEmployeeCount();
+        long count = aggregateReadService.getEmployeeCount();
         return ResponseEntity.ok(count);
     }
     
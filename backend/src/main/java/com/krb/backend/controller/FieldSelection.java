@@ -0,0 +1,24 @@
+package com.krb.backend.controller;
+
+import com.krb.backend.repository.FieldProjection;
+import org.springframework.http.ResponseEntity;
+import java.util.List;
+import java.util.function.Supplier;
+
+// The ?fields= variant of the list endpoints: without it the full DTOs are returned, with it only
+// the named columns are read, and an unknown field name is a 400.
+final class FieldSelection {
+    
+    private FieldSelection() {}
+    
+    static ResponseEntity<?> respond(List<String> fields, Supplier<?> projected, Supplier<?> full) {
+        if (fields == null) {
+            return ResponseEntity.ok(full.get());
+        }
+        try {
+            return ResponseEntity.ok(projected.get());
+        } catch (FieldProjection.UnknownFieldException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+}
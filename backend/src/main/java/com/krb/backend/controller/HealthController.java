@@ -0,0 +1,44 @@
+package com.krb.backend.controller;
+
+import com.krb.backend.config.WarmupRunner;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.availability.ApplicationAvailability;
+import org.springframework.boot.availability.LivenessState;
+import org.springframework.boot.availability.ReadinessState;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/health")
+@CrossOrigin(origins = {"http://localhost:3000", "http://localhost:5173"})
+public class HealthController {
+    
+    @Autowired
+    private ApplicationAvailability applicationAvailability;
+    
+    @Autowired
+    private WarmupRunner warmupRunner;
+    
+    @GetMapping("/liveness")
+    public ResponseEntity<Map<String, Object>> liveness() {
+        LivenessState state = applicationAvailability.getLivenessState();
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("status", state);
+        return ResponseEntity.status(state == LivenessState.CORRECT ? HttpStatus.OK : HttpStatus.SERVICE_UNAVAILABLE)
+                .body(body);
+    }
+    
+    @GetMapping("/readiness")
+    public ResponseEntity<Map<String, Object>> readiness() {
+        ReadinessState state = applicationAvailability.getReadinessState();
+        boolean ready = state == ReadinessState.ACCEPTING_TRAFFIC && warmupRunner.isFinished();
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("status", ready ? "READY" : "NOT_READY");
+        body.put("readinessState", state);
+        body.put("warmup", warmupRunner.getProgress());
+        return ResponseEntity.status(ready ? HttpStatus.OK : HttpStatus.SERVICE_UNAVAILABLE).body(body);
+    }
+}
@@ -0,0 +1,77 @@
+package com.krb.backend.controller;
+
+import com.krb.backend.dto.ReportJobDto;
+import com.krb.backend.dto.ReportRequest;
+import com.krb.backend.service.ReportJobService;
+import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import java.net.URI;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+
+@RestController
+@RequestMapping("/api/reports")
+@CrossOrigin(origins = {"http://localhost:3000", "http://localhost:5173"})
+public class ReportController {
+    
+    @Autowired
+    private ReportJobService reportJobService;
+    
+    @PostMapping
+    public ResponseEntity<?> submitReport(@Valid @RequestBody ReportRequest request) {
+        try {
+            ReportJobDto job = reportJobService.submit(request.getType(), request.getEmployeeId(),
+                    request.isRefresh());
+            return ResponseEntity.accepted()
+                    .location(URI.create("/api/reports/" + job.getId()))
+                    .body(job);
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(e.getMessage());
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+    
+    @GetMapping
+    public ResponseEntity<List<ReportJobDto>> getReportJobs() {
+        return ResponseEntity.ok(reportJobService.getJobs());
+    }
+    
+    @GetMapping("/{id}")
+    public ResponseEntity<ReportJobDto> getReportJob(@PathVariable String id) {
+        Optional<ReportJobDto> job = reportJobService.getJob(id);
+        return job.map(ResponseEntity::ok)
+                 .orElse(ResponseEntity.notFound().build());
+    }
+    
+    @GetMapping("/{id}/download")
+    public ResponseEntity<?> downloadReport(@PathVariable String id) {
+        try {
+            Path file = reportJobService.getResultFile(id);
+            return ResponseEntity.ok()
+                    .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                            .filename(reportJobService.getDownloadName(id)).build().toString())
+                    .contentType(MediaType.parseMediaType("text/csv"))
+                    .body(new FileSystemResource(file));
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(e.getMessage());
+        }
+    }
+    
+    @DeleteMapping("/{id}")
+    public ResponseEntity<?> cancelReport(@PathVariable String id) {
+        try {
+            return ResponseEntity.ok(reportJobService.cancel(id));
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.krb.backend.controller;
+
+import com.krb.backend.entity.Account;
+import com.krb.backend.service.RollupService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import java.time.LocalDate;
+
+@RestController
+@RequestMapping("/api/rollups")
+@CrossOrigin(origins = {"http://localhost:3000", "http://localhost:5173"})
+public class RollupController {
+    
+    @Autowired
+    private RollupService rollupService;
+    
+    @GetMapping("/accounts/opened")
+    public ResponseEntity<?> getAccountsOpened(@RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                               @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+                                               @RequestParam(required = false) Account.AccountType accountType) {
+        try {
+            LocalDate end = to != null ? to : LocalDate.now();
+            return ResponseEntity.ok(rollupService.getAccountsOpened(from != null ? from : end.minusDays(29), end,
+                    accountType));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+    
+    @GetMapping("/accounts/balance")
+    public ResponseEntity<?> getBalanceByDay(@RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+                                             @RequestParam(defaultValue = "ACTIVE") Account.AccountStatus status,
+                                             @RequestParam(required = false) Account.AccountType accountType) {
+        try {
+            LocalDate end = to != null ? to : LocalDate.now();
+            return ResponseEntity.ok(rollupService.getBalanceByDay(from != null ? from : end.minusDays(29), end,
+                    status, accountType));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+    
+    @GetMapping("/customers/onboarded")
+    public ResponseEntity<?> getCustomersOnboarded(@RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                                   @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+                                                   @RequestParam(required = false) Long employeeId,
+                                                   @RequestParam(defaultValue = "MONTH") RollupService.Granularity granularity) {
+        try {
+            LocalDate end = to != null ? to : LocalDate.now();
+            LocalDate start = from != null ? from : granularity == RollupService.Granularity.MONTH
+                    ? end.minusMonths(11).withDayOfMonth(1)
+                    : end.minusDays(29);
+            return ResponseEntity.ok(rollupService.getCustomersOnboarded(start, end, employeeId, granularity));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+}
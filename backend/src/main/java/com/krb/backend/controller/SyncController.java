@@ -0,0 +1,22 @@
+package com.krb.backend.controller;
+
+import com.krb.backend.dto.SyncResponse;
+import com.krb.backend.service.SyncService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/sync")
+@CrossOrigin(origins = {"http://localhost:3000", "http://localhost:5173"})
+public class SyncController {
+    
+    @Autowired
+    private SyncService syncService;
+    
+    @GetMapping
+    public ResponseEntity<SyncResponse> getChangesSince(@RequestParam(required = false) Long since) {
+        SyncResponse changes = syncService.getChangesSince(since);
+        return ResponseEntity.ok(changes);
+    }
+}
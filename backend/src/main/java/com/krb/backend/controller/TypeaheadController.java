@@ -0,0 +1,29 @@
+package com.krb.backend.controller;
+
+import com.krb.backend.dto.TypeaheadSuggestion;
+import com.krb.backend.entity.Tombstone;
+import com.krb.backend.service.TypeaheadService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import java.util.EnumSet;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/typeahead")
+@CrossOrigin(origins = {"http://localhost:3000", "http://localhost:5173"})
+public class TypeaheadController {
+    
+    @Autowired
+    private TypeaheadService typeaheadService;
+    
+    @GetMapping
+    public ResponseEntity<List<TypeaheadSuggestion>> suggest(@RequestParam String q,
+                                                             @RequestParam(required = false) Integer limit,
+                                                             @RequestParam(required = false) List<Tombstone.EntityType> types) {
+        EnumSet<Tombstone.EntityType> requested = types == null || types.isEmpty()
+                ? EnumSet.of(Tombstone.EntityType.CUSTOMER, Tombstone.EntityType.ACCOUNT)
+                : EnumSet.copyOf(types);
+        return ResponseEntity.ok(typeaheadService.suggest(q, limit, requested));
+    }
+}
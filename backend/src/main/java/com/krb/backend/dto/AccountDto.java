@@ -28,6 +28,7 @@ public class AccountDto {
     private String customerName;
     private Long createdByEmployeeId;
     private String createdByEmployeeName;
+    private boolean archived;
     
     public AccountDto() {}
     
@@ -90,6 +91,9 @@ public class AccountDto {
     public String getCreatedByEmployeeName() { return createdByEmployeeName; }
     public void setCreatedByEmployeeName(String createdByEmployeeName) { this.createdByEmployeeName = createdByEmployeeName; }
     
+    public boolean isArchived() { return archived; }
+    public void setArchived(boolean archived) { this.archived = archived; }
+    
     public String getAccountTypeDisplayName() {
         return accountType != null ? accountType.getDisplayName() : "";
     }
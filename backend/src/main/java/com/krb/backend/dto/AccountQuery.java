@@ -0,0 +1,81 @@
+package com.krb.backend.dto;
+
+import com.krb.backend.entity.Account;
+import org.springframework.format.annotation.DateTimeFormat;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+public class AccountQuery {
+    
+    private Account.AccountType type;
+    private Account.AccountStatus status;
+    private Long customerId;
+    private Long employeeId;
+    private BigDecimal minBalance;
+    private BigDecimal maxBalance;
+    
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime createdAfter;
+    
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime createdBefore;
+    
+    private Integer createdWithinDays;
+    
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime updatedAfter;
+    
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime updatedBefore;
+    
+    // "property" or "property,asc|desc", repeatable; see AccountSpecifications.SORTABLE
+    private List<String> sort;
+    
+    private int page = 0;
+    private int size = 50;
+    
+    public AccountQuery() {}
+    
+    public Account.AccountType getType() { return type; }
+    public void setType(Account.AccountType type) { this.type = type; }
+    
+    public Account.AccountStatus getStatus() { return status; }
+    public void setStatus(Account.AccountStatus status) { this.status = status; }
+    
+    public Long getCustomerId() { return customerId; }
+    public void setCustomerId(Long customerId) { this.customerId = customerId; }
+    
+    public Long getEmployeeId() { return employeeId; }
+    public void setEmployeeId(Long employeeId) { this.employeeId = employeeId; }
+    
+    public BigDecimal getMinBalance() { return minBalance; }
+    public void setMinBalance(BigDecimal minBalance) { this.minBalance = minBalance; }
+    
+    public BigDecimal getMaxBalance() { return maxBalance; }
+    public void setMaxBalance(BigDecimal maxBalance) { this.maxBalance = maxBalance; }
+    
+    public LocalDateTime getCreatedAfter() { return createdAfter; }
+    public void setCreatedAfter(LocalDateTime createdAfter) { this.createdAfter = createdAfter; }
+    
+    public LocalDateTime getCreatedBefore() { return createdBefore; }
+    public void setCreatedBefore(LocalDateTime createdBefore) { this.createdBefore = createdBefore; }
+    
+    public Integer getCreatedWithinDays() { return createdWithinDays; }
+    public void setCreatedWithinDays(Integer createdWithinDays) { this.createdWithinDays = createdWithinDays; }
+    
+    public LocalDateTime getUpdatedAfter() { return updatedAfter; }
+    public void setUpdatedAfter(LocalDateTime updatedAfter) { this.updatedAfter = updatedAfter; }
+    
+    public LocalDateTime getUpdatedBefore() { return updatedBefore; }
+    public void setUpdatedBefore(LocalDateTime updatedBefore) { this.updatedBefore = updatedBefore; }
+    
+    public List<String> getSort() { return sort; }
+    public void setSort(List<String> sort) { this.sort = sort; }
+    
+    public int getPage() { return page; }
+    public void setPage(int page) { this.page = page; }
+    
+    public int getSize() { return size; }
+    public void setSize(int size) { this.size = size; }
+}
@@ -0,0 +1,54 @@
+package com.krb.backend.dto;
+
+import com.krb.backend.entity.Tombstone;
+
+public class AuditEvent {
+    
+    public enum Action {
+        CREATE, UPDATE, STATUS_CHANGE, BALANCE_CHANGE, DELETE, ARCHIVE, GAP
+    }
+    
+    private long sequence;
+    private long timestamp;
+    private Long actorEmployeeId;
+    private Tombstone.EntityType entityType;
+    private Long entityId;
+    private Action action;
+    private String detail;
+    
+    public AuditEvent() {}
+    
+    public AuditEvent(Long actorEmployeeId, Tombstone.EntityType entityType, Long entityId, Action action, String detail) {
+        this.timestamp = System.currentTimeMillis();
+        this.actorEmployeeId = actorEmployeeId;
+        this.entityType = entityType;
+        this.entityId = entityId;
+        this.action = action;
+        this.detail = detail;
+    }
+    
+    public static AuditEvent gap(long droppedEvents) {
+        return new AuditEvent(null, null, null, Action.GAP, droppedEvents + " events dropped");
+    }
+    
+    public long getSequence() { return sequence; }
+    public void setSequence(long sequence) { this.sequence = sequence; }
+    
+    public long getTimestamp() { return timestamp; }
+    public void setTimestamp(long timestamp) { this.timestamp = timestamp; }
+    
+    public Long getActorEmployeeId() { return actorEmployeeId; }
+    public void setActorEmployeeId(Long actorEmployeeId) { this.actorEmployeeId = actorEmployeeId; }
+    
+    public Tombstone.EntityType getEntityType() { return entityType; }
+    public void setEntityType(Tombstone.EntityType entityType) { this.entityType = entityType; }
+    
+    public Long getEntityId() { return entityId; }
+    public void setEntityId(Long entityId) { this.entityId = entityId; }
+    
+    public Action getAction() { return action; }
+    public void setAction(Action action) { this.action = action; }
+    
+    public String getDetail() { return detail; }
+    public void setDetail(String detail) { this.detail = detail; }
+}
@@ -0,0 +1,29 @@
+package com.krb.backend.dto;
+
+import java.util.List;
+
+public class BatchGetRequest {
+    
+    private List<Long> ids;
+    
+    // Accounts only: also look in accounts_archive for ids not in the hot table.
+    private boolean includeArchived;
+    
+    // Customers only: embed each customer's accounts.
+    private boolean includeAccounts;
+    
+    public BatchGetRequest() {}
+    
+    public BatchGetRequest(List<Long> ids) {
+        this.ids = ids;
+    }
+    
+    public List<Long> getIds() { return ids; }
+    public void setIds(List<Long> ids) { this.ids = ids; }
+    
+    public boolean isIncludeArchived() { return includeArchived; }
+    public void setIncludeArchived(boolean includeArchived) { this.includeArchived = includeArchived; }
+    
+    public boolean isIncludeAccounts() { return includeAccounts; }
+    public void setIncludeAccounts(boolean includeAccounts) { this.includeAccounts = includeAccounts; }
+}
@@ -0,0 +1,23 @@
+package com.krb.backend.dto;
+
+import java.util.List;
+import java.util.Map;
+
+public class BatchGetResponse<T> {
+    
+    private Map<Long, T> results;
+    private List<Long> missing;
+    
+    public BatchGetResponse() {}
+    
+    public BatchGetResponse(Map<Long, T> results, List<Long> missing) {
+        this.results = results;
+        this.missing = missing;
+    }
+    
+    public Map<Long, T> getResults() { return results; }
+    public void setResults(Map<Long, T> results) { this.results = results; }
+    
+    public List<Long> getMissing() { return missing; }
+    public void setMissing(List<Long> missing) { this.missing = missing; }
+}
@@ -0,0 +1,73 @@
+package com.krb.backend.dto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public class ChangeEvent {
+    
+    private ChangeType type;
+    private Long entityId;
+    private Long customerId;
+    private Long employeeId;
+    private LocalDateTime timestamp;
+    private Object data;
+    
+    public enum ChangeType {
+        ACCOUNT_CREATED, ACCOUNT_STATUS_CHANGED, ACCOUNT_BALANCE_CHANGED, ACCOUNT_DELETED,
+        ACCOUNTS_ARCHIVED, CUSTOMER_CREATED, CUSTOMER_UPDATED, CUSTOMER_DELETED,
+        EMPLOYEE_CREATED, EMPLOYEE_UPDATED, EMPLOYEE_DELETED
+    }
+    
+    public ChangeEvent() {}
+    
+    public ChangeEvent(ChangeType type, Long entityId, Long customerId, Long employeeId, Object data) {
+        this.type = type;
+        this.entityId = entityId;
+        this.customerId = customerId;
+        this.employeeId = employeeId;
+        this.data = data;
+        this.timestamp = LocalDateTime.now();
+    }
+    
+    public static ChangeEvent forAccount(ChangeType type, AccountDto account) {
+        return new ChangeEvent(type, account.getId(), account.getCustomerId(),
+                account.getCreatedByEmployeeId(), account);
+    }
+    
+    public static ChangeEvent forCustomer(ChangeType type, CustomerDto customer) {
+        return new ChangeEvent(type, customer.getId(), customer.getId(),
+                customer.getCreatedByEmployeeId(), customer);
+    }
+    
+    public static ChangeEvent forEmployee(ChangeType type, EmployeeDto employee) {
+        return new ChangeEvent(type, employee.getId(), null, employee.getId(), employee);
+    }
+    
+    // One event per archival batch; the data is the list of archived account ids.
+    public static ChangeEvent forArchivedAccounts(List<Long> accountIds) {
+        return new ChangeEvent(ChangeType.ACCOUNTS_ARCHIVED, null, null, null, accountIds);
+    }
+    
+    @SuppressWarnings("unchecked")
+    public List<Long> archivedAccountIds() {
+        return type == ChangeType.ACCOUNTS_ARCHIVED && data instanceof List<?> ? (List<Long>) data : List.of();
+    }
+    
+    public ChangeType getType() { return type; }
+    public void setType(ChangeType type) { this.type = type; }
+    
+    public Long getEntityId() { return entityId; }
+    public void setEntityId(Long entityId) { this.entityId = entityId; }
+    
+    public Long getCustomerId() { return customerId; }
+    public void setCustomerId(Long customerId) { this.customerId = customerId; }
+    
+    public Long getEmployeeId() { return employeeId; }
+    public void setEmployeeId(Long employeeId) { this.employeeId = employeeId; }
+    
+    public LocalDateTime getTimestamp() { return timestamp; }
+    public void setTimestamp(LocalDateTime timestamp) { this.timestamp = timestamp; }
+    
+    public Object getData() { return data; }
+    public void setData(Object data) { this.data = data; }
+}
@@ -106,4 +106,14 @@ public class CustomerDto {
     public String getFullName() {
         return firstName + " " + lastName;
     }
+    
+    // A copy for change events that leave the request: the SSN and date of birth are only
+    // returned to callers that ask for the customer directly.
+    public CustomerDto withoutSensitiveFields() {
+        CustomerDto copy = new CustomerDto(id, firstName, lastName, email, phoneNumber, address, null, null,
+                createdAt, updatedAt, createdByEmployeeId, createdByEmployeeName);
+        copy.setAccounts(accounts);
+        copy.setAccountCount(accountCount);
+        return copy;
+    }
 }
@@ -0,0 +1,70 @@
+package com.krb.backend.dto;
+
+import com.krb.backend.service.ReportJobService;
+import java.time.LocalDateTime;
+
+public class ReportJobDto {
+    
+    private String id;
+    private ReportJobService.ReportType type;
+    private Long employeeId;
+    private ReportJobService.Status status;
+    private long processedItems;
+    private long totalItems;
+    private int progressPercent;
+    private long rowsWritten;
+    private long sizeBytes;
+    private String error;
+    private boolean reused;
+    private LocalDateTime submittedAt;
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+    private LocalDateTime expiresAt;
+    
+    public ReportJobDto() {}
+    
+    public String getId() { return id; }
+    public void setId(String id) { this.id = id; }
+    
+    public ReportJobService.ReportType getType() { return type; }
+    public void setType(ReportJobService.ReportType type) { this.type = type; }
+    
+    public Long getEmployeeId() { return employeeId; }
+    public void setEmployeeId(Long employeeId) { this.employeeId = employeeId; }
+    
+    public ReportJobService.Status getStatus() { return status; }
+    public void setStatus(ReportJobService.Status status) { this.status = status; }
+    
+    public long getProcessedItems() { return processedItems; }
+    public void setProcessedItems(long processedItems) { this.processedItems = processedItems; }
+    
+    public long getTotalItems() { return totalItems; }
+    public void setTotalItems(long totalItems) { this.totalItems = totalItems; }
+    
+    public int getProgressPercent() { return progressPercent; }
+    public void setProgressPercent(int progressPercent) { this.progressPercent = progressPercent; }
+    
+    public long getRowsWritten() { return rowsWritten; }
+    public void setRowsWritten(long rowsWritten) { this.rowsWritten = rowsWritten; }
+    
+    public long getSizeBytes() { return sizeBytes; }
+    public void setSizeBytes(long sizeBytes) { this.sizeBytes = sizeBytes; }
+    
+    public String getError() { return error; }
+    public void setError(String error) { this.error = error; }
+    
+    public boolean isReused() { return reused; }
+    public void setReused(boolean reused) { this.reused = reused; }
+    
+    public LocalDateTime getSubmittedAt() { return submittedAt; }
+    public void setSubmittedAt(LocalDateTime submittedAt) { this.submittedAt = submittedAt; }
+    
+    public LocalDateTime getStartedAt() { return startedAt; }
+    public void setStartedAt(LocalDateTime startedAt) { this.startedAt = startedAt; }
+    
+    public LocalDateTime getFinishedAt() { return finishedAt; }
+    public void setFinishedAt(LocalDateTime finishedAt) { this.finishedAt = finishedAt; }
+    
+    public LocalDateTime getExpiresAt() { return expiresAt; }
+    public void setExpiresAt(LocalDateTime expiresAt) { this.expiresAt = expiresAt; }
+}
@@ -0,0 +1,30 @@
+package com.krb.backend.dto;
+
+import com.krb.backend.service.ReportJobService;
+import jakarta.validation.constraints.NotNull;
+
+public class ReportRequest {
+    
+    @NotNull(message = "Report type is required")
+    private ReportJobService.ReportType type;
+    
+    private Long employeeId;
+    
+    private boolean refresh;
+    
+    public ReportRequest() {}
+    
+    public ReportRequest(ReportJobService.ReportType type, Long employeeId) {
+        this.type = type;
+        this.employeeId = employeeId;
+    }
+    
+    public ReportJobService.ReportType getType() { return type; }
+    public void setType(ReportJobService.ReportType type) { this.type = type; }
+    
+    public Long getEmployeeId() { return employeeId; }
+    public void setEmployeeId(Long employeeId) { this.employeeId = employeeId; }
+    
+    public boolean isRefresh() { return refresh; }
+    public void setRefresh(boolean refresh) { this.refresh = refresh; }
+}
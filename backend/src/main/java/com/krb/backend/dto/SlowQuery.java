@@ -0,0 +1,54 @@
+package com.krb.backend.dto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public class SlowQuery {
+    
+    private LocalDateTime recordedAt;
+    private double elapsedMs;
+    private double executeMs;
+    private double fetchMs;
+    private long rows;
+    private int batchSize;
+    private String sql;
+    private List<String> parameters;
+    private String repositoryMethod;
+    private String serviceMethod;
+    private String thread;
+    
+    public SlowQuery() {}
+    
+    public LocalDateTime getRecordedAt() { return recordedAt; }
+    public void setRecordedAt(LocalDateTime recordedAt) { this.recordedAt = recordedAt; }
+    
+    public double getElapsedMs() { return elapsedMs; }
+    public void setElapsedMs(double elapsedMs) { this.elapsedMs = elapsedMs; }
+    
+    public double getExecuteMs() { return executeMs; }
+    public void setExecuteMs(double executeMs) { this.executeMs = executeMs; }
+    
+    public double getFetchMs() { return fetchMs; }
+    public void setFetchMs(double fetchMs) { this.fetchMs = fetchMs; }
+    
+    public long getRows() { return rows; }
+    public void setRows(long rows) { this.rows = rows; }
+    
+    public int getBatchSize() { return batchSize; }
+    public void setBatchSize(int batchSize) { this.batchSize = batchSize; }
+    
+    public String getSql() { return sql; }
+    public void setSql(String sql) { this.sql = sql; }
+    
+    public List<String> getParameters() { return parameters; }
+    public void setParameters(List<String> parameters) { this.parameters = parameters; }
+    
+    public String getRepositoryMethod() { return repositoryMethod; }
+    public void setRepositoryMethod(String repositoryMethod) { this.repositoryMethod = repositoryMethod; }
+    
+    public String getServiceMethod() { return serviceMethod; }
+    public void setServiceMethod(String serviceMethod) { this.serviceMethod = serviceMethod; }
+    
+    public String getThread() { return thread; }
+    public void setThread(String thread) { this.thread = thread; }
+}
@@ -0,0 +1,42 @@
+package com.krb.backend.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class SyncResponse {
+    
+    private long cursor;
+    private boolean fullResync;
+    private List<AccountDto> accounts = new ArrayList<>();
+    private List<CustomerDto> customers = new ArrayList<>();
+    private List<EmployeeDto> employees = new ArrayList<>();
+    private List<Long> deletedAccountIds = new ArrayList<>();
+    private List<Long> deletedCustomerIds = new ArrayList<>();
+    private List<Long> deletedEmployeeIds = new ArrayList<>();
+    
+    public SyncResponse() {}
+    
+    public long getCursor() { return cursor; }
+    public void setCursor(long cursor) { this.cursor = cursor; }
+    
+    public boolean isFullResync() { return fullResync; }
+    public void setFullResync(boolean fullResync) { this.fullResync = fullResync; }
+    
+    public List<AccountDto> getAccounts() { return accounts; }
+    public void setAccounts(List<AccountDto> accounts) { this.accounts = accounts; }
+    
+    public List<CustomerDto> getCustomers() { return customers; }
+    public void setCustomers(List<CustomerDto> customers) { this.customers = customers; }
+    
+    public List<EmployeeDto> getEmployees() { return employees; }
+    public void setEmployees(List<EmployeeDto> employees) { this.employees = employees; }
+    
+    public List<Long> getDeletedAccountIds() { return deletedAccountIds; }
+    public void setDeletedAccountIds(List<Long> deletedAccountIds) { this.deletedAccountIds = deletedAccountIds; }
+    
+    public List<Long> getDeletedCustomerIds() { return deletedCustomerIds; }
+    public void setDeletedCustomerIds(List<Long> deletedCustomerIds) { this.deletedCustomerIds = deletedCustomerIds; }
+    
+    public List<Long> getDeletedEmployeeIds() { return deletedEmployeeIds; }
+    public void setDeletedEmployeeIds(List<Long> deletedEmployeeIds) { this.deletedEmployeeIds = deletedEmployeeIds; }
+}
@@ -0,0 +1,27 @@
+package com.krb.backend.dto;
+
+import java.time.LocalDate;
+
+public class TimeSeriesPoint {
+    
+    private LocalDate period;
+    private String series;
+    private Number value;
+    
+    public TimeSeriesPoint() {}
+    
+    public TimeSeriesPoint(LocalDate period, String series, Number value) {
+        this.period = period;
+        this.series = series;
+        this.value = value;
+    }
+    
+    public LocalDate getPeriod() { return period; }
+    public void setPeriod(LocalDate period) { this.period = period; }
+    
+    public String getSeries() { return series; }
+    public void setSeries(String series) { this.series = series; }
+    
+    public Number getValue() { return value; }
+    public void setValue(Number value) { this.value = value; }
+}
@@ -0,0 +1,37 @@
+package com.krb.backend.dto;
+
+import com.krb.backend.entity.Tombstone;
+
+public class TypeaheadSuggestion {
+    
+    private Tombstone.EntityType type;
+    private Long id;
+    private Long customerId;
+    private String matchedField;
+    private String label;
+    
+    public TypeaheadSuggestion() {}
+    
+    public TypeaheadSuggestion(Tombstone.EntityType type, Long id, Long customerId, String matchedField, String label) {
+        this.type = type;
+        this.id = id;
+        this.customerId = customerId;
+        this.matchedField = matchedField;
+        this.label = label;
+    }
+    
+    public Tombstone.EntityType getType() { return type; }
+    public void setType(Tombstone.EntityType type) { this.type = type; }
+    
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+    
+    public Long getCustomerId() { return customerId; }
+    public void setCustomerId(Long customerId) { this.customerId = customerId; }
+    
+    public String getMatchedField() { return matchedField; }
+    public void setMatchedField(String matchedField) { this.matchedField = matchedField; }
+    
+    public String getLabel() { return label; }
+    public void setLabel(String label) { this.label = label; }
+}
@@ -7,7 +7,28 @@ import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "accounts")
+@NamedEntityGraph(name = "Account.list", attributeNodes = {
+    @NamedAttributeNode("customer"),
+    @NamedAttributeNode("createdBy")
+})
+// The balance and credit-limit indexes are declared descending with id as the last key, matching
+// the largest-first queries in AccountRepository: H2 does not walk an ascending index backwards.
+// For the same reason every key AccountSpecifications can sort on has an index per direction,
+// each ending in the id tie-breaker sortOf appends.
+@Table(name = "accounts", indexes = {
+    @Index(name = "idx_accounts_updated_at_id", columnList = "updated_at, id"),
+    @Index(name = "idx_accounts_updated_at_desc_id", columnList = "updated_at DESC, id DESC"),
+    @Index(name = "idx_accounts_created_at_id", columnList = "created_at, id"),
+    @Index(name = "idx_accounts_created_at_desc_id", columnList = "created_at DESC, id DESC"),
+    @Index(name = "idx_accounts_id_desc", columnList = "id DESC"),
+    @Index(name = "idx_accounts_account_number_desc", columnList = "account_number DESC"),
+    @Index(name = "idx_accounts_type_balance_id", columnList = "account_type, balance DESC, id DESC"),
+    @Index(name = "idx_accounts_balance_id", columnList = "balance DESC, id DESC"),
+    @Index(name = "idx_accounts_balance_asc_id", columnList = "balance, id"),
+    @Index(name = "idx_accounts_type_credit_limit_id",
+           columnList = "account_type, credit_limit DESC, balance DESC, id DESC"),
+    @Index(name = "idx_accounts_status_updated_at", columnList = "status, updated_at")
+})
 public class Account {
     
     @Id
@@ -50,23 +71,26 @@ public class Account {
     private Employee createdBy;
     
     public enum AccountType {
-        SAVINGS("Savings Account", 2.5),
-        CHECKING("Checking Account", 0.1),
-        FIXED_DEPOSIT("Fixed Deposit Account", 4.5),
-        CREDIT_CARD("Credit Card Account", 18.9),
-        MONEY_MARKET("Money Market Account", 3.2),
-        BUSINESS_CHECKING("Business Checking Account", 0.5);
+        SAVINGS("Savings Account", 2.5, "SAV"),
+        CHECKING("Checking Account", 0.1, "CHK"),
+        FIXED_DEPOSIT("Fixed Deposit Account", 4.5, "FD"),
+        CREDIT_CARD("Credit Card Account", 18.9, "CC"),
+        MONEY_MARKET("Money Market Account", 3.2, "MM"),
+        BUSINESS_CHECKING("Business Checking Account", 0.5, "BC");
         
         private final String displayName;
         private final double defaultInterestRate;
+        private final String accountNumberPrefix;
         
-        AccountType(String displayName, double defaultInterestRate) {
+        AccountType(String displayName, double defaultInterestRate, String accountNumberPrefix) {
             this.displayName = displayName;
             this.defaultInterestRate = defaultInterestRate;
+            this.accountNumberPrefix = accountNumberPrefix;
         }
         
         public String getDisplayName() { return displayName; }
         public double getDefaultInterestRate() { return defaultInterestRate; }
+        public String getAccountNumberPrefix() { return accountNumberPrefix; }
     }
     
     public enum AccountStatus {
@@ -94,16 +118,8 @@ public class Account {
     }
     
     private void generateAccountNumber() {
-        String prefix = switch (accountType) {
-            case SAVINGS -> "SAV";
-            case CHECKING -> "CHK";
-            case FIXED_DEPOSIT -> "FD";
-            case CREDIT_CARD -> "CC";
-            case MONEY_MARKET -> "MM";
-            case BUSINESS_CHECKING -> "BC";
-        };
         long timestamp = System.currentTimeMillis();
-        this.accountNumber = prefix + String.valueOf(timestamp).substring(5);
+        this.accountNumber = accountType.getAccountNumberPrefix() + String.valueOf(timestamp).substring(5);
     }
     
     public Account() {}
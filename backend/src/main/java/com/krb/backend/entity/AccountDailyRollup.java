@@ -0,0 +1,68 @@
+package com.krb.backend.entity;
+
+import jakarta.persistence.*;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+// One row per day, account type and status. netCount and netBalance are the changes that day to
+// the number of accounts in that status and the balance they hold, so a running sum over days
+// gives the level at the end of each day.
+@Entity
+@Table(name = "account_daily_rollups", uniqueConstraints = {
+    @UniqueConstraint(name = "uk_account_daily_rollups_key", columnNames = {"rollup_day", "account_type", "status"})
+})
+public class AccountDailyRollup {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @Column(name = "rollup_day", nullable = false)
+    private LocalDate day;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(name = "account_type", nullable = false, length = 32)
+    private Account.AccountType accountType;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private Account.AccountStatus status;
+    
+    @Column(nullable = false)
+    private long opened;
+    
+    @Column(name = "net_count", nullable = false)
+    private long netCount;
+    
+    @Column(name = "net_balance", nullable = false, precision = 19, scale = 2)
+    private BigDecimal netBalance = BigDecimal.ZERO;
+    
+    public AccountDailyRollup() {}
+    
+    public AccountDailyRollup(LocalDate day, Account.AccountType accountType, Account.AccountStatus status) {
+        this.day = day;
+        this.accountType = accountType;
+        this.status = status;
+    }
+    
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+    
+    public LocalDate getDay() { return day; }
+    public void setDay(LocalDate day) { this.day = day; }
+    
+    public Account.AccountType getAccountType() { return accountType; }
+    public void setAccountType(Account.AccountType accountType) { this.accountType = accountType; }
+    
+    public Account.AccountStatus getStatus() { return status; }
+    public void setStatus(Account.AccountStatus status) { this.status = status; }
+    
+    public long getOpened() { return opened; }
+    public void setOpened(long opened) { this.opened = opened; }
+    
+    public long getNetCount() { return netCount; }
+    public void setNetCount(long netCount) { this.netCount = netCount; }
+    
+    public BigDecimal getNetBalance() { return netBalance; }
+    public void setNetBalance(BigDecimal netBalance) { this.netBalance = netBalance; }
+}
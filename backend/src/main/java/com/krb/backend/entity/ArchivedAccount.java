@@ -0,0 +1,88 @@
+package com.krb.backend.entity;
+
+import jakarta.persistence.*;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "accounts_archive", indexes = {
+    @Index(name = "idx_accounts_archive_customer", columnList = "customer_id"),
+    @Index(name = "idx_accounts_archive_number", columnList = "account_number"),
+    @Index(name = "idx_accounts_archive_archived_at", columnList = "archived_at")
+})
+public class ArchivedAccount {
+    
+    @Id
+    private Long id;
+    
+    @Column(name = "account_number", nullable = false)
+    private String accountNumber;
+    
+    @Enumerated(EnumType.STRING)
+    private Account.AccountType accountType;
+    
+    @Column(precision = 15, scale = 2)
+    private BigDecimal balance;
+    
+    @Column(precision = 5, scale = 2)
+    private BigDecimal interestRate;
+    
+    @Column(precision = 15, scale = 2)
+    private BigDecimal creditLimit;
+    
+    @Enumerated(EnumType.STRING)
+    private Account.AccountStatus status;
+    
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+    
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+    
+    @Column(name = "customer_id", nullable = false)
+    private Long customerId;
+    
+    @Column(name = "created_by_employee_id")
+    private Long createdByEmployeeId;
+    
+    @Column(name = "archived_at", nullable = false)
+    private LocalDateTime archivedAt;
+    
+    public ArchivedAccount() {}
+    
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+    
+    public String getAccountNumber() { return accountNumber; }
+    public void setAccountNumber(String accountNumber) { this.accountNumber = accountNumber; }
+    
+    public Account.AccountType getAccountType() { return accountType; }
+    public void setAccountType(Account.AccountType accountType) { this.accountType = accountType; }
+    
+    public BigDecimal getBalance() { return balance; }
+    public void setBalance(BigDecimal balance) { this.balance = balance; }
+    
+    public BigDecimal getInterestRate() { return interestRate; }
+    public void setInterestRate(BigDecimal interestRate) { this.interestRate = interestRate; }
+    
+    public BigDecimal getCreditLimit() { return creditLimit; }
+    public void setCreditLimit(BigDecimal creditLimit) { this.creditLimit = creditLimit; }
+    
+    public Account.AccountStatus getStatus() { return status; }
+    public void setStatus(Account.AccountStatus status) { this.status = status; }
+    
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+    
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
+    public void setUpdatedAt(LocalDateTime updatedAt) { this.updatedAt = updatedAt; }
+    
+    public Long getCustomerId() { return customerId; }
+    public void setCustomerId(Long customerId) { this.customerId = customerId; }
+    
+    public Long getCreatedByEmployeeId() { return createdByEmployeeId; }
+    public void setCreatedByEmployeeId(Long createdByEmployeeId) { this.createdByEmployeeId = createdByEmployeeId; }
+    
+    public LocalDateTime getArchivedAt() { return archivedAt; }
+    public void setArchivedAt(LocalDateTime archivedAt) { this.archivedAt = archivedAt; }
+}
@@ -9,7 +9,21 @@ import java.time.LocalDateTime;
 import java.util.List;
 
 @Entity
-@Table(name = "customers")
+@NamedEntityGraph(name = "Customer.summary", attributeNodes = {
+    @NamedAttributeNode("createdBy")
+})
+@NamedEntityGraph(name = "Customer.detail", attributeNodes = {
+    @NamedAttributeNode("createdBy"),
+    @NamedAttributeNode(value = "accounts", subgraph = "accounts")
+}, subgraphs = {
+    @NamedSubgraph(name = "accounts", attributeNodes = @NamedAttributeNode("createdBy"))
+})
+// created_at is declared descending to match the newest-first paging order: H2 does not walk an
+// ascending index backwards for ORDER BY ... DESC.
+@Table(name = "customers", indexes = {
+    @Index(name = "idx_customers_updated_at", columnList = "updated_at"),
+    @Index(name = "idx_customers_created_at_id", columnList = "created_at DESC, id DESC")
+})
 public class Customer {
     
     @Id
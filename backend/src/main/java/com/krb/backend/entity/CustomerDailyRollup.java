@@ -0,0 +1,43 @@
+package com.krb.backend.entity;
+
+import jakarta.persistence.*;
+import java.time.LocalDate;
+
+@Entity
+@Table(name = "customer_daily_rollups", uniqueConstraints = {
+    @UniqueConstraint(name = "uk_customer_daily_rollups_key", columnNames = {"rollup_day", "employee_id"})
+})
+public class CustomerDailyRollup {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @Column(name = "rollup_day", nullable = false)
+    private LocalDate day;
+    
+    @Column(name = "employee_id", nullable = false)
+    private Long employeeId;
+    
+    @Column(nullable = false)
+    private long onboarded;
+    
+    public CustomerDailyRollup() {}
+    
+    public CustomerDailyRollup(LocalDate day, Long employeeId) {
+        this.day = day;
+        this.employeeId = employeeId;
+    }
+    
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+    
+    public LocalDate getDay() { return day; }
+    public void setDay(LocalDate day) { this.day = day; }
+    
+    public Long getEmployeeId() { return employeeId; }
+    public void setEmployeeId(Long employeeId) { this.employeeId = employeeId; }
+    
+    public long getOnboarded() { return onboarded; }
+    public void setOnboarded(long onboarded) { this.onboarded = onboarded; }
+}
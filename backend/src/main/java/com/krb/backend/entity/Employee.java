@@ -8,7 +8,12 @@ import java.time.LocalDateTime;
 import java.util.List;
 
 @Entity
-@Table(name = "employees")
+@NamedEntityGraph(name = "Employee.portfolio", attributeNodes = {
+    @NamedAttributeNode("customers")
+})
+@Table(name = "employees", indexes = {
+    @Index(name = "idx_employees_updated_at", columnList = "updated_at")
+})
 public class Employee {
     
     @Id
@@ -0,0 +1,71 @@
+package com.krb.backend.entity;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "idempotency_keys", indexes = {
+    @Index(name = "idx_idempotency_keys_expires_at", columnList = "expires_at")
+})
+public class IdempotencyRecord {
+    
+    @Id
+    @Column(name = "request_key", length = 512)
+    private String requestKey;
+    
+    @Column(nullable = false, length = 64)
+    private String fingerprint;
+    
+    @Column(name = "status_code", nullable = false)
+    private int statusCode;
+    
+    @Column(name = "content_type")
+    private String contentType;
+    
+    @Lob
+    private byte[] body;
+    
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+    
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+    
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+    }
+    
+    public IdempotencyRecord() {}
+    
+    public IdempotencyRecord(String requestKey, String fingerprint, int statusCode, String contentType,
+                             byte[] body, LocalDateTime expiresAt) {
+        this.requestKey = requestKey;
+        this.fingerprint = fingerprint;
+        this.statusCode = statusCode;
+        this.contentType = contentType;
+        this.body = body;
+        this.expiresAt = expiresAt;
+    }
+    
+    public String getRequestKey() { return requestKey; }
+    public void setRequestKey(String requestKey) { this.requestKey = requestKey; }
+    
+    public String getFingerprint() { return fingerprint; }
+    public void setFingerprint(String fingerprint) { this.fingerprint = fingerprint; }
+    
+    public int getStatusCode() { return statusCode; }
+    public void setStatusCode(int statusCode) { this.statusCode = statusCode; }
+    
+    public String getContentType() { return contentType; }
+    public void setContentType(String contentType) { this.contentType = contentType; }
+    
+    public byte[] getBody() { return body; }
+    public void setBody(byte[] body) { this.body = body; }
+    
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+    
+    public LocalDateTime getExpiresAt() { return expiresAt; }
+    public void setExpiresAt(LocalDateTime expiresAt) { this.expiresAt = expiresAt; }
+}
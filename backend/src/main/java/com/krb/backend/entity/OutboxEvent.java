@@ -0,0 +1,93 @@
+package com.krb.backend.entity;
+
+import com.krb.backend.dto.ChangeEvent;
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "outbox_events", indexes = {
+    @Index(name = "idx_outbox_events_created_at", columnList = "created_at")
+})
+public class OutboxEvent {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(name = "event_type", nullable = false, length = 32)
+    private ChangeEvent.ChangeType eventType;
+    
+    @Column(name = "entity_id")
+    private Long entityId;
+    
+    @Column(name = "customer_id")
+    private Long customerId;
+    
+    @Column(name = "employee_id")
+    private Long employeeId;
+    
+    @Lob
+    @Column(nullable = false)
+    private String payload;
+    
+    // Keyed digest of a customer's SSN, which is left out of the payload
+    @Column(name = "ssn_digest", length = 64)
+    private String ssnDigest;
+    
+    @Column(name = "origin_node", nullable = false, length = 64)
+    private String originNode;
+    
+    @Column(name = "occurred_at", nullable = false)
+    private LocalDateTime occurredAt;
+    
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+    
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+    }
+    
+    public OutboxEvent() {}
+    
+    public OutboxEvent(ChangeEvent event, String payload, String originNode) {
+        this.eventType = event.getType();
+        this.entityId = event.getEntityId();
+        this.customerId = event.getCustomerId();
+        this.employeeId = event.getEmployeeId();
+        this.occurredAt = event.getTimestamp();
+        this.payload = payload;
+        this.originNode = originNode;
+    }
+    
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+    
+    public ChangeEvent.ChangeType getEventType() { return eventType; }
+    public void setEventType(ChangeEvent.ChangeType eventType) { this.eventType = eventType; }
+    
+    public Long getEntityId() { return entityId; }
+    public void setEntityId(Long entityId) { this.entityId = entityId; }
+    
+    public Long getCustomerId() { return customerId; }
+    public void setCustomerId(Long customerId) { this.customerId = customerId; }
+    
+    public Long getEmployeeId() { return employeeId; }
+    public void setEmployeeId(Long employeeId) { this.employeeId = employeeId; }
+    
+    public String getPayload() { return payload; }
+    public void setPayload(String payload) { this.payload = payload; }
+    
+    public String getSsnDigest() { return ssnDigest; }
+    public void setSsnDigest(String ssnDigest) { this.ssnDigest = ssnDigest; }
+    
+    public String getOriginNode() { return originNode; }
+    public void setOriginNode(String originNode) { this.originNode = originNode; }
+    
+    public LocalDateTime getOccurredAt() { return occurredAt; }
+    public void setOccurredAt(LocalDateTime occurredAt) { this.occurredAt = occurredAt; }
+    
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+}
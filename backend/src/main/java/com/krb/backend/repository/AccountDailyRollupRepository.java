@@ -0,0 +1,68 @@
+package com.krb.backend.repository;
+
+import com.krb.backend.entity.Account;
+import com.krb.backend.entity.AccountDailyRollup;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface AccountDailyRollupRepository extends JpaRepository<AccountDailyRollup, Long> {
+    
+    // Upsert in the caller's transaction: the day's row is created by the first write for its key
+    // and incremented by every later one, without a second connection.
+    @Modifying
+    @Query(value = "MERGE INTO account_daily_rollups r " +
+           "USING (VALUES (CAST(:day AS DATE), CAST(:accountType AS VARCHAR(32)), CAST(:status AS VARCHAR(16)))) " +
+           "k(rollup_day, account_type, status) " +
+           "ON r.rollup_day = k.rollup_day AND r.account_type = k.account_type AND r.status = k.status " +
+           "WHEN MATCHED THEN UPDATE SET opened = r.opened + :opened, net_count = r.net_count + :netCount, " +
+           "net_balance = r.net_balance + :netBalance " +
+           "WHEN NOT MATCHED THEN INSERT (rollup_day, account_type, status, opened, net_count, net_balance) " +
+           "VALUES (k.rollup_day, k.account_type, k.status, :opened, :netCount, :netBalance)",
+           nativeQuery = true)
+    int increment(@Param("day") LocalDate day, @Param("accountType") String accountType,
+                  @Param("status") String status, @Param("opened") long opened,
+                  @Param("netCount") long netCount, @Param("netBalance") BigDecimal netBalance);
+    
+    @Query("SELECT r.day, r.accountType, SUM(r.opened) FROM AccountDailyRollup r " +
+           "WHERE r.day BETWEEN :from AND :to AND r.opened > 0 " +
+           "AND (:accountType IS NULL OR r.accountType = :accountType) " +
+           "GROUP BY r.day, r.accountType ORDER BY r.day, r.accountType")
+    List<Object[]> sumOpenedByDayAndType(@Param("from") LocalDate from, @Param("to") LocalDate to,
+                                         @Param("accountType") Account.AccountType accountType);
+    
+    @Query("SELECT COALESCE(SUM(r.netBalance), 0) FROM AccountDailyRollup r " +
+           "WHERE r.day < :before AND r.status = :status " +
+           "AND (:accountType IS NULL OR r.accountType = :accountType)")
+    BigDecimal sumNetBalanceBefore(@Param("before") LocalDate before, @Param("status") Account.AccountStatus status,
+                                   @Param("accountType") Account.AccountType accountType);
+    
+    @Query("SELECT r.day, SUM(r.netBalance) FROM AccountDailyRollup r " +
+           "WHERE r.day BETWEEN :from AND :to AND r.status = :status " +
+           "AND (:accountType IS NULL OR r.accountType = :accountType) " +
+           "GROUP BY r.day ORDER BY r.day")
+    List<Object[]> sumNetBalanceByDay(@Param("from") LocalDate from, @Param("to") LocalDate to,
+                                      @Param("status") Account.AccountStatus status,
+                                      @Param("accountType") Account.AccountType accountType);
+    
+    // Backfill sources: current state of every account, hot and archived, keyed by the day it opened.
+    @Query("SELECT CAST(a.createdAt AS LocalDate), a.accountType, a.status, COUNT(a), SUM(a.balance) " +
+           "FROM Account a WHERE a.createdAt IS NOT NULL " +
+           "GROUP BY CAST(a.createdAt AS LocalDate), a.accountType, a.status")
+    List<Object[]> aggregateAccountsByCreatedDay();
+    
+    @Query("SELECT CAST(a.createdAt AS LocalDate), a.accountType, a.status, COUNT(a), SUM(a.balance) " +
+           "FROM ArchivedAccount a WHERE a.createdAt IS NOT NULL " +
+           "GROUP BY CAST(a.createdAt AS LocalDate), a.accountType, a.status")
+    List<Object[]> aggregateArchivedAccountsByCreatedDay();
+    
+    @Modifying
+    @Query("DELETE FROM AccountDailyRollup r")
+    int deleteAllRollups();
+}
@@ -3,39 +3,105 @@ package com.krb.backend.repository;
 import com.krb.backend.entity.Account;
 import com.krb.backend.entity.Customer;
 import com.krb.backend.entity.Employee;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
-public interface AccountRepository extends JpaRepository<Account, Long> {
+public interface AccountRepository extends JpaRepository<Account, Long>, JpaSpecificationExecutor<Account> {
     
+    @Override
+    @EntityGraph("Account.list")
+    Page<Account> findAll(Specification<Account> spec, Pageable pageable);
+    
+    @Override
+    @EntityGraph("Account.list")
+    List<Account> findAll();
+    
+    @Override
+    @EntityGraph("Account.list")
+    Optional<Account> findById(Long id);
+    
+    @EntityGraph("Account.list")
     Optional<Account> findByAccountNumber(String accountNumber);
     
+    @EntityGraph("Account.list")
+    @Query("SELECT a FROM Account a WHERE a.id IN :ids")
+    List<Account> findAllByIdIn(@Param("ids") Collection<Long> ids);
+    
     boolean existsByAccountNumber(String accountNumber);
     
     List<Account> findByCustomer(Customer customer);
     
     List<Account> findByCustomerId(Long customerId);
     
+    @EntityGraph("Account.list")
     List<Account> findByAccountType(Account.AccountType accountType);
     
+    @EntityGraph("Account.list")
     List<Account> findByStatus(Account.AccountStatus status);
     
     List<Account> findByCreatedBy(Employee employee);
     
+    @EntityGraph("Account.list")
     @Query("SELECT a FROM Account a WHERE a.customer.id = :customerId ORDER BY a.createdAt DESC")
     List<Account> findByCustomerIdOrderByCreatedAtDesc(@Param("customerId") Long customerId);
     
+    @Query("SELECT a FROM Account a LEFT JOIN FETCH a.createdBy WHERE a.customer.id IN :customerIds ORDER BY a.createdAt DESC")
+    List<Account> findByCustomerIdInWithCreatedBy(@Param("customerIds") Collection<Long> customerIds);
+    
+    @EntityGraph("Account.list")
     @Query("SELECT a FROM Account a WHERE a.createdBy.id = :employeeId ORDER BY a.createdAt DESC")
     List<Account> findByCreatedByEmployeeId(@Param("employeeId") Long employeeId);
     
-    @Query("SELECT a FROM Account a WHERE a.balance > :minBalance")
-    List<Account> findAccountsWithBalanceGreaterThan(@Param("minBalance") BigDecimal minBalance);
+    // Balance and id are ordered the way idx_accounts_balance_id stores them, so a page is read
+    // straight off the index; id keeps the order stable across equal balances.
+    @EntityGraph("Account.list")
+    @Query("SELECT a FROM Account a WHERE a.balance >= :min AND a.balance < :max ORDER BY a.balance DESC, a.id DESC")
+    Page<Account> findByBalanceRange(@Param("min") BigDecimal min, @Param("max") BigDecimal max, Pageable pageable);
+    
+    @EntityGraph("Account.list")
+    @Query("SELECT a FROM Account a WHERE a.balance >= :min ORDER BY a.balance DESC, a.id DESC")
+    Page<Account> findByBalanceAtLeast(@Param("min") BigDecimal min, Pageable pageable);
+    
+    // Sorting on the already-fixed accountType first is a no-op for the result, but H2 only reads an
+    // index in order when the ORDER BY starts with its leading column.
+    @EntityGraph("Account.list")
+    @Query("SELECT a FROM Account a WHERE a.accountType = :accountType AND a.balance >= :min " +
+           "ORDER BY a.accountType, a.balance DESC, a.id DESC")
+    Page<Account> findByAccountTypeAndBalanceAtLeast(@Param("accountType") Account.AccountType accountType,
+                                                     @Param("min") BigDecimal min, Pageable pageable);
+    
+    @EntityGraph("Account.list")
+    @Query("SELECT a FROM Account a WHERE a.accountType = :accountType AND a.balance >= :min AND a.balance < :max " +
+           "ORDER BY a.accountType, a.balance DESC, a.id DESC")
+    Page<Account> findByAccountTypeAndBalanceRange(@Param("accountType") Account.AccountType accountType,
+                                                   @Param("min") BigDecimal min, @Param("max") BigDecimal max,
+                                                   Pageable pageable);
+    
+    @EntityGraph("Account.list")
+    @Query("SELECT a FROM Account a WHERE a.accountType = :accountType " +
+           "ORDER BY a.accountType, a.balance DESC, a.id DESC")
+    List<Account> findTopByAccountTypeOrderByBalance(@Param("accountType") Account.AccountType accountType,
+                                                     Pageable pageable);
+    
+    @EntityGraph("Account.list")
+    @Query("SELECT a FROM Account a WHERE a.accountType = 'CREDIT_CARD' AND a.creditLimit IS NOT NULL " +
+           "ORDER BY a.accountType, a.creditLimit DESC, a.balance DESC, a.id DESC")
+    Page<Account> findLargestCreditExposures(Pageable pageable);
     
     @Query("SELECT a.accountType, COUNT(a) FROM Account a GROUP BY a.accountType")
     List<Object[]> countAccountsByType();
@@ -43,15 +109,37 @@ public interface AccountRepository extends JpaRepository<Account, Long> {
     @Query("SELECT a.status, COUNT(a) FROM Account a GROUP BY a.status")
     List<Object[]> countAccountsByStatus();
     
+    @Query("SELECT a FROM Account a JOIN FETCH a.customer LEFT JOIN FETCH a.createdBy " +
+           "WHERE (:employeeId IS NULL OR a.createdBy.id = :employeeId) AND a.id > :afterId ORDER BY a.id")
+    List<Account> findChunkForReport(@Param("employeeId") Long employeeId, @Param("afterId") Long afterId,
+                                     Pageable pageable);
+    
+    @Query("SELECT a.id, a.accountNumber, a.accountType, a.customer.id FROM Account a")
+    Stream<Object[]> streamTypeaheadFields();
+    
     @Query("SELECT COUNT(a) FROM Account a")
     long countAccounts();
     
     @Query("SELECT COUNT(a) FROM Account a WHERE a.customer.id = :customerId")
     long countAccountsByCustomer(@Param("customerId") Long customerId);
     
+    @Query("SELECT a.customer.id, COUNT(a) FROM Account a WHERE a.customer.id IN :customerIds GROUP BY a.customer.id")
+    List<Object[]> countAccountsByCustomerIds(@Param("customerIds") Collection<Long> customerIds);
+    
     @Query("SELECT COUNT(a) FROM Account a WHERE a.createdBy.id = :employeeId")
     long countAccountsByEmployee(@Param("employeeId") Long employeeId);
     
+    @Query("SELECT a.id FROM Account a WHERE a.status = :status AND a.updatedAt < :cutoff ORDER BY a.id")
+    List<Long> findIdsByStatusUpdatedBefore(@Param("status") Account.AccountStatus status,
+                                            @Param("cutoff") LocalDateTime cutoff, Pageable pageable);
+    
+    @Modifying
+    @Query("DELETE FROM Account a WHERE a.id IN :ids")
+    int deleteByIdIn(@Param("ids") Collection<Long> ids);
+    
     @Query("SELECT SUM(a.balance) FROM Account a WHERE a.status = 'ACTIVE'")
     BigDecimal getTotalActiveBalance();
+    
+    @Query("SELECT a FROM Account a WHERE a.updatedAt > :since AND a.updatedAt <= :until ORDER BY a.updatedAt")
+    List<Account> findUpdatedBetween(@Param("since") LocalDateTime since, @Param("until") LocalDateTime until);
 }
@@ -0,0 +1,121 @@
+package com.krb.backend.repository;
+
+import com.krb.backend.dto.AccountQuery;
+import com.krb.backend.entity.Account;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeSet;
+
+/**
+ * Translates an AccountQuery into one Specification. Every filter here targets a column that
+ * leads an index on accounts (account_type, status, balance, created_at, updated_at, and the
+ * customer and employee foreign keys). Only the SORTABLE properties may be sorted on, and each has
+ * an index in both directions ending in the id tie-breaker, so a query with one sort key is read
+ * in index order. A second sort key is not covered by any index: the matching rows are then
+ * sorted, which costs a full sort when the filters are not selective.
+ */
+public final class AccountSpecifications {
+    
+    public static final Map<String, String> SORTABLE = Map.of(
+            "id", "id",
+            "accountNumber", "accountNumber",
+            "balance", "balance",
+            "createdAt", "createdAt",
+            "updatedAt", "updatedAt");
+    
+    private AccountSpecifications() {}
+    
+    public static Specification<Account> matching(AccountQuery query) {
+        List<Specification<Account>> specs = new ArrayList<>();
+        if (query.getType() != null) {
+            specs.add((root, cq, cb) -> cb.equal(root.get("accountType"), query.getType()));
+        }
+        if (query.getStatus() != null) {
+            specs.add((root, cq, cb) -> cb.equal(root.get("status"), query.getStatus()));
+        }
+        if (query.getCustomerId() != null) {
+            specs.add((root, cq, cb) -> cb.equal(root.get("customer").get("id"), query.getCustomerId()));
+        }
+        if (query.getEmployeeId() != null) {
+            specs.add((root, cq, cb) -> cb.equal(root.get("createdBy").get("id"), query.getEmployeeId()));
+        }
+        if (query.getMinBalance() != null) {
+            BigDecimal min = query.getMinBalance();
+            specs.add((root, cq, cb) -> cb.greaterThanOrEqualTo(root.get("balance"), min));
+        }
+        if (query.getMaxBalance() != null) {
+            BigDecimal max = query.getMaxBalance();
+            specs.add((root, cq, cb) -> cb.lessThanOrEqualTo(root.get("balance"), max));
+        }
+        LocalDateTime createdAfter = query.getCreatedAfter();
+        if (query.getCreatedWithinDays() != null) {
+            if (query.getCreatedWithinDays() < 0) {
+                throw new RuntimeException("createdWithinDays must not be negative");
+            }
+            LocalDateTime since = LocalDateTime.now().minusDays(query.getCreatedWithinDays());
+            createdAfter = createdAfter == null || since.isAfter(createdAfter) ? since : createdAfter;
+        }
+        if (createdAfter != null) {
+            LocalDateTime after = createdAfter;
+            specs.add((root, cq, cb) -> cb.greaterThanOrEqualTo(root.get("createdAt"), after));
+        }
+        if (query.getCreatedBefore() != null) {
+            specs.add((root, cq, cb) -> cb.lessThan(root.get("createdAt"), query.getCreatedBefore()));
+        }
+        if (query.getUpdatedAfter() != null) {
+            specs.add((root, cq, cb) -> cb.greaterThanOrEqualTo(root.get("updatedAt"), query.getUpdatedAfter()));
+        }
+        if (query.getUpdatedBefore() != null) {
+            specs.add((root, cq, cb) -> cb.lessThan(root.get("updatedAt"), query.getUpdatedBefore()));
+        }
+        return Specification.allOf(specs);
+    }
+    
+    // Keys arrive as "balance,desc" or, once Spring has split that on the comma, as "balance" then
+    // "desc"; a direction token applies to the key before it. Defaults to newest first. id is
+    // appended as the last key in the direction of the key before it, so pages are stable under
+    // ties and the order still matches one of the account indexes; account numbers are unique and
+    // need no tie-breaker.
+    public static Sort sortOf(List<String> keys) {
+        List<Sort.Order> orders = new ArrayList<>();
+        if (keys == null || keys.isEmpty()) {
+            orders.add(Sort.Order.desc("createdAt"));
+        } else {
+            for (String key : keys) {
+                for (String token : key.split(",")) {
+                    token = token.trim();
+                    if (token.isEmpty()) {
+                        continue;
+                    }
+                    Optional<Sort.Direction> direction = Sort.Direction.fromOptionalString(token);
+                    if (direction.isPresent()) {
+                        if (orders.isEmpty()) {
+                            throw new RuntimeException("Sort direction '" + token + "' has no sort key");
+                        }
+                        Sort.Order last = orders.remove(orders.size() - 1);
+                        orders.add(last.with(direction.get()));
+                        continue;
+                    }
+                    String property = SORTABLE.get(token);
+                    if (property == null) {
+                        throw new RuntimeException("Cannot sort by '" + token + "'; sortable: "
+                                + String.join(", ", new TreeSet<>(SORTABLE.keySet())));
+                    }
+                    orders.add(Sort.Order.asc(property));
+                }
+            }
+        }
+        boolean unique = orders.stream()
+                .anyMatch(order -> order.getProperty().equals("id") || order.getProperty().equals("accountNumber"));
+        if (!unique) {
+            orders.add(Sort.Order.by("id").with(orders.get(orders.size() - 1).getDirection()));
+        }
+        return Sort.by(orders);
+    }
+}
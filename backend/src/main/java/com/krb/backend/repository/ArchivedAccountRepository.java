@@ -0,0 +1,32 @@
+package com.krb.backend.repository;
+
+import com.krb.backend.entity.ArchivedAccount;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface ArchivedAccountRepository extends JpaRepository<ArchivedAccount, Long> {
+    
+    Optional<ArchivedAccount> findFirstByAccountNumberOrderByArchivedAtDesc(String accountNumber);
+    
+    @Query("SELECT a FROM ArchivedAccount a WHERE a.customerId = :customerId ORDER BY a.createdAt DESC")
+    List<ArchivedAccount> findByCustomerIdOrderByCreatedAtDesc(@Param("customerId") Long customerId);
+    
+    @Query("SELECT COUNT(a) FROM ArchivedAccount a WHERE a.customerId = :customerId")
+    long countByCustomerId(@Param("customerId") Long customerId);
+    
+    @Modifying
+    @Query("INSERT INTO ArchivedAccount (id, accountNumber, accountType, balance, interestRate, creditLimit, status, " +
+           "createdAt, updatedAt, customerId, createdByEmployeeId, archivedAt) " +
+           "SELECT a.id, a.accountNumber, a.accountType, a.balance, a.interestRate, a.creditLimit, a.status, " +
+           "a.createdAt, a.updatedAt, a.customer.id, e.id, :archivedAt " +
+           "FROM Account a LEFT JOIN a.createdBy e WHERE a.id IN :ids")
+    int copyFromAccounts(@Param("ids") Collection<Long> ids, @Param("archivedAt") LocalDateTime archivedAt);
+}
@@ -0,0 +1,39 @@
+package com.krb.backend.repository;
+
+import com.krb.backend.entity.CustomerDailyRollup;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface CustomerDailyRollupRepository extends JpaRepository<CustomerDailyRollup, Long> {
+    
+    @Modifying
+    @Query(value = "MERGE INTO customer_daily_rollups r " +
+           "USING (VALUES (CAST(:day AS DATE), CAST(:employeeId AS BIGINT))) k(rollup_day, employee_id) " +
+           "ON r.rollup_day = k.rollup_day AND r.employee_id = k.employee_id " +
+           "WHEN MATCHED THEN UPDATE SET onboarded = r.onboarded + :onboarded " +
+           "WHEN NOT MATCHED THEN INSERT (rollup_day, employee_id, onboarded) " +
+           "VALUES (k.rollup_day, k.employee_id, :onboarded)",
+           nativeQuery = true)
+    int increment(@Param("day") LocalDate day, @Param("employeeId") Long employeeId,
+                  @Param("onboarded") long onboarded);
+    
+    @Query("SELECT r FROM CustomerDailyRollup r WHERE r.day BETWEEN :from AND :to AND r.onboarded > 0 " +
+           "AND (:employeeId IS NULL OR r.employeeId = :employeeId) ORDER BY r.day, r.employeeId")
+    List<CustomerDailyRollup> findInRange(@Param("from") LocalDate from, @Param("to") LocalDate to,
+                                          @Param("employeeId") Long employeeId);
+    
+    @Query("SELECT CAST(c.createdAt AS LocalDate), c.createdBy.id, COUNT(c) FROM Customer c " +
+           "WHERE c.createdAt IS NOT NULL AND c.createdBy IS NOT NULL " +
+           "GROUP BY CAST(c.createdAt AS LocalDate), c.createdBy.id")
+    List<Object[]> aggregateCustomersByCreatedDay();
+    
+    @Modifying
+    @Query("DELETE FROM CustomerDailyRollup r")
+    int deleteAllRollups();
+}
@@ -2,16 +2,33 @@ package com.krb.backend.repository;
 
 import com.krb.backend.entity.Customer;
 import com.krb.backend.entity.Employee;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface CustomerRepository extends JpaRepository<Customer, Long> {
     
+    @Override
+    @EntityGraph("Customer.summary")
+    List<Customer> findAll();
+    
+    @Override
+    @EntityGraph("Customer.summary")
+    Optional<Customer> findById(Long id);
+    
+    @EntityGraph("Customer.detail")
+    Optional<Customer> findDetailById(Long id);
+    
     Optional<Customer> findByEmail(String email);
     
     Optional<Customer> findBySsn(String ssn);
@@ -20,23 +37,54 @@ public interface CustomerRepository extends JpaRepository<Customer, Long> {
     
     boolean existsBySsn(String ssn);
     
+    @Query("SELECT c.email FROM Customer c")
+    Stream<String> streamAllEmails();
+    
+    @Query("SELECT c.ssn FROM Customer c")
+    Stream<String> streamAllSsns();
+    
+    @Query("SELECT c.id, c.firstName, c.lastName, c.email FROM Customer c")
+    Stream<Object[]> streamTypeaheadFields();
+    
     List<Customer> findByCreatedBy(Employee employee);
     
+    @EntityGraph("Customer.summary")
     @Query("SELECT c FROM Customer c WHERE c.createdBy.id = :employeeId ORDER BY c.createdAt DESC")
     List<Customer> findByCreatedByEmployeeId(@Param("employeeId") Long employeeId);
     
+    @EntityGraph("Customer.summary")
     @Query("SELECT c FROM Customer c WHERE " +
            "LOWER(c.firstName) LIKE LOWER(CONCAT('%', :searchTerm, '%')) OR " +
            "LOWER(c.lastName) LIKE LOWER(CONCAT('%', :searchTerm, '%')) OR " +
            "LOWER(c.email) LIKE LOWER(CONCAT('%', :searchTerm, '%'))")
     List<Customer> searchCustomers(@Param("searchTerm") String searchTerm);
     
-    @Query("SELECT c FROM Customer c JOIN FETCH c.accounts ORDER BY c.createdAt DESC")
-    List<Customer> findAllWithAccounts();
+    @EntityGraph("Customer.summary")
+    @Query("SELECT c FROM Customer c WHERE " +
+           "LOWER(c.firstName) LIKE LOWER(CONCAT('%', :searchTerm, '%')) OR " +
+           "LOWER(c.lastName) LIKE LOWER(CONCAT('%', :searchTerm, '%')) OR " +
+           "LOWER(c.email) LIKE LOWER(CONCAT('%', :searchTerm, '%'))")
+    List<Customer> searchCustomers(@Param("searchTerm") String searchTerm, Pageable pageable);
+    
+    @Query(value = "SELECT c.id FROM Customer c ORDER BY c.createdAt DESC, c.id DESC",
+           countQuery = "SELECT COUNT(c) FROM Customer c")
+    Page<Long> findIdsOrderByCreatedAtDesc(Pageable pageable);
+    
+    @EntityGraph("Customer.summary")
+    @Query("SELECT c FROM Customer c WHERE c.id IN :ids")
+    List<Customer> findAllByIdInWithCreatedBy(@Param("ids") Collection<Long> ids);
+    
+    @Query("SELECT c.id FROM Customer c WHERE (:employeeId IS NULL OR c.createdBy.id = :employeeId) " +
+           "AND c.id > :afterId ORDER BY c.id")
+    List<Long> findIdsForReport(@Param("employeeId") Long employeeId, @Param("afterId") Long afterId,
+                                Pageable pageable);
     
     @Query("SELECT COUNT(c) FROM Customer c")
     long countCustomers();
     
     @Query("SELECT COUNT(c) FROM Customer c WHERE c.createdBy.id = :employeeId")
     long countCustomersByEmployee(@Param("employeeId") Long employeeId);
+    
+    @Query("SELECT c FROM Customer c WHERE c.updatedAt > :since AND c.updatedAt <= :until ORDER BY c.updatedAt")
+    List<Customer> findUpdatedBetween(@Param("since") LocalDateTime since, @Param("until") LocalDateTime until);
 }
@@ -1,11 +1,15 @@
 package com.krb.backend.repository;
 
 import com.krb.backend.entity.Employee;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface EmployeeRepository extends JpaRepository<Employee, Long> {
@@ -14,10 +18,22 @@ public interface EmployeeRepository extends JpaRepository<Employee, Long> {
     
     Optional<Employee> findByEmail(String email);
     
+    @EntityGraph("Employee.portfolio")
+    Optional<Employee> findPortfolioById(Long id);
+    
     boolean existsByUsername(String username);
     
     boolean existsByEmail(String email);
     
+    @Query("SELECT e.username FROM Employee e")
+    Stream<String> streamAllUsernames();
+    
+    @Query("SELECT e.email FROM Employee e")
+    Stream<String> streamAllEmails();
+    
+    @Query("SELECT e.id FROM Employee e")
+    List<Long> findAllIds();
+    
     List<Employee> findByRole(Employee.Role role);
     
     @Query("SELECT e FROM Employee e WHERE e.role = 'EMPLOYEE' ORDER BY e.createdAt DESC")
@@ -31,4 +47,7 @@ public interface EmployeeRepository extends JpaRepository<Employee, Long> {
     
     @Query("SELECT COUNT(e) FROM Employee e WHERE e.role = 'ADMIN'")
     long countAdmins();
+    
+    @Query("SELECT e FROM Employee e WHERE e.updatedAt > :since AND e.updatedAt <= :until ORDER BY e.updatedAt")
+    List<Employee> findUpdatedBetween(@Param("since") LocalDateTime since, @Param("until") LocalDateTime until);
 }
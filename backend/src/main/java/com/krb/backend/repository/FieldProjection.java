@@ -0,0 +1,133 @@
+package com.krb.backend.repository;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+public class FieldProjection {
+    
+    public static final FieldProjection ACCOUNT = new FieldProjection("Account", "a")
+            .field("id", "a.id")
+            .field("accountNumber", "a.accountNumber")
+            .field("accountType", "a.accountType")
+            .field("balance", "a.balance")
+            .field("interestRate", "a.interestRate")
+            .field("creditLimit", "a.creditLimit")
+            .field("status", "a.status")
+            .field("createdAt", "a.createdAt")
+            .field("updatedAt", "a.updatedAt")
+            .field("customerId", "a.customer.id")
+            .field("customerName", "CONCAT(c.firstName, ' ', c.lastName)", "LEFT JOIN a.customer c")
+            .field("createdByEmployeeId", "a.createdBy.id")
+            .field("createdByEmployeeName", "CONCAT(e.firstName, ' ', e.lastName)", "LEFT JOIN a.createdBy e");
+    
+    // Same field names as ACCOUNT, so one resolved field set can be read from both tables.
+    public static final FieldProjection ARCHIVED_ACCOUNT = new FieldProjection("ArchivedAccount", "a")
+            .field("id", "a.id")
+            .field("accountNumber", "a.accountNumber")
+            .field("accountType", "a.accountType")
+            .field("balance", "a.balance")
+            .field("interestRate", "a.interestRate")
+            .field("creditLimit", "a.creditLimit")
+            .field("status", "a.status")
+            .field("createdAt", "a.createdAt")
+            .field("updatedAt", "a.updatedAt")
+            .field("customerId", "a.customerId")
+            .field("customerName", "CONCAT(c.firstName, ' ', c.lastName)", "LEFT JOIN Customer c ON c.id = a.customerId")
+            .field("createdByEmployeeId", "a.createdByEmployeeId")
+            .field("createdByEmployeeName", "CONCAT(e.firstName, ' ', e.lastName)",
+                    "LEFT JOIN Employee e ON e.id = a.createdByEmployeeId");
+    
+    public static final FieldProjection CUSTOMER = new FieldProjection("Customer", "c")
+            .field("id", "c.id")
+            .field("firstName", "c.firstName")
+            .field("lastName", "c.lastName")
+            .field("fullName", "CONCAT(c.firstName, ' ', c.lastName)")
+            .field("email", "c.email")
+            .field("phoneNumber", "c.phoneNumber")
+            .field("address", "c.address")
+            .field("dateOfBirth", "c.dateOfBirth")
+            .field("ssn", "c.ssn")
+            .field("createdAt", "c.createdAt")
+            .field("updatedAt", "c.updatedAt")
+            .field("createdByEmployeeId", "c.createdBy.id")
+            .field("createdByEmployeeName", "CONCAT(e.firstName, ' ', e.lastName)", "LEFT JOIN c.createdBy e")
+            .field("accountCount", "(SELECT COUNT(x) FROM Account x WHERE x.customer = c)");
+    
+    private final String entityName;
+    private final String alias;
+    private final Map<String, String> expressions = new LinkedHashMap<>();
+    private final Map<String, String> joins = new LinkedHashMap<>();
+    
+    private FieldProjection(String entityName, String alias) {
+        this.entityName = entityName;
+        this.alias = alias;
+    }
+    
+    private FieldProjection field(String name, String expression) {
+        expressions.put(name, expression);
+        return this;
+    }
+    
+    private FieldProjection field(String name, String expression, String join) {
+        joins.put(name, join);
+        return field(name, expression);
+    }
+    
+    public String getAlias() { return alias; }
+    
+    public Set<String> getFieldNames() { return expressions.keySet(); }
+    
+    // "id" is always selected so clients can key rows; unknown names are rejected, not ignored.
+    public Set<String> resolve(Collection<String> requested) {
+        Set<String> resolved = new LinkedHashSet<>();
+        resolved.add("id");
+        for (String name : requested) {
+            if (!expressions.containsKey(name)) {
+                throw new UnknownFieldException(name);
+            }
+            resolved.add(name);
+        }
+        return resolved;
+    }
+    
+    String equalTo(String field, String parameter) {
+        return expressions.get(field) + " = :" + parameter;
+    }
+    
+    String toJpql(Set<String> fields, String where, String orderBy) {
+        StringBuilder jpql = new StringBuilder("SELECT ");
+        Set<String> requiredJoins = new LinkedHashSet<>();
+        boolean first = true;
+        for (String name : fields) {
+            if (!first) {
+                jpql.append(", ");
+            }
+            jpql.append(expressions.get(name));
+            if (joins.containsKey(name)) {
+                requiredJoins.add(joins.get(name));
+            }
+            first = false;
+        }
+        jpql.append(" FROM ").append(entityName).append(' ').append(alias);
+        for (String join : requiredJoins) {
+            jpql.append(' ').append(join);
+        }
+        if (where != null) {
+            jpql.append(" WHERE ").append(where);
+        }
+        if (orderBy != null) {
+            jpql.append(" ORDER BY ").append(orderBy);
+        }
+        return jpql.toString();
+    }
+    
+    public static class UnknownFieldException extends IllegalArgumentException {
+        
+        public UnknownFieldException(String field) {
+            super("Unknown field: " + field);
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.krb.backend.repository;
+
+import com.krb.backend.entity.OutboxEvent;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+    
+    @Query("SELECT e FROM OutboxEvent e WHERE e.id > :afterId ORDER BY e.id")
+    List<OutboxEvent> findAfter(@Param("afterId") Long afterId, Pageable pageable);
+    
+    @Query("SELECT e FROM OutboxEvent e WHERE e.id IN :ids ORDER BY e.id")
+    List<OutboxEvent> findByIdIn(@Param("ids") Collection<Long> ids);
+    
+    @Query("SELECT COALESCE(MAX(e.id), 0) FROM OutboxEvent e")
+    long findMaxId();
+    
+    @Modifying
+    @Query("DELETE FROM OutboxEvent e WHERE e.createdAt < :cutoff")
+    int deleteOlderThan(@Param("cutoff") LocalDateTime cutoff);
+}
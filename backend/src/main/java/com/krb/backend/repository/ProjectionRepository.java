@@ -0,0 +1,54 @@
+package com.krb.backend.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import org.springframework.stereotype.Repository;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+@Repository
+public class ProjectionRepository {
+    
+    @PersistenceContext
+    private EntityManager entityManager;
+    
+    public List<Map<String, Object>> findFields(FieldProjection projection, Set<String> fields,
+                                                String where, Map<String, Object> parameters, String orderBy) {
+        TypedQuery<Object[]> query = entityManager.createQuery(
+                projection.toJpql(fields, where, orderBy), Object[].class);
+        parameters.forEach(query::setParameter);
+        
+        List<Map<String, Object>> rows = new ArrayList<>();
+        for (Object[] values : query.getResultList()) {
+            Map<String, Object> row = new LinkedHashMap<>();
+            int i = 0;
+            for (String field : fields) {
+                row.put(field, values[i++]);
+            }
+            rows.add(row);
+        }
+        return rows;
+    }
+    
+    // Hot rows first, then archived ones, in the order the DTO endpoints return them.
+    public List<Map<String, Object>> findAccountFields(Set<String> fields, String filterField, Object value,
+                                                       boolean includeArchived) {
+        List<Map<String, Object>> rows = findFields(FieldProjection.ACCOUNT, fields,
+                FieldProjection.ACCOUNT.equalTo(filterField, "value"), Map.of("value", value), "a.createdAt DESC");
+        if (includeArchived) {
+            // Both kinds carry the flag AccountDto has, so a client can tell them apart.
+            rows.forEach(row -> row.put("archived", false));
+            for (Map<String, Object> row : findFields(FieldProjection.ARCHIVED_ACCOUNT, fields,
+                    FieldProjection.ARCHIVED_ACCOUNT.equalTo(filterField, "value"), Map.of("value", value),
+                    "a.createdAt DESC")) {
+                row.put("archived", true);
+                rows.add(row);
+            }
+        }
+        return rows;
+    }
+}
@@ -0,0 +1,21 @@
+package com.krb.backend.repository;
+
+import com.krb.backend.entity.Tombstone;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface TombstoneRepository extends JpaRepository<Tombstone, Long> {
+    
+    @Query("SELECT t FROM Tombstone t WHERE t.deletedAt > :since AND t.deletedAt <= :until ORDER BY t.deletedAt")
+    List<Tombstone> findDeletedBetween(@Param("since") LocalDateTime since, @Param("until") LocalDateTime until);
+    
+    @Modifying
+    @Query("DELETE FROM Tombstone t WHERE t.deletedAt < :cutoff")
+    int deleteOlderThan(@Param("cutoff") LocalDateTime cutoff);
+}
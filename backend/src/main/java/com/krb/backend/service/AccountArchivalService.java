@@ -0,0 +1,135 @@
+package com.krb.backend.service;
+
+import com.krb.backend.dto.AuditEvent;
+import com.krb.backend.dto.ChangeEvent;
+import com.krb.backend.entity.Account;
+import com.krb.backend.entity.Tombstone;
+import com.krb.backend.repository.AccountRepository;
+import com.krb.backend.repository.ArchivedAccountRepository;
+import com.krb.backend.repository.TombstoneRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+@Service
+public class AccountArchivalService {
+    
+    private static final Logger log = LoggerFactory.getLogger(AccountArchivalService.class);
+    
+    @Autowired
+    private AccountRepository accountRepository;
+    
+    @Autowired
+    private ArchivedAccountRepository archivedAccountRepository;
+    
+    @Autowired
+    private TombstoneRepository tombstoneRepository;
+    
+    @Autowired
+    private AuditService auditService;
+    
+    @Autowired
+    private OutboxService outboxService;
+    
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    
+    @Value("${krb.archive.enabled:true}")
+    private boolean enabled;
+    
+    @Value("${krb.archive.retention-days:365}")
+    private long retentionDays;
+    
+    @Value("${krb.archive.batch-size:500}")
+    private int batchSize;
+    
+    @Value("${krb.archive.max-batches-per-run:200}")
+    private int maxBatchesPerRun;
+    
+    private final AtomicBoolean running = new AtomicBoolean();
+    
+    private volatile LocalDateTime lastRunAt;
+    
+    private volatile int lastRunArchived;
+    
+    @Scheduled(cron = "${krb.archive.cron:0 0 4 * * *}")
+    public void archiveOnSchedule() {
+        if (enabled) {
+            archiveClosedAccounts();
+        }
+    }
+    
+    // Each batch is its own short transaction (copy, then delete from the hot table) so the job
+    // never holds locks on more than batchSize rows, and a failure loses at most one batch of work.
+    // Caches drop the moved accounts when the batch's ACCOUNTS_ARCHIVED event commits.
+    public int archiveClosedAccounts() {
+        if (!running.compareAndSet(false, true)) {
+            return 0;
+        }
+        int archived = 0;
+        try {
+            LocalDateTime cutoff = LocalDateTime.now().minusDays(retentionDays);
+            TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+            for (int batch = 0; batch < maxBatchesPerRun; batch++) {
+                List<Long> moved = transaction.execute(status -> archiveBatch(cutoff));
+                if (moved == null || moved.isEmpty()) {
+                    break;
+                }
+                archived += moved.size();
+            }
+        } finally {
+            lastRunAt = LocalDateTime.now();
+            lastRunArchived = archived;
+            running.set(false);
+        }
+        
+        if (archived > 0) {
+            log.info("Archived {} closed accounts", archived);
+        }
+        return archived;
+    }
+    
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", enabled);
+        stats.put("retentionDays", retentionDays);
+        stats.put("batchSize", batchSize);
+        stats.put("running", running.get());
+        stats.put("lastRunAt", lastRunAt);
+        stats.put("lastRunArchived", lastRunArchived);
+        stats.put("archivedAccounts", archivedAccountRepository.count());
+        stats.put("hotAccounts", accountRepository.countAccounts());
+        return stats;
+    }
+    
+    private List<Long> archiveBatch(LocalDateTime cutoff) {
+        List<Long> ids = accountRepository.findIdsByStatusUpdatedBefore(Account.AccountStatus.CLOSED, cutoff,
+                PageRequest.of(0, batchSize));
+        if (ids.isEmpty()) {
+            return ids;
+        }
+        int copied = archivedAccountRepository.copyFromAccounts(ids, LocalDateTime.now());
+        if (copied != ids.size()) {
+            throw new IllegalStateException("Archived " + copied + " of " + ids.size() + " accounts, rolling back");
+        }
+        // Archived rows leave the hot table, so sync clients need a tombstone just as for a delete.
+        tombstoneRepository.saveAll(ids.stream().map(id -> new Tombstone(Tombstone.EntityType.ACCOUNT, id)).toList());
+        accountRepository.deleteByIdIn(ids);
+        outboxService.publish(ChangeEvent.forArchivedAccounts(ids));
+        for (Long id : ids) {
+            auditService.record(null, Tombstone.EntityType.ACCOUNT, id, AuditEvent.Action.ARCHIVE, "moved to accounts_archive");
+        }
+        return ids;
+    }
+}
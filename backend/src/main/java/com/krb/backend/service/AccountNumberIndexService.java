@@ -0,0 +1,186 @@
+package com.krb.backend.service;
+
+import com.krb.backend.dto.AccountDto;
+import com.krb.backend.dto.ChangeEvent;
+import com.krb.backend.entity.Account;
+import com.krb.backend.util.LongHashIndex;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+// Deliberately not @Transactional: a hit must not open a transaction or borrow a connection.
+@Service
+public class AccountNumberIndexService {
+    
+    private static final Account.AccountType[] TYPES = Account.AccountType.values();
+    private static final int MAX_DIGITS = 16;
+    private static final int GENERATION_STRIPES = 1024;
+    
+    @Autowired
+    private AccountService accountService;
+    
+    @Value("${krb.account-index.enabled:true}")
+    private boolean enabled;
+    
+    @Value("${krb.account-index.max-entries:100000}")
+    private int maxEntries;
+    
+    private LongHashIndex<AccountDto> index;
+    
+    private final AtomicLongArray generations = new AtomicLongArray(GENERATION_STRIPES);
+    
+    private final AtomicLong bulkGeneration = new AtomicLong();
+    
+    private final LongAdder hits = new LongAdder();
+    
+    private final LongAdder misses = new LongAdder();
+    
+    private final LongAdder uncacheable = new LongAdder();
+    
+    private final LongAdder invalidations = new LongAdder();
+    
+    private final LongAdder discardedFills = new LongAdder();
+    
+    @PostConstruct
+    public void init() {
+        index = new LongHashIndex<>(maxEntries);
+    }
+    
+    // A fill races with invalidations from commits that landed while the row was being read. Every
+    // invalidation bumps a generation before removing the entry, and a fill that sees its
+    // generation move after inserting takes the entry back out, so a stale DTO never survives.
+    public Optional<AccountDto> getAccountByAccountNumber(String accountNumber) {
+        long key = encode(accountNumber);
+        if (!enabled || key < 0) {
+            uncacheable.increment();
+            return accountService.getAccountByAccountNumber(accountNumber);
+        }
+        
+        AccountDto cached = index.get(key);
+        if (cached != null) {
+            hits.increment();
+            return Optional.of(cached);
+        }
+        misses.increment();
+        
+        int stripe = stripe(key);
+        long generation = generations.get(stripe);
+        long bulk = bulkGeneration.get();
+        Optional<AccountDto> loaded = accountService.getAccountByAccountNumber(accountNumber);
+        loaded.ifPresent(account -> {
+            index.put(key, account.getId(), account);
+            if (generations.get(stripe) != generation || bulkGeneration.get() != bulk) {
+                index.remove(key);
+                discardedFills.increment();
+            }
+        });
+        return loaded;
+    }
+    
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onChange(ChangeEvent event) {
+        switch (event.getType()) {
+            case ACCOUNT_STATUS_CHANGED, ACCOUNT_BALANCE_CHANGED, ACCOUNT_DELETED -> {
+                if (event.getData() instanceof AccountDto account) {
+                    invalidate(account.getAccountNumber());
+                }
+            }
+            case ACCOUNTS_ARCHIVED -> invalidateAccounts(event.archivedAccountIds());
+            case CUSTOMER_UPDATED -> {
+                // Cached DTOs carry the customer's and the creating employee's names.
+                Long customerId = event.getEntityId();
+                bulkGeneration.incrementAndGet();
+                invalidations.add(index.removeIf((id, account) -> customerId.equals(account.getCustomerId())));
+            }
+            case EMPLOYEE_UPDATED -> {
+                Long employeeId = event.getEntityId();
+                bulkGeneration.incrementAndGet();
+                invalidations.add(index.removeIf((id, account) -> employeeId.equals(account.getCreatedByEmployeeId())));
+            }
+            default -> { }
+        }
+    }
+    
+    public void invalidate(String accountNumber) {
+        long key = encode(accountNumber);
+        if (key < 0) {
+            return;
+        }
+        generations.incrementAndGet(stripe(key));
+        if (index.remove(key)) {
+            invalidations.increment();
+        }
+    }
+    
+    public void invalidateAccounts(Collection<Long> accountIds) {
+        Set<Long> ids = new HashSet<>(accountIds);
+        bulkGeneration.incrementAndGet();
+        invalidations.add(index.removeIf((id, account) -> ids.contains(id)));
+    }
+    
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        long hitCount = hits.sum();
+        long missCount = misses.sum();
+        stats.put("enabled", enabled);
+        stats.put("entries", index.size());
+        stats.put("maxEntries", maxEntries);
+        stats.put("capacity", index.capacity());
+        stats.put("hits", hitCount);
+        stats.put("misses", missCount);
+        stats.put("hitRate", hitCount + missCount == 0 ? 0.0 : (double) hitCount / (hitCount + missCount));
+        stats.put("uncacheable", uncacheable.sum());
+        stats.put("invalidations", invalidations.sum());
+        stats.put("discardedFills", discardedFills.sum());
+        stats.put("evictions", index.getEvictions());
+        return stats;
+    }
+    
+    /**
+     * Packs an account number into a positive long: 4 bits of account-type code (ordinal + 1), 5
+     * bits of digit count so leading zeros survive, and the digits themselves in the low 54 bits.
+     * Returns -1 for anything that does not have the generated shape (known prefix, 1-16 digits).
+     */
+    public static long encode(String accountNumber) {
+        if (accountNumber == null) {
+            return -1;
+        }
+        for (Account.AccountType type : TYPES) {
+            String prefix = type.getAccountNumberPrefix();
+            if (!accountNumber.startsWith(prefix)) {
+                continue;
+            }
+            int digits = accountNumber.length() - prefix.length();
+            if (digits < 1 || digits > MAX_DIGITS) {
+                return -1;
+            }
+            long value = 0;
+            for (int i = prefix.length(); i < accountNumber.length(); i++) {
+                char c = accountNumber.charAt(i);
+                if (c < '0' || c > '9') {
+                    return -1;
+                }
+                value = value * 10 + (c - '0');
+            }
+            return ((long) (type.ordinal() + 1) << 59) | ((long) digits << 54) | value;
+        }
+        return -1;
+    }
+    
+    private static int stripe(long key) {
+        long hash = key * 0x9E3779B97F4A7C15L;
+        return (int) (hash >>> 54) & (GENERATION_STRIPES - 1);
+    }
+}
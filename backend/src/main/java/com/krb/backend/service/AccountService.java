@@ -1,56 +1,166 @@
 package com.krb.backend.service;
 
 import com.krb.backend.dto.AccountDto;
+import com.krb.backend.dto.AccountQuery;
+import com.krb.backend.dto.AuditEvent;
+import com.krb.backend.dto.BatchGetResponse;
+import com.krb.backend.dto.ChangeEvent;
 import com.krb.backend.dto.CreateAccountRequest;
+import com.krb.backend.dto.PageResponse;
 import com.krb.backend.entity.Account;
+import com.krb.backend.entity.ArchivedAccount;
 import com.krb.backend.entity.Customer;
 import com.krb.backend.entity.Employee;
+import com.krb.backend.entity.Tombstone;
 import com.krb.backend.repository.AccountRepository;
+import com.krb.backend.repository.AccountSpecifications;
+import com.krb.backend.repository.ArchivedAccountRepository;
 import com.krb.backend.repository.CustomerRepository;
 import com.krb.backend.repository.EmployeeRepository;
+import com.krb.backend.repository.FieldProjection;
+import com.krb.backend.repository.ProjectionRepository;
+import com.krb.backend.repository.TombstoneRepository;
+import com.krb.backend.util.Batches;
+import com.krb.backend.util.RequestTiming;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
 @Transactional
 public class AccountService {
     
+    private static final int MAX_PAGE_SIZE = 200;
+    
+    @Value("${krb.batch-get.max-ids:1000}")
+    private int batchGetMaxIds;
+    
+    @Value("${krb.batch-get.chunk-size:250}")
+    private int batchGetChunkSize;
+    
     @Autowired
     private AccountRepository accountRepository;
     
+    @Autowired
+    private ArchivedAccountRepository archivedAccountRepository;
+    
+    @Autowired
+    private TombstoneRepository tombstoneRepository;
+    
     @Autowired
     private CustomerRepository customerRepository;
     
     @Autowired
     private EmployeeRepository employeeRepository;
     
+    @Autowired
+    private ProjectionRepository projectionRepository;
+    
+    @Autowired
+    private OutboxService outboxService;
+    
+    @Autowired
+    private AuditService auditService;
+    
+    @Autowired
+    private RollupService rollupService;
+    
     public List<AccountDto> getAllAccounts() {
         return accountRepository.findAll().stream()
                 .map(this::convertToDto)
                 .collect(Collectors.toList());
     }
     
+    public List<Map<String, Object>> getAllAccountFields(List<String> fields) {
+        return projectionRepository.findFields(FieldProjection.ACCOUNT, FieldProjection.ACCOUNT.resolve(fields),
+                null, Map.of(), "a.id");
+    }
+    
     public Optional<AccountDto> getAccountById(Long id) {
         return accountRepository.findById(id)
                 .map(this::convertToDto);
     }
     
+    public Optional<AccountDto> getAccountById(Long id, boolean includeArchived) {
+        Optional<AccountDto> account = getAccountById(id);
+        if (account.isPresent() || !includeArchived) {
+            return account;
+        }
+        return archivedAccountRepository.findById(id)
+                .map(archived -> convertArchivedToDtos(List.of(archived)).get(0));
+    }
+    
+    // One IN query per chunk instead of one lookup per id; the archive is only consulted for ids
+    // the hot table did not have.
+    public BatchGetResponse<AccountDto> getAccountsByIds(List<Long> ids, boolean includeArchived) {
+        List<List<Long>> chunks = Batches.chunkIds(ids, batchGetMaxIds, batchGetChunkSize);
+        Map<Long, AccountDto> found = new HashMap<>();
+        for (List<Long> chunk : chunks) {
+            for (Account account : accountRepository.findAllByIdIn(chunk)) {
+                found.put(account.getId(), convertToDto(account));
+            }
+            if (includeArchived) {
+                List<Long> notFound = chunk.stream()
+                        .filter(id -> !found.containsKey(id))
+                        .collect(Collectors.toList());
+                if (!notFound.isEmpty()) {
+                    convertArchivedToDtos(archivedAccountRepository.findAllById(notFound))
+                            .forEach(dto -> found.put(dto.getId(), dto));
+                }
+            }
+        }
+        return Batches.toResponse(chunks, found);
+    }
+    
     public Optional<AccountDto> getAccountByAccountNumber(String accountNumber) {
         return accountRepository.findByAccountNumber(accountNumber)
                 .map(this::convertToDto);
     }
     
+    public Optional<AccountDto> getAccountByAccountNumber(String accountNumber, boolean includeArchived) {
+        Optional<AccountDto> account = getAccountByAccountNumber(accountNumber);
+        if (account.isPresent() || !includeArchived) {
+            return account;
+        }
+        return archivedAccountRepository.findFirstByAccountNumberOrderByArchivedAtDesc(accountNumber)
+                .map(archived -> convertArchivedToDtos(List.of(archived)).get(0));
+    }
+    
     public List<AccountDto> getAccountsByCustomer(Long customerId) {
         return accountRepository.findByCustomerIdOrderByCreatedAtDesc(customerId).stream()
                 .map(this::convertToDto)
                 .collect(Collectors.toList());
     }
     
+    public List<AccountDto> getAccountsByCustomer(Long customerId, boolean includeArchived) {
+        List<AccountDto> accounts = getAccountsByCustomer(customerId);
+        if (includeArchived) {
+            accounts = new ArrayList<>(accounts);
+            accounts.addAll(convertArchivedToDtos(archivedAccountRepository.findByCustomerIdOrderByCreatedAtDesc(customerId)));
+        }
+        return accounts;
+    }
+    
+    public List<Map<String, Object>> getAccountFieldsByCustomer(Long customerId, List<String> fields,
+                                                                boolean includeArchived) {
+        return projectionRepository.findAccountFields(FieldProjection.ACCOUNT.resolve(fields), "customerId", customerId,
+                includeArchived);
+    }
+    
     public List<AccountDto> getAccountsByEmployee(Long employeeId) {
         return accountRepository.findByCreatedByEmployeeId(employeeId).stream()
                 .map(this::convertToDto)
@@ -69,6 +179,38 @@ public class AccountService {
                 .collect(Collectors.toList());
     }
     
+    public List<AccountDto> getTopAccountsByBalance(Account.AccountType accountType, int limit) {
+        return accountRepository.findTopByAccountTypeOrderByBalance(accountType, PageRequest.of(0, limit)).stream()
+                .map(this::convertToDto)
+                .collect(Collectors.toList());
+    }
+    
+    public PageResponse<AccountDto> getAccountsByBalanceRange(BigDecimal min, BigDecimal max,
+                                                              Account.AccountType accountType, int page, int size) {
+        Pageable pageable = pageRequest(page, size);
+        Page<Account> accounts;
+        if (max == null && accountType == null) {
+            accounts = accountRepository.findByBalanceAtLeast(min, pageable);
+        } else if (max == null) {
+            accounts = accountRepository.findByAccountTypeAndBalanceAtLeast(accountType, min, pageable);
+        } else if (accountType == null) {
+            accounts = accountRepository.findByBalanceRange(min, max, pageable);
+        } else {
+            accounts = accountRepository.findByAccountTypeAndBalanceRange(accountType, min, max, pageable);
+        }
+        return toPageResponse(accounts);
+    }
+    
+    public PageResponse<AccountDto> queryAccounts(AccountQuery query) {
+        Pageable pageable = pageRequest(query.getPage(), query.getSize())
+                .withSort(AccountSpecifications.sortOf(query.getSort()));
+        return toPageResponse(accountRepository.findAll(AccountSpecifications.matching(query), pageable));
+    }
+    
+    public PageResponse<AccountDto> getLargestCreditExposures(int page, int size) {
+        return toPageResponse(accountRepository.findLargestCreditExposures(pageRequest(page, size)));
+    }
+    
     public AccountDto createAccount(CreateAccountRequest request, Long employeeId) {
         Customer customer = customerRepository.findById(request.getCustomerId())
                 .orElseThrow(() -> new RuntimeException("Customer not found"));
@@ -87,16 +229,28 @@ public class AccountService {
         }
         
         Account savedAccount = accountRepository.save(account);
-        return convertToDto(savedAccount);
+        rollupService.recordAccountOpened(savedAccount);
+        AccountDto dto = convertToDto(savedAccount);
+        outboxService.publish(ChangeEvent.forAccount(ChangeEvent.ChangeType.ACCOUNT_CREATED, dto));
+        auditService.record(employeeId, Tombstone.EntityType.ACCOUNT, dto.getId(), AuditEvent.Action.CREATE,
+                dto.getAccountType() + " " + dto.getAccountNumber() + " for customer " + dto.getCustomerId()
+                        + ", balance " + dto.getBalance());
+        return dto;
     }
     
     public AccountDto updateAccountStatus(Long id, Account.AccountStatus status) {
         Account account = accountRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Account not found"));
         
+        Account.AccountStatus previousStatus = account.getStatus();
         account.setStatus(status);
         Account savedAccount = accountRepository.save(account);
-        return convertToDto(savedAccount);
+        rollupService.recordAccountStatusChanged(savedAccount, previousStatus);
+        AccountDto dto = convertToDto(savedAccount);
+        outboxService.publish(ChangeEvent.forAccount(ChangeEvent.ChangeType.ACCOUNT_STATUS_CHANGED, dto));
+        auditService.record(Tombstone.EntityType.ACCOUNT, id, AuditEvent.Action.STATUS_CHANGE,
+                previousStatus + " -> " + status);
+        return dto;
     }
     
     public AccountDto updateAccountBalance(Long id, BigDecimal newBalance) {
@@ -107,9 +261,15 @@ public class AccountService {
             throw new RuntimeException("Balance cannot be negative");
         }
         
+        BigDecimal previousBalance = account.getBalance();
         account.setBalance(newBalance);
         Account savedAccount = accountRepository.save(account);
-        return convertToDto(savedAccount);
+        rollupService.recordAccountBalanceChanged(savedAccount, previousBalance);
+        AccountDto dto = convertToDto(savedAccount);
+        outboxService.publish(ChangeEvent.forAccount(ChangeEvent.ChangeType.ACCOUNT_BALANCE_CHANGED, dto));
+        auditService.record(Tombstone.EntityType.ACCOUNT, id, AuditEvent.Action.BALANCE_CHANGE,
+                previousBalance + " -> " + newBalance);
+        return dto;
     }
     
     public void deleteAccount(Long id) {
@@ -120,7 +280,18 @@ public class AccountService {
             throw new RuntimeException("Cannot delete account with non-zero balance");
         }
         
+        AccountDto dto = convertToDto(account);
         accountRepository.delete(account);
+        rollupService.recordAccountDeleted(account);
+        tombstoneRepository.save(new Tombstone(Tombstone.EntityType.ACCOUNT, id));
+        outboxService.publish(ChangeEvent.forAccount(ChangeEvent.ChangeType.ACCOUNT_DELETED, dto));
+        auditService.record(Tombstone.EntityType.ACCOUNT, id, AuditEvent.Action.DELETE, dto.getAccountNumber());
+    }
+    
+    public List<AccountDto> getAccountsUpdatedBetween(LocalDateTime since, LocalDateTime until) {
+        return accountRepository.findUpdatedBetween(since, until).stream()
+                .map(this::convertToDto)
+                .collect(Collectors.toList());
     }
     
     public long getAccountCount() {
@@ -140,28 +311,67 @@ public class AccountService {
         return accountRepository.countAccountsByStatus();
     }
     
-    private AccountDto convertToDto(Account account) {
-        AccountDto dto = new AccountDto();
-        dto.setId(account.getId());
-        dto.setAccountNumber(account.getAccountNumber());
-        dto.setAccountType(account.getAccountType());
-        dto.setBalance(account.getBalance());
-        dto.setInterestRate(account.getInterestRate());
-        dto.setCreditLimit(account.getCreditLimit());
-        dto.setStatus(account.getStatus());
-        dto.setCreatedAt(account.getCreatedAt());
-        dto.setUpdatedAt(account.getUpdatedAt());
-        
-        if (account.getCustomer() != null) {
-            dto.setCustomerId(account.getCustomer().getId());
-            dto.setCustomerName(account.getCustomer().getFullName());
-        }
+    private static PageRequest pageRequest(int page, int size) {
+        return PageRequest.of(Math.max(page, 0), Math.min(Math.max(size, 1), MAX_PAGE_SIZE));
+    }
+    
+    private PageResponse<AccountDto> toPageResponse(Page<Account> accounts) {
+        List<AccountDto> content = accounts.getContent().stream()
+                .map(this::convertToDto)
+                .collect(Collectors.toList());
+        return new PageResponse<>(content, accounts.getNumber(), accounts.getSize(),
+                accounts.getTotalElements(), accounts.getTotalPages());
+    }
+    
+    // Archived rows keep plain ids, so names are resolved with one lookup per table for the whole list.
+    private List<AccountDto> convertArchivedToDtos(List<ArchivedAccount> archivedAccounts) {
+        Set<Long> customerIds = archivedAccounts.stream()
+                .map(ArchivedAccount::getCustomerId)
+                .collect(Collectors.toSet());
+        Set<Long> employeeIds = archivedAccounts.stream()
+                .map(ArchivedAccount::getCreatedByEmployeeId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        Map<Long, String> customerNames = customerRepository.findAllById(customerIds).stream()
+                .collect(Collectors.toMap(Customer::getId, Customer::getFullName));
+        Map<Long, String> employeeNames = employeeRepository.findAllById(employeeIds).stream()
+                .collect(Collectors.toMap(Employee::getId, Employee::getFullName));
         
-        if (account.getCreatedBy() != null) {
-            dto.setCreatedByEmployeeId(account.getCreatedBy().getId());
-            dto.setCreatedByEmployeeName(account.getCreatedBy().getFullName());
+        return archivedAccounts.stream().map(archived -> {
+            AccountDto dto = new AccountDto(archived.getId(), archived.getAccountNumber(), archived.getAccountType(),
+                    archived.getBalance(), archived.getInterestRate(), archived.getCreditLimit(), archived.getStatus(),
+                    archived.getCreatedAt(), archived.getUpdatedAt(), archived.getCustomerId(),
+                    customerNames.get(archived.getCustomerId()), archived.getCreatedByEmployeeId(),
+                    employeeNames.get(archived.getCreatedByEmployeeId()));
+            dto.setArchived(true);
+            return dto;
+        }).collect(Collectors.toList());
+    }
+    
+    private AccountDto convertToDto(Account account) {
+        try (RequestTiming timing = RequestTiming.enter(RequestTiming.Phase.MAPPING)) {
+            AccountDto dto = new AccountDto();
+            dto.setId(account.getId());
+            dto.setAccountNumber(account.getAccountNumber());
+            dto.setAccountType(account.getAccountType());
+            dto.setBalance(account.getBalance());
+            dto.setInterestRate(account.getInterestRate());
+            dto.setCreditLimit(account.getCreditLimit());
+            dto.setStatus(account.getStatus());
+            dto.setCreatedAt(account.getCreatedAt());
+            dto.setUpdatedAt(account.getUpdatedAt());
+            
+            if (account.getCustomer() != null) {
+                dto.setCustomerId(account.getCustomer().getId());
+                dto.setCustomerName(account.getCustomer().getFullName());
+            }
+            
+            if (account.getCreatedBy() != null) {
+                dto.setCreatedByEmployeeId(account.getCreatedBy().getId());
+                dto.setCreatedByEmployeeName(account.getCreatedBy().getFullName());
+            }
+            
+            return dto;
         }
-        
-        return dto;
     }
 }
@@ -0,0 +1,218 @@
+package com.krb.backend.service;
+
+import com.krb.backend.config.AdmissionProperties;
+import com.zaxxer.hikari.HikariDataSource;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.util.AntPathMatcher;
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+@Service
+public class AdmissionControlService {
+    
+    public enum Decision {
+        ADMITTED, REJECTED_QUEUE_FULL, REJECTED_DEADLINE, REJECTED_QUEUE_TIMEOUT
+    }
+    
+    private static final AntPathMatcher PATH_MATCHER = new AntPathMatcher();
+    
+    @Autowired
+    private AdmissionProperties properties;
+    
+    @Autowired
+    private DataSource dataSource;
+    
+    private final List<Route> routes = new ArrayList<>();
+    
+    private Route defaultRoute;
+    
+    private Semaphore permits;
+    
+    private int concurrencyLimit;
+    
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger queued = new AtomicInteger();
+    private final LongAdder admitted = new LongAdder();
+    private final LongAdder rejectedQueueFull = new LongAdder();
+    private final LongAdder rejectedDeadline = new LongAdder();
+    private final LongAdder rejectedQueueTimeout = new LongAdder();
+    private final LongAdder finishedLate = new LongAdder();
+    private final LongAdder totalQueueNanos = new LongAdder();
+    private final AtomicLong maxQueueNanos = new AtomicLong();
+    
+    // Every admitted request may hold a connection, so by default no more run at once than the
+    // pool can serve; the rest wait here, where their deadline is visible, instead of in Hikari.
+    @PostConstruct
+    public void init() {
+        concurrencyLimit = properties.getMaxConcurrency();
+        if (concurrencyLimit <= 0) {
+            concurrencyLimit = maximumPoolSize();
+        }
+        // Hikari reports -1 until the pool has started and then applies its default of 10.
+        if (concurrencyLimit <= 0) {
+            concurrencyLimit = 10;
+        }
+        permits = new Semaphore(concurrencyLimit, true);
+        for (AdmissionProperties.Route config : properties.getRoutes()) {
+            routes.add(new Route(config.getName(), config.getPaths(), config.getDeadlineMs()));
+        }
+        defaultRoute = new Route("default", List.of(), properties.getDefaultDeadlineMs());
+    }
+    
+    public boolean isExcluded(String path) {
+        if (!properties.isEnabled()) {
+            return true;
+        }
+        for (String pattern : properties.getExcludedPaths()) {
+            if (PATH_MATCHER.match(pattern, path)) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    public Route route(String path) {
+        for (Route route : routes) {
+            if (route.matches(path)) {
+                return route;
+            }
+        }
+        return defaultRoute;
+    }
+    
+    // A request is only worth starting if, after waiting for a permit, the typical service time
+    // for its route still fits inside what is left of its deadline.
+    public Decision acquire(Route route, long deadlineNanos) throws InterruptedException {
+        long now = System.nanoTime();
+        long expectedService = route.expectedServiceNanos();
+        if (deadlineNanos - now - expectedService <= 0) {
+            rejectedDeadline.increment();
+            return Decision.REJECTED_DEADLINE;
+        }
+        
+        if (!permits.tryAcquire()) {
+            if (queued.incrementAndGet() > properties.getMaxQueued()) {
+                queued.decrementAndGet();
+                rejectedQueueFull.increment();
+                return Decision.REJECTED_QUEUE_FULL;
+            }
+            boolean acquired;
+            try {
+                acquired = permits.tryAcquire(deadlineNanos - now - expectedService, TimeUnit.NANOSECONDS);
+            } finally {
+                queued.decrementAndGet();
+                recordQueueTime(System.nanoTime() - now);
+            }
+            if (!acquired) {
+                rejectedQueueTimeout.increment();
+                return Decision.REJECTED_QUEUE_TIMEOUT;
+            }
+        } else {
+            recordQueueTime(0);
+        }
+        
+        inFlight.incrementAndGet();
+        admitted.increment();
+        return Decision.ADMITTED;
+    }
+    
+    public void release(Route route, long startedNanos, long deadlineNanos) {
+        long finished = System.nanoTime();
+        inFlight.decrementAndGet();
+        permits.release();
+        route.recordServiceTime(finished - startedNanos);
+        if (finished - deadlineNanos > 0) {
+            finishedLate.increment();
+        }
+    }
+    
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        long admittedCount = admitted.sum();
+        stats.put("concurrencyLimit", concurrencyLimit);
+        stats.put("maxQueued", properties.getMaxQueued());
+        stats.put("inFlight", inFlight.get());
+        stats.put("queued", queued.get());
+        stats.put("admitted", admittedCount);
+        stats.put("rejectedQueueFull", rejectedQueueFull.sum());
+        stats.put("rejectedDeadline", rejectedDeadline.sum());
+        stats.put("rejectedQueueTimeout", rejectedQueueTimeout.sum());
+        stats.put("finishedAfterDeadline", finishedLate.sum());
+        stats.put("avgQueueMs", admittedCount == 0 ? 0.0 : totalQueueNanos.sum() / 1e6 / admittedCount);
+        stats.put("maxQueueMs", maxQueueNanos.get() / 1e6);
+        
+        Map<String, Object> serviceTimes = new LinkedHashMap<>();
+        for (Route route : routes) {
+            serviceTimes.put(route.name, route.expectedServiceNanos() / 1e6);
+        }
+        serviceTimes.put(defaultRoute.name, defaultRoute.expectedServiceNanos() / 1e6);
+        stats.put("expectedServiceMs", serviceTimes);
+        return stats;
+    }
+    
+    // The DataSource may be wrapped (slow-query timing), so Hikari is reached through unwrap.
+    private int maximumPoolSize() {
+        try {
+            return dataSource.isWrapperFor(HikariDataSource.class)
+                    ? dataSource.unwrap(HikariDataSource.class).getMaximumPoolSize()
+                    : 0;
+        } catch (SQLException e) {
+            return 0;
+        }
+    }
+    
+    private void recordQueueTime(long nanos) {
+        totalQueueNanos.add(nanos);
+        maxQueueNanos.accumulateAndGet(nanos, Math::max);
+    }
+    
+    public static final class Route {
+        
+        private final String name;
+        private final List<String> paths;
+        private final long deadlineMs;
+        private final long maxExpectedNanos;
+        private final AtomicLong serviceNanos = new AtomicLong();
+        
+        private Route(String name, List<String> paths, long deadlineMs) {
+            this.name = name;
+            this.paths = paths;
+            this.deadlineMs = deadlineMs;
+            this.maxExpectedNanos = TimeUnit.MILLISECONDS.toNanos(deadlineMs) / 2;
+        }
+        
+        public long getDeadlineMs() { return deadlineMs; }
+        
+        private boolean matches(String path) {
+            for (String pattern : paths) {
+                if (PATH_MATCHER.match(pattern, path)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+        
+        // Capped at half the route deadline: the average only moves when requests are admitted, so
+        // an uncapped one that once exceeded the deadline would reject every later request on the
+        // route and never see the sample that brings it back down.
+        private long expectedServiceNanos() {
+            return Math.min(serviceNanos.get(), maxExpectedNanos);
+        }
+        
+        // Exponentially weighted moving average with a weight of 1/8 for the newest sample.
+        private void recordServiceTime(long nanos) {
+            serviceNanos.accumulateAndGet(nanos, (average, sample) -> average == 0 ? sample : average + (sample - average) / 8);
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package com.krb.backend.service;
+
+import com.krb.backend.dto.ChangeEvent;
+import com.krb.backend.util.SingleFlight;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import java.math.BigDecimal;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// Deliberately not @Transactional: callers that join a running count must not hold a connection
+// while they wait, so only the leader enters the transactional service.
+@Service
+public class AggregateReadService {
+    
+    public enum Aggregate {
+        ACCOUNT_COUNT, TOTAL_ACTIVE_BALANCE, CUSTOMER_COUNT, EMPLOYEE_COUNT
+    }
+    
+    @Autowired
+    private AccountService accountService;
+    
+    @Autowired
+    private CustomerService customerService;
+    
+    @Autowired
+    private EmployeeService employeeService;
+    
+    @Value("${krb.coalescing.enabled:true}")
+    private boolean enabled;
+    
+    @Value("${krb.coalescing.fresh-ms:0}")
+    private long freshMs;
+    
+    private SingleFlight<Aggregate, Object> flights;
+    
+    @PostConstruct
+    public void init() {
+        flights = new SingleFlight<>(freshMs);
+    }
+    
+    public long getAccountCount() {
+        return (Long) read(Aggregate.ACCOUNT_COUNT);
+    }
+    
+    public BigDecimal getTotalActiveBalance() {
+        return (BigDecimal) read(Aggregate.TOTAL_ACTIVE_BALANCE);
+    }
+    
+    public long getCustomerCount() {
+        return (Long) read(Aggregate.CUSTOMER_COUNT);
+    }
+    
+    public long getEmployeeCount() {
+        return (Long) read(Aggregate.EMPLOYEE_COUNT);
+    }
+    
+    // A commit that moves an aggregate detaches its flight, so a dashboard refreshed after a write
+    // never joins or reuses a query that started before it.
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onChange(ChangeEvent event) {
+        switch (event.getType()) {
+            case ACCOUNT_CREATED, ACCOUNT_DELETED, ACCOUNTS_ARCHIVED -> {
+                flights.invalidate(Aggregate.ACCOUNT_COUNT);
+                flights.invalidate(Aggregate.TOTAL_ACTIVE_BALANCE);
+            }
+            case ACCOUNT_STATUS_CHANGED, ACCOUNT_BALANCE_CHANGED -> flights.invalidate(Aggregate.TOTAL_ACTIVE_BALANCE);
+            case CUSTOMER_CREATED, CUSTOMER_DELETED -> flights.invalidate(Aggregate.CUSTOMER_COUNT);
+            case EMPLOYEE_CREATED, EMPLOYEE_DELETED -> flights.invalidate(Aggregate.EMPLOYEE_COUNT);
+            default -> { }
+        }
+    }
+    
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", enabled);
+        stats.putAll(flights.getStats());
+        return stats;
+    }
+    
+    private Object read(Aggregate aggregate) {
+        return enabled ? flights.get(aggregate, () -> load(aggregate)) : load(aggregate);
+    }
+    
+    private Object load(Aggregate aggregate) {
+        return switch (aggregate) {
+            case ACCOUNT_COUNT -> accountService.getAccountCount();
+            case TOTAL_ACTIVE_BALANCE -> accountService.getTotalActiveBalance();
+            case CUSTOMER_COUNT -> customerService.getCustomerCount();
+            case EMPLOYEE_COUNT -> employeeService.getEmployeeCount();
+        };
+    }
+}
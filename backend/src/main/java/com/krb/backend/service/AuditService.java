@@ -0,0 +1,104 @@
+package com.krb.backend.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.krb.backend.config.RateLimitFilter;
+import com.krb.backend.dto.AuditEvent;
+import com.krb.backend.entity.Tombstone;
+import com.krb.backend.util.AuditLog;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+@Service
+public class AuditService {
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    @Value("${krb.audit.directory:./data/audit}")
+    private String directory;
+    
+    @Value("${krb.audit.buffer-capacity:65536}")
+    private int bufferCapacity;
+    
+    @Value("${krb.audit.batch-size:1024}")
+    private int batchSize;
+    
+    @Value("${krb.audit.segment-bytes:67108864}")
+    private long segmentBytes;
+    
+    @Value("${krb.audit.fsync-interval-ms:50}")
+    private long fsyncIntervalMs;
+    
+    @Value("${krb.audit.offer-timeout-micros:20}")
+    private long offerTimeoutMicros;
+    
+    private AuditLog auditLog;
+    
+    @PostConstruct
+    public void init() throws IOException {
+        auditLog = new AuditLog(Path.of(directory), bufferCapacity, batchSize, segmentBytes,
+                fsyncIntervalMs, offerTimeoutMicros, objectMapper);
+        auditLog.start();
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        auditLog.close();
+    }
+    
+    public void record(Tombstone.EntityType entityType, Long entityId, AuditEvent.Action action, String detail) {
+        record(currentActor(), entityType, entityId, action, detail);
+    }
+    
+    // Only committed changes belong in the trail, so inside a transaction the event is handed to
+    // the ring after commit; the caller's cost is building the event and one CAS.
+    public void record(Long actorEmployeeId, Tombstone.EntityType entityType, Long entityId,
+                       AuditEvent.Action action, String detail) {
+        AuditEvent event = new AuditEvent(actorEmployeeId, entityType, entityId, action, detail);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    auditLog.append(event);
+                }
+            });
+        } else {
+            auditLog.append(event);
+        }
+    }
+    
+    public List<AuditEvent> read(long fromSequence, int limit, Tombstone.EntityType entityType, Long entityId)
+            throws IOException {
+        return auditLog.read(fromSequence, limit, event ->
+                (entityType == null || entityType == event.getEntityType())
+                        && (entityId == null || Objects.equals(entityId, event.getEntityId())));
+    }
+    
+    public Map<String, Object> getStats() {
+        return auditLog.getStats();
+    }
+    
+    private Long currentActor() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes instanceof ServletRequestAttributes servletAttributes) {
+            String header = servletAttributes.getRequest().getHeader(RateLimitFilter.EMPLOYEE_HEADER);
+            if (header != null && header.matches("\\d{1,18}")) {
+                return Long.valueOf(header);
+            }
+        }
+        return null;
+    }
+}
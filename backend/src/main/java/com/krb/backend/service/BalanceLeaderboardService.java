@@ -0,0 +1,141 @@
+package com.krb.backend.service;
+
+import com.krb.backend.dto.AccountDto;
+import com.krb.backend.dto.ChangeEvent;
+import com.krb.backend.entity.Account;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import java.math.BigDecimal;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+
+@Service
+public class BalanceLeaderboardService {
+    
+    private static final Comparator<AccountDto> BY_BALANCE_DESC = Comparator
+            .comparing((AccountDto account) -> account.getBalance() != null ? account.getBalance() : BigDecimal.ZERO)
+            .thenComparing(AccountDto::getId)
+            .reversed();
+    
+    @Autowired
+    private AccountService accountService;
+    
+    @Value("${krb.leaderboard.capacity:100}")
+    private int capacity;
+    
+    private final Map<Account.AccountType, Board> boards = new EnumMap<>(Account.AccountType.class);
+    
+    public BalanceLeaderboardService() {
+        for (Account.AccountType type : Account.AccountType.values()) {
+            boards.put(type, new Board());
+        }
+    }
+    
+    public int getCapacity() {
+        return capacity;
+    }
+    
+    public List<AccountDto> getTopAccounts(Account.AccountType accountType, int limit) {
+        Board board = boards.get(accountType);
+        synchronized (board) {
+            if (board.stale) {
+                board.reload(accountService.getTopAccountsByBalance(accountType, capacity));
+            }
+            return board.ranked.stream()
+                    .limit(limit)
+                    .collect(Collectors.toList());
+        }
+    }
+    
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onChange(ChangeEvent event) {
+        if (event.getType() == ChangeEvent.ChangeType.ACCOUNTS_ARCHIVED) {
+            invalidateAll();
+            return;
+        }
+        if (!(event.getData() instanceof AccountDto account) || account.getAccountType() == null) {
+            return;
+        }
+        
+        Board board = boards.get(account.getAccountType());
+        synchronized (board) {
+            if (board.stale) {
+                return;
+            }
+            switch (event.getType()) {
+                case ACCOUNT_CREATED, ACCOUNT_STATUS_CHANGED, ACCOUNT_BALANCE_CHANGED -> board.upsert(account, capacity);
+                case ACCOUNT_DELETED -> board.remove(account.getId(), capacity);
+                default -> { }
+            }
+        }
+    }
+    
+    // Events can arrive out of order for concurrent writes to the same account, so the boards are
+    // periodically rebuilt from the (account_type, balance) index rather than trusted forever.
+    @Scheduled(fixedRateString = "${krb.leaderboard.refresh-ms:300000}")
+    public void invalidateAll() {
+        for (Board board : boards.values()) {
+            synchronized (board) {
+                board.stale = true;
+            }
+        }
+    }
+    
+    private static final class Board {
+        
+        private final TreeSet<AccountDto> ranked = new TreeSet<>(BY_BALANCE_DESC);
+        private final Map<Long, AccountDto> byId = new HashMap<>();
+        private boolean stale = true;
+        
+        private void reload(List<AccountDto> top) {
+            ranked.clear();
+            byId.clear();
+            for (AccountDto account : top) {
+                ranked.add(account);
+                byId.put(account.getId(), account);
+            }
+            stale = false;
+        }
+        
+        // A board holding fewer than capacity entries holds every account of its type, so it can
+        // absorb any change. A full board only knows its own members: if one of them drops below
+        // the cut-off or disappears, an untracked account may now belong in the top K.
+        private void upsert(AccountDto account, int capacity) {
+            boolean full = ranked.size() >= capacity;
+            AccountDto previous = byId.remove(account.getId());
+            if (previous != null) {
+                ranked.remove(previous);
+                if (full && !ranked.isEmpty() && BY_BALANCE_DESC.compare(account, ranked.last()) > 0) {
+                    stale = true;
+                    return;
+                }
+            } else if (full && BY_BALANCE_DESC.compare(account, ranked.last()) > 0) {
+                return;
+            }
+            
+            ranked.add(account);
+            byId.put(account.getId(), account);
+            if (ranked.size() > capacity) {
+                byId.remove(ranked.pollLast().getId());
+            }
+        }
+        
+        private void remove(Long accountId, int capacity) {
+            boolean full = ranked.size() >= capacity;
+            AccountDto previous = byId.remove(accountId);
+            if (previous != null) {
+                ranked.remove(previous);
+                stale = full;
+            }
+        }
+    }
+}
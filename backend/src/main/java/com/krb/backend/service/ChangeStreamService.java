@@ -0,0 +1,330 @@
+package com.krb.backend.service;
+
+import com.krb.backend.dto.AccountDto;
+import com.krb.backend.dto.ChangeEvent;
+import com.krb.backend.dto.CustomerDto;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import java.io.IOException;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Service
+public class ChangeStreamService {
+    
+    private static final Logger log = LoggerFactory.getLogger(ChangeStreamService.class);
+    
+    private static final ChangeEvent HEARTBEAT = new ChangeEvent();
+    
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    
+    private final AtomicLong eventIds = new AtomicLong();
+    
+    private final AtomicLong droppedSubscribers = new AtomicLong();
+    
+    private final AtomicLong stalledWrites = new AtomicLong();
+    
+    private ThreadPoolExecutor dispatcher;
+    
+    private ScheduledExecutorService monitor;
+    
+    private int replacementThreads;
+    
+    @Value("${krb.events.dispatcher-threads:4}")
+    private int dispatcherThreads;
+    
+    @Value("${krb.events.max-subscribers:5000}")
+    private int maxSubscribers;
+    
+    @Value("${krb.events.subscriber-queue-size:256}")
+    private int subscriberQueueSize;
+    
+    @Value("${krb.events.emitter-timeout-ms:1800000}")
+    private long emitterTimeoutMs;
+    
+    @Value("${krb.events.write-timeout-ms:5000}")
+    private long writeTimeoutMs;
+    
+    @Value("${krb.events.max-replacement-threads:32}")
+    private int maxReplacementThreads;
+    
+    @Value("${krb.events.heartbeat-ms:15000}")
+    private long heartbeatMs;
+    
+    @Value("${krb.events.watchdog-ms:1000}")
+    private long watchdogMs;
+    
+    @PostConstruct
+    public void init() {
+        AtomicInteger threadIds = new AtomicInteger();
+        this.dispatcher = new ThreadPoolExecutor(dispatcherThreads, dispatcherThreads, 0, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(), runnable -> {
+                    Thread thread = new Thread(runnable, "sse-dispatch-" + threadIds.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        // Heartbeats and the watchdog get their own thread rather than the shared @Scheduled one,
+        // where a long archival or index rebuild would hold back stalled-write detection.
+        this.monitor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "sse-monitor");
+            thread.setDaemon(true);
+            return thread;
+        });
+        monitor.scheduleAtFixedRate(() -> runSafely(this::sendHeartbeats, "heartbeat"), heartbeatMs, heartbeatMs,
+                TimeUnit.MILLISECONDS);
+        monitor.scheduleWithFixedDelay(() -> runSafely(this::abortStalledWrites, "watchdog"), watchdogMs, watchdogMs,
+                TimeUnit.MILLISECONDS);
+    }
+    
+    public SseEmitter subscribe(Long customerId, Long employeeId) {
+        if (subscribers.size() >= maxSubscribers) {
+            throw new RuntimeException("Too many event stream subscribers");
+        }
+        
+        SseEmitter emitter = new SseEmitter(emitterTimeoutMs);
+        Subscriber subscriber = new Subscriber(emitter, customerId, employeeId, subscriberQueueSize);
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(() -> subscribers.remove(subscriber));
+        emitter.onError(error -> subscribers.remove(subscriber));
+        subscribers.add(subscriber);
+        return emitter;
+    }
+    
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onChange(ChangeEvent event) {
+        // The stream carries account and customer changes only; employee and archival events are
+        // for the in-process caches.
+        if (!(event.getData() instanceof AccountDto) && !(event.getData() instanceof CustomerDto)) {
+            return;
+        }
+        if (event.getData() instanceof CustomerDto customer) {
+            event = redacted(event, customer);
+        }
+        for (Subscriber subscriber : subscribers) {
+            if (subscriber.matches(event)) {
+                enqueue(subscriber, event);
+            }
+        }
+    }
+    
+    public void sendHeartbeats() {
+        for (Subscriber subscriber : subscribers) {
+            enqueue(subscriber, HEARTBEAT);
+        }
+    }
+    
+    /**
+     * A send is a blocking socket write, so a client that stops reading holds its dispatcher
+     * thread until Tomcat's own write timeout. Subscribers whose current write has run past
+     * write-timeout-ms are dropped here and the pool gets a replacement thread for as long as the
+     * write stays stuck, so the other streams keep being served. The emitter is completed by the
+     * stuck thread once the write returns: completing it from here would wait on the emitter's
+     * lock, which the write holds.
+     */
+    public void abortStalledWrites() {
+        long now = System.nanoTime();
+        long timeoutNanos = TimeUnit.MILLISECONDS.toNanos(writeTimeoutMs);
+        for (Subscriber subscriber : subscribers) {
+            synchronized (subscriber) {
+                long started = subscriber.writeStartedNanos;
+                if (started != 0 && now - started > timeoutNanos && remove(subscriber, "write stalled")) {
+                    stalledWrites.incrementAndGet();
+                    subscriber.replaced = addReplacementThread();
+                    subscriber.stalled = true;
+                }
+            }
+        }
+    }
+    
+    public int getSubscriberCount() {
+        return subscribers.size();
+    }
+    
+    public long getDroppedSubscriberCount() {
+        return droppedSubscribers.get();
+    }
+    
+    public long getStalledWriteCount() {
+        return stalledWrites.get();
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        monitor.shutdownNow();
+        dispatcher.shutdownNow();
+        for (Subscriber subscriber : subscribers) {
+            subscriber.emitter.complete();
+        }
+        subscribers.clear();
+    }
+    
+    // Unfiltered subscribers see every customer change, so the stream never carries the SSN or
+    // date of birth. The published event is shared with the other listeners, so it is copied.
+    private static ChangeEvent redacted(ChangeEvent event, CustomerDto customer) {
+        ChangeEvent copy = new ChangeEvent(event.getType(), event.getEntityId(), event.getCustomerId(),
+                event.getEmployeeId(), customer.withoutSensitiveFields());
+        copy.setTimestamp(event.getTimestamp());
+        return copy;
+    }
+    
+    // A task that throws is never run again by a ScheduledExecutorService.
+    private void runSafely(Runnable task, String name) {
+        try {
+            task.run();
+        } catch (RuntimeException e) {
+            log.warn("Event stream {} failed", name, e);
+        }
+    }
+    
+    private void enqueue(Subscriber subscriber, ChangeEvent event) {
+        if (!subscriber.queue.offer(event)) {
+            drop(subscriber, "slow consumer");
+            return;
+        }
+        scheduleDrain(subscriber);
+    }
+    
+    private void scheduleDrain(Subscriber subscriber) {
+        if (subscriber.draining.compareAndSet(false, true)) {
+            dispatcher.execute(() -> drain(subscriber));
+        }
+    }
+    
+    private void drain(Subscriber subscriber) {
+        try {
+            ChangeEvent event;
+            while (!subscriber.stalled && (event = subscriber.queue.poll()) != null) {
+                subscriber.writeStartedNanos = System.nanoTime();
+                try {
+                    if (event == HEARTBEAT) {
+                        subscriber.emitter.send(SseEmitter.event().comment("heartbeat"));
+                    } else {
+                        subscriber.emitter.send(SseEmitter.event()
+                                .id(String.valueOf(eventIds.incrementAndGet()))
+                                .name(event.getType().name())
+                                .data(event));
+                    }
+                } finally {
+                    // Under the subscriber's lock so the watchdog either sees the write still
+                    // running and marks it stalled, or sees it finished.
+                    synchronized (subscriber) {
+                        subscriber.writeStartedNanos = 0;
+                    }
+                }
+            }
+        } catch (IOException | IllegalStateException e) {
+            subscribers.remove(subscriber);
+            subscriber.queue.clear();
+            return;
+        } finally {
+            subscriber.draining.set(false);
+            if (subscriber.stalled) {
+                finishStalled(subscriber);
+            }
+        }
+        if (subscriber.stalled) {
+            return;
+        }
+        
+        // An event offered between the last poll and releasing the flag would otherwise wait
+        // for the next publish to be delivered.
+        if (!subscriber.queue.isEmpty() && subscribers.contains(subscriber)) {
+            scheduleDrain(subscriber);
+        }
+    }
+    
+    // Only runs on the publishing thread, so the emitter is left to the drain thread: an
+    // overflowing queue means its write is blocked holding the emitter's lock, and complete()
+    // would wait on it. Scheduling a drain covers the case where none is running any more.
+    private void drop(Subscriber subscriber, String reason) {
+        if (remove(subscriber, reason)) {
+            subscriber.stalled = true;
+            scheduleDrain(subscriber);
+        }
+    }
+    
+    private boolean remove(Subscriber subscriber, String reason) {
+        if (!subscribers.remove(subscriber)) {
+            return false;
+        }
+        droppedSubscribers.incrementAndGet();
+        subscriber.queue.clear();
+        log.debug("Dropping event stream subscriber: {}", reason);
+        return true;
+    }
+    
+    private void finishStalled(Subscriber subscriber) {
+        boolean replaced;
+        synchronized (subscriber) {
+            replaced = subscriber.replaced;
+            subscriber.replaced = false;
+        }
+        if (replaced) {
+            removeReplacementThread();
+        }
+        try {
+            subscriber.emitter.complete();
+        } catch (IllegalStateException ignored) {
+        }
+    }
+    
+    // Growing the pool raises the maximum before the core size and shrinking does the reverse,
+    // since ThreadPoolExecutor rejects a core size above the maximum.
+    private synchronized boolean addReplacementThread() {
+        if (replacementThreads >= maxReplacementThreads) {
+            return false;
+        }
+        replacementThreads++;
+        dispatcher.setMaximumPoolSize(dispatcherThreads + replacementThreads);
+        dispatcher.setCorePoolSize(dispatcherThreads + replacementThreads);
+        return true;
+    }
+    
+    private synchronized void removeReplacementThread() {
+        replacementThreads--;
+        dispatcher.setCorePoolSize(dispatcherThreads + replacementThreads);
+        dispatcher.setMaximumPoolSize(dispatcherThreads + replacementThreads);
+    }
+    
+    private static final class Subscriber {
+        
+        private final SseEmitter emitter;
+        private final Long customerId;
+        private final Long employeeId;
+        private final BlockingQueue<ChangeEvent> queue;
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private volatile long writeStartedNanos;
+        private volatile boolean stalled;
+        private boolean replaced;
+        
+        private Subscriber(SseEmitter emitter, Long customerId, Long employeeId, int queueSize) {
+            this.emitter = emitter;
+            this.customerId = customerId;
+            this.employeeId = employeeId;
+            this.queue = new ArrayBlockingQueue<>(queueSize);
+        }
+        
+        private boolean matches(ChangeEvent event) {
+            return (customerId == null || Objects.equals(customerId, event.getCustomerId()))
+                    && (employeeId == null || Objects.equals(employeeId, event.getEmployeeId()));
+        }
+    }
+}
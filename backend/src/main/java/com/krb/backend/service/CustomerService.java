@@ -1,42 +1,138 @@
 package com.krb.backend.service;
 
 import com.krb.backend.dto.AccountDto;
+import com.krb.backend.dto.AuditEvent;
+import com.krb.backend.dto.BatchGetResponse;
+import com.krb.backend.dto.ChangeEvent;
 import com.krb.backend.dto.CustomerDto;
+import com.krb.backend.dto.PageResponse;
+import com.krb.backend.entity.Account;
 import com.krb.backend.entity.Customer;
 import com.krb.backend.entity.Employee;
+import com.krb.backend.entity.Tombstone;
 import com.krb.backend.repository.AccountRepository;
+import com.krb.backend.repository.ArchivedAccountRepository;
 import com.krb.backend.repository.CustomerRepository;
 import com.krb.backend.repository.EmployeeRepository;
+import com.krb.backend.repository.FieldProjection;
+import com.krb.backend.repository.ProjectionRepository;
+import com.krb.backend.repository.TombstoneRepository;
+import com.krb.backend.util.Batches;
+import com.krb.backend.util.RequestTiming;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
 @Transactional
 public class CustomerService {
     
+    private static final int MAX_PAGE_SIZE = 200;
+    
+    @Value("${krb.batch-get.max-ids:1000}")
+    private int batchGetMaxIds;
+    
+    @Value("${krb.batch-get.chunk-size:250}")
+    private int batchGetChunkSize;
+    
     @Autowired
     private CustomerRepository customerRepository;
     
+    @Autowired
+    private TombstoneRepository tombstoneRepository;
+    
     @Autowired
     private EmployeeRepository employeeRepository;
     
     @Autowired
     private AccountRepository accountRepository;
     
+    @Autowired
+    private ArchivedAccountRepository archivedAccountRepository;
+    
+    @Autowired
+    private ProjectionRepository projectionRepository;
+    
+    @Autowired
+    private UniquenessFilterService uniquenessFilters;
+    
+    @Autowired
+    private OutboxService outboxService;
+    
+    @Autowired
+    private AuditService auditService;
+    
+    @Autowired
+    private RollupService rollupService;
+    
     public List<CustomerDto> getAllCustomers() {
         return customerRepository.findAll().stream()
                 .map(this::convertToDto)
                 .collect(Collectors.toList());
     }
     
-    public List<CustomerDto> getAllCustomersWithAccounts() {
-        return customerRepository.findAllWithAccounts().stream()
-                .map(this::convertToDtoWithAccounts)
-                .collect(Collectors.toList());
+    public List<Map<String, Object>> getAllCustomerFields(List<String> fields) {
+        return projectionRepository.findFields(FieldProjection.CUSTOMER, FieldProjection.CUSTOMER.resolve(fields),
+                null, Map.of(), "c.id");
+    }
+    
+    public PageResponse<CustomerDto> getCustomersWithAccounts(int page, int size) {
+        Page<Long> idPage = customerRepository.findIdsOrderByCreatedAtDesc(
+                PageRequest.of(Math.max(page, 0), Math.min(Math.max(size, 1), MAX_PAGE_SIZE)));
+        List<Long> ids = idPage.getContent();
+        List<CustomerDto> content = new ArrayList<>(ids.size());
+        
+        if (!ids.isEmpty()) {
+            Map<Long, Customer> customersById = customerRepository.findAllByIdInWithCreatedBy(ids).stream()
+                    .collect(Collectors.toMap(Customer::getId, Function.identity()));
+            
+            Map<Long, List<AccountDto>> accountsByCustomer = findAccountsByCustomerIds(ids);
+            
+            for (Long id : ids) {
+                Customer customer = customersById.get(id);
+                if (customer != null) {
+                    content.add(convertToDtoWithAccounts(customer, accountsByCustomer.getOrDefault(id, List.of())));
+                }
+            }
+        }
+        
+        return new PageResponse<>(content, idPage.getNumber(), idPage.getSize(),
+                idPage.getTotalElements(), idPage.getTotalPages());
+    }
+    
+    // One IN query per chunk for the customers, plus one for their accounts or account counts.
+    public BatchGetResponse<CustomerDto> getCustomersByIds(List<Long> ids, boolean includeAccounts) {
+        List<List<Long>> chunks = Batches.chunkIds(ids, batchGetMaxIds, batchGetChunkSize);
+        Map<Long, CustomerDto> found = new HashMap<>();
+        for (List<Long> chunk : chunks) {
+            List<Customer> customers = customerRepository.findAllByIdInWithCreatedBy(chunk);
+            if (includeAccounts) {
+                Map<Long, List<AccountDto>> accountsByCustomer = findAccountsByCustomerIds(chunk);
+                for (Customer customer : customers) {
+                    found.put(customer.getId(), convertToDtoWithAccounts(customer,
+                            accountsByCustomer.getOrDefault(customer.getId(), List.of())));
+                }
+            } else {
+                Map<Long, Long> accountCounts = countAccounts(chunk);
+                for (Customer customer : customers) {
+                    found.put(customer.getId(), convertToDto(customer, accountCounts.getOrDefault(customer.getId(), 0L)));
+                }
+            }
+        }
+        return Batches.toResponse(chunks, found);
     }
     
     public Optional<CustomerDto> getCustomerById(Long id) {
@@ -44,6 +140,19 @@ public class CustomerService {
                 .map(this::convertToDto);
     }
     
+    public Optional<CustomerDto> getCustomerWithAccounts(Long id) {
+        return customerRepository.findDetailById(id)
+                .map(this::convertToDtoWithAccounts);
+    }
+    
+    public List<CustomerDto> getPortfolioByEmployee(Long employeeId) {
+        return employeeRepository.findPortfolioById(employeeId)
+                .map(employee -> employee.getCustomers().stream()
+                        .map(this::convertToDtoWithAccounts)
+                        .collect(Collectors.toList()))
+                .orElseThrow(() -> new RuntimeException("Employee not found"));
+    }
+    
     public List<CustomerDto> getCustomersByEmployee(Long employeeId) {
         return customerRepository.findByCreatedByEmployeeId(employeeId).stream()
                 .map(this::convertToDto)
@@ -56,12 +165,32 @@ public class CustomerService {
                 .collect(Collectors.toList());
     }
     
+    // Bounded variant: one limited query and one grouped account count, however many customers match.
+    public List<CustomerDto> searchCustomers(String searchTerm, int limit) {
+        List<Customer> customers = customerRepository.searchCustomers(searchTerm,
+                PageRequest.of(0, Math.min(Math.max(limit, 1), MAX_PAGE_SIZE), Sort.by("id")));
+        Map<Long, Long> accountCounts = countAccounts(customers.stream().map(Customer::getId).toList());
+        return customers.stream()
+                .map(customer -> convertToDto(customer, accountCounts.getOrDefault(customer.getId(), 0L)))
+                .collect(Collectors.toList());
+    }
+    
+    public List<Map<String, Object>> searchCustomerFields(String searchTerm, List<String> fields) {
+        return projectionRepository.findFields(FieldProjection.CUSTOMER, FieldProjection.CUSTOMER.resolve(fields),
+                "LOWER(c.firstName) LIKE LOWER(CONCAT('%', :searchTerm, '%')) OR " +
+                "LOWER(c.lastName) LIKE LOWER(CONCAT('%', :searchTerm, '%')) OR " +
+                "LOWER(c.email) LIKE LOWER(CONCAT('%', :searchTerm, '%'))",
+                Map.of("searchTerm", searchTerm), "c.id");
+    }
+    
     public CustomerDto createCustomer(CustomerDto customerDto, Long employeeId) {
-        if (customerRepository.existsByEmail(customerDto.getEmail())) {
+        if (uniquenessFilters.exists(UniquenessFilterService.Key.CUSTOMER_EMAIL, customerDto.getEmail(),
+                customerRepository::existsByEmail)) {
             throw new RuntimeException("Email already exists");
         }
         
-        if (customerRepository.existsBySsn(customerDto.getSsn())) {
+        if (uniquenessFilters.exists(UniquenessFilterService.Key.CUSTOMER_SSN, customerDto.getSsn(),
+                customerRepository::existsBySsn)) {
             throw new RuntimeException("SSN already exists");
         }
         
@@ -78,8 +207,15 @@ public class CustomerService {
         customer.setSsn(customerDto.getSsn());
         customer.setCreatedBy(employee);
         
+        uniquenessFilters.record(UniquenessFilterService.Key.CUSTOMER_EMAIL, customer.getEmail());
+        uniquenessFilters.record(UniquenessFilterService.Key.CUSTOMER_SSN, customer.getSsn());
         Customer savedCustomer = customerRepository.save(customer);
-        return convertToDto(savedCustomer);
+        rollupService.recordCustomerOnboarded(savedCustomer.getCreatedAt(), employeeId);
+        CustomerDto dto = convertToDto(savedCustomer);
+        outboxService.publish(ChangeEvent.forCustomer(ChangeEvent.ChangeType.CUSTOMER_CREATED, dto));
+        auditService.record(employeeId, Tombstone.EntityType.CUSTOMER, dto.getId(), AuditEvent.Action.CREATE,
+                dto.getFirstName() + " " + dto.getLastName());
+        return dto;
     }
     
     public CustomerDto updateCustomer(Long id, CustomerDto customerDto) {
@@ -87,15 +223,26 @@ public class CustomerService {
                 .orElseThrow(() -> new RuntimeException("Customer not found"));
         
         if (!customer.getEmail().equals(customerDto.getEmail()) && 
-            customerRepository.existsByEmail(customerDto.getEmail())) {
+            uniquenessFilters.exists(UniquenessFilterService.Key.CUSTOMER_EMAIL, customerDto.getEmail(),
+                    customerRepository::existsByEmail)) {
             throw new RuntimeException("Email already exists");
         }
         
         if (!customer.getSsn().equals(customerDto.getSsn()) && 
-            customerRepository.existsBySsn(customerDto.getSsn())) {
+            uniquenessFilters.exists(UniquenessFilterService.Key.CUSTOMER_SSN, customerDto.getSsn(),
+                    customerRepository::existsBySsn)) {
             throw new RuntimeException("SSN already exists");
         }
         
+        List<String> changedFields = new ArrayList<>();
+        trackChange(changedFields, "firstName", customer.getFirstName(), customerDto.getFirstName());
+        trackChange(changedFields, "lastName", customer.getLastName(), customerDto.getLastName());
+        trackChange(changedFields, "email", customer.getEmail(), customerDto.getEmail());
+        trackChange(changedFields, "phoneNumber", customer.getPhoneNumber(), customerDto.getPhoneNumber());
+        trackChange(changedFields, "address", customer.getAddress(), customerDto.getAddress());
+        trackChange(changedFields, "dateOfBirth", customer.getDateOfBirth(), customerDto.getDateOfBirth());
+        trackChange(changedFields, "ssn", customer.getSsn(), customerDto.getSsn());
+        
         customer.setFirstName(customerDto.getFirstName());
         customer.setLastName(customerDto.getLastName());
         customer.setEmail(customerDto.getEmail());
@@ -104,83 +251,137 @@ public class CustomerService {
         customer.setDateOfBirth(customerDto.getDateOfBirth());
         customer.setSsn(customerDto.getSsn());
         
+        uniquenessFilters.record(UniquenessFilterService.Key.CUSTOMER_EMAIL, customer.getEmail());
+        uniquenessFilters.record(UniquenessFilterService.Key.CUSTOMER_SSN, customer.getSsn());
         Customer savedCustomer = customerRepository.save(customer);
-        return convertToDto(savedCustomer);
+        CustomerDto dto = convertToDto(savedCustomer);
+        outboxService.publish(ChangeEvent.forCustomer(ChangeEvent.ChangeType.CUSTOMER_UPDATED, dto));
+        auditService.record(Tombstone.EntityType.CUSTOMER, id, AuditEvent.Action.UPDATE,
+                "changed " + String.join(",", changedFields));
+        return dto;
     }
     
     public void deleteCustomer(Long id) {
         Customer customer = customerRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Customer not found"));
         
-        long accountCount = accountRepository.countAccountsByCustomer(id);
+        long accountCount = accountRepository.countAccountsByCustomer(id)
+                + archivedAccountRepository.countByCustomerId(id);
         if (accountCount > 0) {
             throw new RuntimeException("Cannot delete customer with existing accounts");
         }
         
+        CustomerDto dto = convertToDto(customer);
         customerRepository.delete(customer);
+        tombstoneRepository.save(new Tombstone(Tombstone.EntityType.CUSTOMER, id));
+        outboxService.publish(ChangeEvent.forCustomer(ChangeEvent.ChangeType.CUSTOMER_DELETED, dto));
+        auditService.record(Tombstone.EntityType.CUSTOMER, id, AuditEvent.Action.DELETE,
+                dto.getFirstName() + " " + dto.getLastName());
+    }
+    
+    // Opening or closing an account does not touch the customer's updatedAt, so a synced count
+    // would go stale; it is left out and clients count the accounts they hold for the customer.
+    public List<CustomerDto> getCustomersUpdatedBetween(LocalDateTime since, LocalDateTime until) {
+        return customerRepository.findUpdatedBetween(since, until).stream()
+                .map(customer -> convertToDto(customer, null))
+                .collect(Collectors.toList());
     }
     
     public long getCustomerCount() {
         return customerRepository.countCustomers();
     }
     
+    private Map<Long, List<AccountDto>> findAccountsByCustomerIds(List<Long> customerIds) {
+        Map<Long, List<AccountDto>> accountsByCustomer = new HashMap<>();
+        for (Account account : accountRepository.findByCustomerIdInWithCreatedBy(customerIds)) {
+            accountsByCustomer.computeIfAbsent(account.getCustomer().getId(), key -> new ArrayList<>())
+                    .add(convertAccountToDto(account));
+        }
+        return accountsByCustomer;
+    }
+    
+    private Map<Long, Long> countAccounts(List<Long> customerIds) {
+        Map<Long, Long> accountCounts = new HashMap<>();
+        if (!customerIds.isEmpty()) {
+            for (Object[] row : accountRepository.countAccountsByCustomerIds(customerIds)) {
+                accountCounts.put((Long) row[0], (Long) row[1]);
+            }
+        }
+        return accountCounts;
+    }
+    
     private CustomerDto convertToDto(Customer customer) {
-        CustomerDto dto = new CustomerDto();
-        dto.setId(customer.getId());
-        dto.setFirstName(customer.getFirstName());
-        dto.setLastName(customer.getLastName());
-        dto.setEmail(customer.getEmail());
-        dto.setPhoneNumber(customer.getPhoneNumber());
-        dto.setAddress(customer.getAddress());
-        dto.setDateOfBirth(customer.getDateOfBirth());
-        dto.setSsn(customer.getSsn());
-        dto.setCreatedAt(customer.getCreatedAt());
-        dto.setUpdatedAt(customer.getUpdatedAt());
-        
-        if (customer.getCreatedBy() != null) {
-            dto.setCreatedByEmployeeId(customer.getCreatedBy().getId());
-            dto.setCreatedByEmployeeName(customer.getCreatedBy().getFullName());
+        return convertToDto(customer, accountRepository.countAccountsByCustomer(customer.getId()));
+    }
+    
+    private CustomerDto convertToDto(Customer customer, Long accountCount) {
+        try (RequestTiming timing = RequestTiming.enter(RequestTiming.Phase.MAPPING)) {
+            CustomerDto dto = new CustomerDto();
+            dto.setId(customer.getId());
+            dto.setFirstName(customer.getFirstName());
+            dto.setLastName(customer.getLastName());
+            dto.setEmail(customer.getEmail());
+            dto.setPhoneNumber(customer.getPhoneNumber());
+            dto.setAddress(customer.getAddress());
+            dto.setDateOfBirth(customer.getDateOfBirth());
+            dto.setSsn(customer.getSsn());
+            dto.setCreatedAt(customer.getCreatedAt());
+            dto.setUpdatedAt(customer.getUpdatedAt());
+            
+            if (customer.getCreatedBy() != null) {
+                dto.setCreatedByEmployeeId(customer.getCreatedBy().getId());
+                dto.setCreatedByEmployeeName(customer.getCreatedBy().getFullName());
+            }
+            
+            dto.setAccountCount(accountCount);
+            return dto;
         }
-        
-        dto.setAccountCount(accountRepository.countAccountsByCustomer(customer.getId()));
-        return dto;
     }
     
     private CustomerDto convertToDtoWithAccounts(Customer customer) {
-        CustomerDto dto = convertToDto(customer);
-        
-        if (customer.getAccounts() != null) {
-            List<AccountDto> accountDtos = customer.getAccounts().stream()
-                    .map(this::convertAccountToDto)
-                    .collect(Collectors.toList());
-            dto.setAccounts(accountDtos);
-        }
-        
+        List<AccountDto> accounts = customer.getAccounts().stream()
+                .map(this::convertAccountToDto)
+                .collect(Collectors.toList());
+        return convertToDtoWithAccounts(customer, accounts);
+    }
+    
+    private CustomerDto convertToDtoWithAccounts(Customer customer, List<AccountDto> accounts) {
+        CustomerDto dto = convertToDto(customer, (long) accounts.size());
+        dto.setAccounts(accounts);
         return dto;
     }
     
-    private AccountDto convertAccountToDto(com.krb.backend.entity.Account account) {
-        AccountDto dto = new AccountDto();
-        dto.setId(account.getId());
-        dto.setAccountNumber(account.getAccountNumber());
-        dto.setAccountType(account.getAccountType());
-        dto.setBalance(account.getBalance());
-        dto.setStatus(account.getStatus());
-        dto.setInterestRate(account.getInterestRate());
-        dto.setCreditLimit(account.getCreditLimit());
-        dto.setCreatedAt(account.getCreatedAt());
-        dto.setUpdatedAt(account.getUpdatedAt());
-        
-        if (account.getCustomer() != null) {
-            dto.setCustomerId(account.getCustomer().getId());
-            dto.setCustomerName(account.getCustomer().getFirstName() + " " + account.getCustomer().getLastName());
+    private AccountDto convertAccountToDto(Account account) {
+        try (RequestTiming timing = RequestTiming.enter(RequestTiming.Phase.MAPPING)) {
+            AccountDto dto = new AccountDto();
+            dto.setId(account.getId());
+            dto.setAccountNumber(account.getAccountNumber());
+            dto.setAccountType(account.getAccountType());
+            dto.setBalance(account.getBalance());
+            dto.setStatus(account.getStatus());
+            dto.setInterestRate(account.getInterestRate());
+            dto.setCreditLimit(account.getCreditLimit());
+            dto.setCreatedAt(account.getCreatedAt());
+            dto.setUpdatedAt(account.getUpdatedAt());
+            
+            if (account.getCustomer() != null) {
+                dto.setCustomerId(account.getCustomer().getId());
+                dto.setCustomerName(account.getCustomer().getFirstName() + " " + account.getCustomer().getLastName());
+            }
+            
+            if (account.getCreatedBy() != null) {
+                dto.setCreatedByEmployeeId(account.getCreatedBy().getId());
+                dto.setCreatedByEmployeeName(account.getCreatedBy().getFullName());
+            }
+            
+            return dto;
         }
-        
-        if (account.getCreatedBy() != null) {
-            dto.setCreatedByEmployeeId(account.getCreatedBy().getId());
-            dto.setCreatedByEmployeeName(account.getCreatedBy().getFullName());
+    }
+    
+    // Field names only: the audit trail must not become a second copy of SSNs or contact details.
+    private static void trackChange(List<String> changedFields, String field, Object before, Object after) {
+        if (!Objects.equals(before, after)) {
+            changedFields.add(field);
         }
-        
-        return dto;
     }
 }
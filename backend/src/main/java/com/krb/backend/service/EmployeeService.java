@@ -1,14 +1,20 @@
 package com.krb.backend.service;
 
+import com.krb.backend.dto.AuditEvent;
+import com.krb.backend.dto.ChangeEvent;
 import com.krb.backend.dto.CreateEmployeeRequest;
 import com.krb.backend.dto.EmployeeDto;
 import com.krb.backend.entity.Employee;
+import com.krb.backend.entity.Tombstone;
 import com.krb.backend.repository.CustomerRepository;
 import com.krb.backend.repository.EmployeeRepository;
+import com.krb.backend.repository.TombstoneRepository;
+import com.krb.backend.util.RequestTiming;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 import java.util.stream.Collectors;
@@ -20,12 +26,24 @@ public class EmployeeService {
     @Autowired
     private EmployeeRepository employeeRepository;
     
+    @Autowired
+    private TombstoneRepository tombstoneRepository;
+    
     @Autowired
     private CustomerRepository customerRepository;
     
     @Autowired
     private PasswordEncoder passwordEncoder;
     
+    @Autowired
+    private UniquenessFilterService uniquenessFilters;
+    
+    @Autowired
+    private OutboxService outboxService;
+    
+    @Autowired
+    private AuditService auditService;
+    
     public List<EmployeeDto> getAllEmployees() {
         return employeeRepository.findAll().stream()
                 .map(this::convertToDto)
@@ -49,11 +67,13 @@ public class EmployeeService {
     }
     
     public EmployeeDto createEmployee(CreateEmployeeRequest request) {
-        if (employeeRepository.existsByUsername(request.getUsername())) {
+        if (uniquenessFilters.exists(UniquenessFilterService.Key.EMPLOYEE_USERNAME, request.getUsername(),
+                employeeRepository::existsByUsername)) {
             throw new RuntimeException("Username already exists");
         }
         
-        if (employeeRepository.existsByEmail(request.getEmail())) {
+        if (uniquenessFilters.exists(UniquenessFilterService.Key.EMPLOYEE_EMAIL, request.getEmail(),
+                employeeRepository::existsByEmail)) {
             throw new RuntimeException("Email already exists");
         }
         
@@ -65,8 +85,14 @@ public class EmployeeService {
         employee.setEmail(request.getEmail());
         employee.setRole(request.getRole());
         
+        uniquenessFilters.record(UniquenessFilterService.Key.EMPLOYEE_USERNAME, employee.getUsername());
+        uniquenessFilters.record(UniquenessFilterService.Key.EMPLOYEE_EMAIL, employee.getEmail());
         Employee savedEmployee = employeeRepository.save(employee);
-        return convertToDto(savedEmployee);
+        EmployeeDto dto = convertToDto(savedEmployee);
+        outboxService.publish(ChangeEvent.forEmployee(ChangeEvent.ChangeType.EMPLOYEE_CREATED, dto));
+        auditService.record(Tombstone.EntityType.EMPLOYEE, savedEmployee.getId(), AuditEvent.Action.CREATE,
+                savedEmployee.getUsername() + " as " + savedEmployee.getRole());
+        return dto;
     }
     
     public EmployeeDto updateEmployee(Long id, EmployeeDto employeeDto) {
@@ -74,23 +100,32 @@ public class EmployeeService {
                 .orElseThrow(() -> new RuntimeException("Employee not found"));
         
         if (!employee.getUsername().equals(employeeDto.getUsername()) && 
-            employeeRepository.existsByUsername(employeeDto.getUsername())) {
+            uniquenessFilters.exists(UniquenessFilterService.Key.EMPLOYEE_USERNAME, employeeDto.getUsername(),
+                    employeeRepository::existsByUsername)) {
             throw new RuntimeException("Username already exists");
         }
         
         if (!employee.getEmail().equals(employeeDto.getEmail()) && 
-            employeeRepository.existsByEmail(employeeDto.getEmail())) {
+            uniquenessFilters.exists(UniquenessFilterService.Key.EMPLOYEE_EMAIL, employeeDto.getEmail(),
+                    employeeRepository::existsByEmail)) {
             throw new RuntimeException("Email already exists");
         }
         
+        String detail = employee.getUsername() + (employee.getRole() != employeeDto.getRole()
+                ? ", role " + employee.getRole() + " -> " + employeeDto.getRole() : "");
         employee.setUsername(employeeDto.getUsername());
         employee.setFirstName(employeeDto.getFirstName());
         employee.setLastName(employeeDto.getLastName());
         employee.setEmail(employeeDto.getEmail());
         employee.setRole(employeeDto.getRole());
         
+        uniquenessFilters.record(UniquenessFilterService.Key.EMPLOYEE_USERNAME, employee.getUsername());
+        uniquenessFilters.record(UniquenessFilterService.Key.EMPLOYEE_EMAIL, employee.getEmail());
         Employee savedEmployee = employeeRepository.save(employee);
-        return convertToDto(savedEmployee);
+        EmployeeDto dto = convertToDto(savedEmployee);
+        outboxService.publish(ChangeEvent.forEmployee(ChangeEvent.ChangeType.EMPLOYEE_UPDATED, dto));
+        auditService.record(Tombstone.EntityType.EMPLOYEE, id, AuditEvent.Action.UPDATE, detail);
+        return dto;
     }
     
     public void deleteEmployee(Long id) {
@@ -102,7 +137,11 @@ public class EmployeeService {
             throw new RuntimeException("Cannot delete employee with existing customers");
         }
         
+        EmployeeDto dto = convertToDto(employee);
         employeeRepository.delete(employee);
+        tombstoneRepository.save(new Tombstone(Tombstone.EntityType.EMPLOYEE, id));
+        outboxService.publish(ChangeEvent.forEmployee(ChangeEvent.ChangeType.EMPLOYEE_DELETED, dto));
+        auditService.record(Tombstone.EntityType.EMPLOYEE, id, AuditEvent.Action.DELETE, employee.getUsername());
     }
     
     public boolean validateCredentials(String username, String password) {
@@ -111,6 +150,12 @@ public class EmployeeService {
                passwordEncoder.matches(password, employee.get().getPassword());
     }
     
+    public List<EmployeeDto> getEmployeesUpdatedBetween(LocalDateTime since, LocalDateTime until) {
+        return employeeRepository.findUpdatedBetween(since, until).stream()
+                .map(this::convertToDto)
+                .collect(Collectors.toList());
+    }
+    
     public long getEmployeeCount() {
         return employeeRepository.countEmployees();
     }
@@ -124,19 +169,21 @@ public class EmployeeService {
     }
     
     private EmployeeDto convertToDto(Employee employee, boolean includePassword) {
-        EmployeeDto dto = new EmployeeDto();
-        dto.setId(employee.getId());
-        dto.setUsername(employee.getUsername());
-        dto.setFirstName(employee.getFirstName());
-        dto.setLastName(employee.getLastName());
-        dto.setEmail(employee.getEmail());
-        dto.setRole(employee.getRole());
-        dto.setCreatedAt(employee.getCreatedAt());
-        dto.setUpdatedAt(employee.getUpdatedAt());
-        dto.setCustomerCount(customerRepository.countCustomersByEmployee(employee.getId()));
-        if (includePassword) {
-            dto.setPassword(employee.getPassword());
+        try (RequestTiming timing = RequestTiming.enter(RequestTiming.Phase.MAPPING)) {
+            EmployeeDto dto = new EmployeeDto();
+            dto.setId(employee.getId());
+            dto.setUsername(employee.getUsername());
+            dto.setFirstName(employee.getFirstName());
+            dto.setLastName(employee.getLastName());
+            dto.setEmail(employee.getEmail());
+            dto.setRole(employee.getRole());
+            dto.setCreatedAt(employee.getCreatedAt());
+            dto.setUpdatedAt(employee.getUpdatedAt());
+            dto.setCustomerCount(customerRepository.countCustomersByEmployee(employee.getId()));
+            if (includePassword) {
+                dto.setPassword(employee.getPassword());
+            }
+            return dto;
         }
-        return dto;
     }
 }
@@ -0,0 +1,205 @@
+package com.krb.backend.service;
+
+import com.krb.backend.entity.IdempotencyRecord;
+import com.krb.backend.repository.IdempotencyRecordRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+@Service
+public class IdempotencyService {
+    
+    public enum Outcome {
+        EXECUTE, REPLAY, FINGERPRINT_MISMATCH, IN_PROGRESS
+    }
+    
+    @Autowired
+    private IdempotencyRecordRepository idempotencyRecordRepository;
+    
+    @Value("${krb.idempotency.ttl-seconds:86400}")
+    private long ttlSeconds;
+    
+    @Value("${krb.idempotency.max-entries:10000}")
+    private int maxEntries;
+    
+    @Value("${krb.idempotency.wait-timeout-ms:30000}")
+    private long waitTimeoutMs;
+    
+    @Value("${krb.idempotency.persistent:false}")
+    private boolean persistent;
+    
+    private final ConcurrentHashMap<String, Entry> entries = new ConcurrentHashMap<>();
+    
+    private final Queue<String> insertionOrder = new ConcurrentLinkedQueue<>();
+    
+    public Claim claim(String requestKey, String fingerprint) {
+        while (true) {
+            Entry existing = entries.get(requestKey);
+            if (existing == null) {
+                // A persisted record is loaded as an already completed entry, so it goes through
+                // the same fingerprint check as one that never left memory.
+                Optional<IdempotencyRecord> persisted = loadPersisted(requestKey);
+                Entry entry = persisted.map(Entry::new).orElseGet(() -> new Entry(fingerprint));
+                existing = entries.putIfAbsent(requestKey, entry);
+                if (existing == null) {
+                    insertionOrder.add(requestKey);
+                    evictOverflow();
+                    if (persisted.isEmpty()) {
+                        return new Claim(Outcome.EXECUTE, requestKey, entry, null);
+                    }
+                    existing = entry;
+                }
+            }
+            
+            if (existing.isExpired()) {
+                entries.remove(requestKey, existing);
+                continue;
+            }
+            if (!existing.fingerprint.equals(fingerprint)) {
+                return new Claim(Outcome.FINGERPRINT_MISMATCH, requestKey, existing, null);
+            }
+            
+            StoredResponse response;
+            try {
+                response = existing.result.get(waitTimeoutMs, TimeUnit.MILLISECONDS);
+            } catch (TimeoutException e) {
+                return new Claim(Outcome.IN_PROGRESS, requestKey, existing, null);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return new Claim(Outcome.IN_PROGRESS, requestKey, existing, null);
+            } catch (ExecutionException e) {
+                response = null;
+            }
+            
+            // The first execution was abandoned (server error or exception), so this retry
+            // competes to run it again instead of replaying a failure.
+            if (response != null) {
+                return new Claim(Outcome.REPLAY, requestKey, existing, response);
+            }
+        }
+    }
+    
+    public void complete(Claim claim, StoredResponse response) {
+        claim.entry.complete(response, ttlSeconds);
+        if (persistent) {
+            idempotencyRecordRepository.save(new IdempotencyRecord(claim.requestKey, claim.entry.fingerprint,
+                    response.getStatus(), response.getContentType(), response.getBody(),
+                    LocalDateTime.now().plusSeconds(ttlSeconds)));
+        }
+    }
+    
+    public void abandon(Claim claim) {
+        entries.remove(claim.requestKey, claim.entry);
+        claim.entry.result.complete(null);
+    }
+    
+    @Scheduled(fixedRateString = "${krb.idempotency.purge-interval-ms:60000}")
+    public void purgeExpired() {
+        entries.entrySet().removeIf(e -> e.getValue().isExpired());
+        insertionOrder.removeIf(key -> !entries.containsKey(key));
+        if (persistent) {
+            idempotencyRecordRepository.deleteExpired(LocalDateTime.now());
+        }
+    }
+    
+    public int getEntryCount() {
+        return entries.size();
+    }
+    
+    private Optional<IdempotencyRecord> loadPersisted(String requestKey) {
+        if (!persistent) {
+            return Optional.empty();
+        }
+        return idempotencyRecordRepository.findById(requestKey)
+                .filter(record -> record.getExpiresAt().isAfter(LocalDateTime.now()));
+    }
+    
+    // Oldest keys go first; an in-flight entry is never evicted because its waiters still need it.
+    private void evictOverflow() {
+        int guard = insertionOrder.size();
+        while (entries.size() > maxEntries && guard-- > 0) {
+            String oldest = insertionOrder.poll();
+            if (oldest == null) {
+                return;
+            }
+            Entry entry = entries.get(oldest);
+            if (entry != null && entry.result.isDone()) {
+                entries.remove(oldest, entry);
+            } else if (entry != null) {
+                insertionOrder.add(oldest);
+            }
+        }
+    }
+    
+    public static final class Claim {
+        
+        private final Outcome outcome;
+        private final String requestKey;
+        private final Entry entry;
+        private final StoredResponse response;
+        
+        private Claim(Outcome outcome, String requestKey, Entry entry, StoredResponse response) {
+            this.outcome = outcome;
+            this.requestKey = requestKey;
+            this.entry = entry;
+            this.response = response;
+        }
+        
+        public Outcome getOutcome() { return outcome; }
+        public StoredResponse getResponse() { return response; }
+    }
+    
+    public static final class StoredResponse {
+        
+        private final int status;
+        private final String contentType;
+        private final byte[] body;
+        
+        public StoredResponse(int status, String contentType, byte[] body) {
+            this.status = status;
+            this.contentType = contentType;
+            this.body = body;
+        }
+        
+        public int getStatus() { return status; }
+        public String getContentType() { return contentType; }
+        public byte[] getBody() { return body; }
+    }
+    
+    private static final class Entry {
+        
+        private final String fingerprint;
+        private final CompletableFuture<StoredResponse> result = new CompletableFuture<>();
+        private volatile long expiresAtMillis = Long.MAX_VALUE;
+        
+        private Entry(String fingerprint) {
+            this.fingerprint = fingerprint;
+        }
+        
+        private Entry(IdempotencyRecord record) {
+            this.fingerprint = record.getFingerprint();
+            this.expiresAtMillis = record.getExpiresAt().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+            this.result.complete(new StoredResponse(record.getStatusCode(), record.getContentType(), record.getBody()));
+        }
+        
+        private void complete(StoredResponse response, long ttlSeconds) {
+            expiresAtMillis = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(ttlSeconds);
+            result.complete(response);
+        }
+        
+        private boolean isExpired() {
+            return System.currentTimeMillis() > expiresAtMillis;
+        }
+    }
+}
@@ -0,0 +1,279 @@
+package com.krb.backend.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.krb.backend.dto.AccountDto;
+import com.krb.backend.dto.ChangeEvent;
+import com.krb.backend.dto.CustomerDto;
+import com.krb.backend.dto.EmployeeDto;
+import com.krb.backend.entity.OutboxEvent;
+import com.krb.backend.repository.OutboxEventRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Change events are published to local listeners as before and also written to outbox_events in
+ * the same transaction, so they reach the table exactly when the change commits. Each node runs a
+ * relay that reads the table past its high-water mark and republishes events written by other
+ * nodes to its own listeners, which keeps per-node caches and event streams in step when several
+ * instances share one database.
+ */
+@Service
+public class OutboxService {
+    
+    private static final Logger log = LoggerFactory.getLogger(OutboxService.class);
+    
+    private static final TypeReference<List<Long>> ACCOUNT_IDS = new TypeReference<>() { };
+    
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+    
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    @Autowired
+    private UniquenessFilterService uniquenessFilters;
+    
+    @Value("${krb.outbox.enabled:true}")
+    private boolean enabled;
+    
+    @Value("${krb.outbox.node-id:}")
+    private String configuredNodeId;
+    
+    @Value("${krb.outbox.poll-ms:500}")
+    private long pollMs;
+    
+    @Value("${krb.outbox.batch-size:500}")
+    private int batchSize;
+    
+    @Value("${krb.outbox.gap-timeout-ms:10000}")
+    private long gapTimeoutMs;
+    
+    @Value("${krb.outbox.max-gaps:10000}")
+    private int maxGaps;
+    
+    @Value("${krb.outbox.retention-minutes:60}")
+    private long retentionMinutes;
+    
+    private String nodeId;
+    
+    private ScheduledExecutorService relay;
+    
+    private volatile long highWaterMark = -1;
+    
+    // Ids below the high-water mark that were not visible yet when the relay passed them, with the
+    // time they were first noticed. Only the relay thread adds and removes entries.
+    private final Map<Long, Long> gaps = new ConcurrentHashMap<>();
+    
+    private final LongAdder appended = new LongAdder();
+    
+    private final LongAdder relayed = new LongAdder();
+    
+    private final LongAdder ownSkipped = new LongAdder();
+    
+    private final LongAdder lateRelayed = new LongAdder();
+    
+    private final LongAdder abandonedGaps = new LongAdder();
+    
+    private final LongAdder failures = new LongAdder();
+    
+    private volatile LocalDateTime lastPollAt;
+    
+    @PostConstruct
+    public void init() {
+        nodeId = configuredNodeId == null || configuredNodeId.isBlank() ? UUID.randomUUID().toString() : configuredNodeId;
+    }
+    
+    public String getNodeId() {
+        return nodeId;
+    }
+    
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void publish(ChangeEvent event) {
+        eventPublisher.publishEvent(event);
+        if (!enabled) {
+            return;
+        }
+        // Outbox rows outlive the change by the retention window, so a customer's SSN and date of
+        // birth stay out of them; other nodes only need the SSN's digest for their uniqueness filter.
+        Object data = event.getData();
+        String ssnDigest = null;
+        if (data instanceof CustomerDto customer) {
+            ssnDigest = uniquenessFilters.digest(customer.getSsn());
+            data = customer.withoutSensitiveFields();
+        }
+        try {
+            OutboxEvent outboxEvent = new OutboxEvent(event, objectMapper.writeValueAsString(data), nodeId);
+            outboxEvent.setSsnDigest(ssnDigest);
+            outboxEventRepository.save(outboxEvent);
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Could not serialise " + event.getType() + " for the outbox", e);
+        }
+        appended.increment();
+    }
+    
+    // The relay starts from the current end of the table: the caches it feeds are built from the
+    // database at startup, so older events carry nothing they have not already seen.
+    @EventListener(ApplicationReadyEvent.class)
+    public void startRelay() {
+        if (!enabled || relay != null) {
+            return;
+        }
+        highWaterMark = outboxEventRepository.findMaxId();
+        relay = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "outbox-relay");
+            thread.setDaemon(true);
+            return thread;
+        });
+        relay.scheduleWithFixedDelay(this::pollSafely, pollMs, pollMs, TimeUnit.MILLISECONDS);
+        log.info("Outbox relay started on node {} at event {}", nodeId, highWaterMark);
+    }
+    
+    @PreDestroy
+    public void stopRelay() {
+        if (relay != null) {
+            relay.shutdownNow();
+        }
+    }
+    
+    /**
+     * Relays everything committed past the high-water mark. Identity values are handed out at
+     * insert but become visible at commit, so a lower id can appear after a higher one was read.
+     * Skipped ids are remembered as gaps and looked up again on later polls until they show up or
+     * time out; a gap that never fills is normally a rolled-back insert.
+     */
+    public int poll() {
+        long now = System.currentTimeMillis();
+        int delivered = 0;
+        if (!gaps.isEmpty()) {
+            List<OutboxEvent> late = outboxEventRepository.findByIdIn(List.copyOf(gaps.keySet()));
+            for (OutboxEvent event : late) {
+                gaps.remove(event.getId());
+                if (deliver(event)) {
+                    lateRelayed.increment();
+                    delivered++;
+                }
+            }
+            Iterator<Map.Entry<Long, Long>> expired = gaps.entrySet().iterator();
+            while (expired.hasNext()) {
+                if (now - expired.next().getValue() > gapTimeoutMs) {
+                    expired.remove();
+                    abandonedGaps.increment();
+                }
+            }
+        }
+        
+        while (true) {
+            List<OutboxEvent> batch = outboxEventRepository.findAfter(highWaterMark, PageRequest.of(0, batchSize));
+            for (OutboxEvent event : batch) {
+                long missing = event.getId() - highWaterMark - 1;
+                long tracked = Math.min(missing, Math.max(0, maxGaps - gaps.size()));
+                for (long id = highWaterMark + 1; id <= highWaterMark + tracked; id++) {
+                    gaps.put(id, now);
+                }
+                abandonedGaps.add(missing - tracked);
+                if (deliver(event)) {
+                    delivered++;
+                }
+                highWaterMark = event.getId();
+            }
+            if (batch.size() < batchSize) {
+                break;
+            }
+        }
+        lastPollAt = LocalDateTime.now();
+        return delivered;
+    }
+    
+    @Scheduled(fixedDelayString = "${krb.outbox.purge-ms:300000}")
+    @Transactional
+    public void purgeRelayedEvents() {
+        if (enabled) {
+            outboxEventRepository.deleteOlderThan(LocalDateTime.now().minusMinutes(retentionMinutes));
+        }
+    }
+    
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", enabled);
+        stats.put("nodeId", nodeId);
+        stats.put("highWaterMark", highWaterMark);
+        stats.put("pendingGaps", gaps.size());
+        stats.put("appended", appended.sum());
+        stats.put("relayed", relayed.sum());
+        stats.put("lateRelayed", lateRelayed.sum());
+        stats.put("ownSkipped", ownSkipped.sum());
+        stats.put("abandonedGaps", abandonedGaps.sum());
+        stats.put("failures", failures.sum());
+        stats.put("lastPollAt", lastPollAt);
+        return stats;
+    }
+    
+    private void pollSafely() {
+        try {
+            poll();
+        } catch (RuntimeException e) {
+            log.warn("Outbox relay poll failed: {}", e.getMessage());
+        }
+    }
+    
+    // Runs outside any transaction, so the AFTER_COMMIT listeners fire immediately through their
+    // fallbackExecution. A listener failure is logged and the relay moves on.
+    private boolean deliver(OutboxEvent event) {
+        if (nodeId.equals(event.getOriginNode())) {
+            ownSkipped.increment();
+            return false;
+        }
+        try {
+            ChangeEvent change = new ChangeEvent(event.getEventType(), event.getEntityId(), event.getCustomerId(),
+                    event.getEmployeeId(), readPayload(event));
+            change.setTimestamp(event.getOccurredAt());
+            eventPublisher.publishEvent(change);
+            uniquenessFilters.recordDigest(UniquenessFilterService.Key.CUSTOMER_SSN, event.getSsnDigest());
+            relayed.increment();
+            return true;
+        } catch (JsonProcessingException | RuntimeException e) {
+            failures.increment();
+            log.warn("Could not relay outbox event {} ({}): {}", event.getId(), event.getEventType(), e.getMessage());
+            return false;
+        }
+    }
+    
+    private Object readPayload(OutboxEvent event) throws JsonProcessingException {
+        String payload = event.getPayload();
+        return switch (event.getEventType()) {
+            case ACCOUNT_CREATED, ACCOUNT_STATUS_CHANGED, ACCOUNT_BALANCE_CHANGED, ACCOUNT_DELETED ->
+                    objectMapper.readValue(payload, AccountDto.class);
+            case ACCOUNTS_ARCHIVED -> objectMapper.readValue(payload, ACCOUNT_IDS);
+            case CUSTOMER_CREATED, CUSTOMER_UPDATED, CUSTOMER_DELETED -> objectMapper.readValue(payload, CustomerDto.class);
+            case EMPLOYEE_CREATED, EMPLOYEE_UPDATED, EMPLOYEE_DELETED -> objectMapper.readValue(payload, EmployeeDto.class);
+        };
+    }
+}
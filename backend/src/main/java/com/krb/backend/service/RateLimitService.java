@@ -0,0 +1,168 @@
+package com.krb.backend.service;
+
+import com.krb.backend.config.RateLimitProperties;
+import com.krb.backend.util.TokenBucket;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.util.AntPathMatcher;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+@Service
+public class RateLimitService {
+    
+    private static final AntPathMatcher PATH_MATCHER = new AntPathMatcher();
+    
+    @Autowired
+    private RateLimitProperties properties;
+    
+    private final List<Group> groups = new ArrayList<>();
+    
+    @PostConstruct
+    public void init() {
+        for (RateLimitProperties.RouteGroup config : properties.getGroups()) {
+            groups.add(new Group(config, properties.getEmployeeIpFactor(), properties.getMaxBuckets()));
+        }
+    }
+    
+    public Group match(String method, String path) {
+        if (!properties.isEnabled()) {
+            return null;
+        }
+        for (Group group : groups) {
+            if (group.matches(method, path)) {
+                return group;
+            }
+        }
+        return null;
+    }
+    
+    /**
+     * Returns 0 when the request is admitted, otherwise how long the caller should wait. The
+     * employee id is only what the client claims, so a request that carries one must also fit
+     * its IP's allowance (employee-ip-factor times the group rate); rotating ids from one address
+     * cannot get more than that. The employee's own bucket is checked first, so an employee who
+     * is already throttled does not use up the allowance of everyone else behind the same address.
+     */
+    public long tryAcquire(Group group, String ipKey, String employeeKey) {
+        long now = System.nanoTime();
+        long waitNanos;
+        if (employeeKey == null) {
+            waitNanos = group.clients.get(ipKey, now).tryAcquire(now);
+        } else {
+            TokenBucket employee = group.clients.get(employeeKey, now);
+            waitNanos = employee.tryAcquire(now);
+            if (waitNanos == 0) {
+                waitNanos = group.addresses.get(ipKey, now).tryAcquire(now);
+                if (waitNanos != 0) {
+                    employee.refund();
+                }
+            }
+        }
+        (waitNanos == 0 ? group.admitted : group.throttled).increment();
+        return waitNanos;
+    }
+    
+    // A full bucket is indistinguishable from a new one, so dropping it loses nothing.
+    @Scheduled(fixedRateString = "${krb.rate-limit.idle-eviction-ms:300000}")
+    public void evictIdle() {
+        long now = System.nanoTime();
+        long idleNanos = TimeUnit.MILLISECONDS.toNanos(properties.getIdleEvictionMs());
+        for (Group group : groups) {
+            group.clients.evictFullSince(now - idleNanos);
+            group.addresses.evictFullSince(now - idleNanos);
+        }
+    }
+    
+    public Map<String, Map<String, Object>> getStats() {
+        Map<String, Map<String, Object>> stats = new LinkedHashMap<>();
+        for (Group group : groups) {
+            Map<String, Object> entry = new LinkedHashMap<>();
+            long admitted = group.admitted.sum();
+            long throttled = group.throttled.sum();
+            entry.put("key", group.config.getKey());
+            entry.put("requestsPerSecond", group.config.getRequestsPerSecond());
+            entry.put("burst", group.config.getBurst());
+            entry.put("activeClients", group.clients.buckets.size());
+            entry.put("overflowed", group.clients.overflowed.sum() + group.addresses.overflowed.sum());
+            entry.put("admitted", admitted);
+            entry.put("throttled", throttled);
+            entry.put("throttledRatio", admitted + throttled == 0 ? 0.0 : (double) throttled / (admitted + throttled));
+            stats.put(group.config.getName(), entry);
+        }
+        return stats;
+    }
+    
+    public static final class Group {
+        
+        private final RateLimitProperties.RouteGroup config;
+        private final Buckets clients;
+        private final Buckets addresses;
+        private final LongAdder admitted = new LongAdder();
+        private final LongAdder throttled = new LongAdder();
+        
+        private Group(RateLimitProperties.RouteGroup config, double ipFactor, int maxBuckets) {
+            this.config = config;
+            this.clients = new Buckets(config.getRequestsPerSecond(), config.getBurst(), maxBuckets);
+            this.addresses = new Buckets(config.getRequestsPerSecond() * ipFactor,
+                    (int) Math.ceil(config.getBurst() * ipFactor), maxBuckets);
+        }
+        
+        public String getName() { return config.getName(); }
+        public RateLimitProperties.KeyType getKeyType() { return config.getKey(); }
+        
+        private boolean matches(String method, String path) {
+            if (!config.getMethods().isEmpty() && !config.getMethods().contains(method)) {
+                return false;
+            }
+            for (String pattern : config.getPaths()) {
+                if (PATH_MATCHER.match(pattern, path)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+    
+    // Once the map holds max-buckets, new keys share one overflow bucket until the scheduled
+    // eviction makes room; the request thread never scans the map.
+    private static final class Buckets {
+        
+        private final double requestsPerSecond;
+        private final int burst;
+        private final int maxBuckets;
+        private final ConcurrentHashMap<String, TokenBucket> buckets = new ConcurrentHashMap<>();
+        private final TokenBucket overflow;
+        private final LongAdder overflowed = new LongAdder();
+        
+        private Buckets(double requestsPerSecond, int burst, int maxBuckets) {
+            this.requestsPerSecond = requestsPerSecond;
+            this.burst = burst;
+            this.maxBuckets = maxBuckets;
+            this.overflow = new TokenBucket(requestsPerSecond, burst, System.nanoTime());
+        }
+        
+        private TokenBucket get(String key, long now) {
+            TokenBucket bucket = buckets.get(key);
+            if (bucket != null) {
+                return bucket;
+            }
+            if (buckets.size() >= maxBuckets) {
+                overflowed.increment();
+                return overflow;
+            }
+            return buckets.computeIfAbsent(key, k -> new TokenBucket(requestsPerSecond, burst, now));
+        }
+        
+        private void evictFullSince(long nanos) {
+            buckets.values().removeIf(bucket -> bucket.isFull(nanos));
+        }
+    }
+}
@@ -0,0 +1,468 @@
+package com.krb.backend.service;
+
+import com.krb.backend.dto.ReportJobDto;
+import com.krb.backend.entity.Account;
+import com.krb.backend.entity.Customer;
+import com.krb.backend.repository.AccountRepository;
+import com.krb.backend.repository.CustomerRepository;
+import com.krb.backend.repository.EmployeeRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+@Service
+public class ReportJobService {
+    
+    private static final Logger log = LoggerFactory.getLogger(ReportJobService.class);
+    
+    public enum ReportType {
+        EMPLOYEE_CUSTOMERS, EMPLOYEE_ACCOUNTS
+    }
+    
+    public enum Status {
+        QUEUED, RUNNING, COMPLETED, FAILED, CANCELLED
+    }
+    
+    private static final String CUSTOMER_HEADER = "customerId,firstName,lastName,email,phoneNumber,customerCreatedAt," +
+            "createdByEmployeeId,accountNumber,accountType,accountStatus,balance,creditLimit,accountCreatedAt";
+    
+    private static final String ACCOUNT_HEADER = "accountId,accountNumber,accountType,status,balance,interestRate," +
+            "creditLimit,customerId,customerName,createdByEmployeeId,createdAt,updatedAt";
+    
+    @Autowired
+    private CustomerRepository customerRepository;
+    
+    @Autowired
+    private AccountRepository accountRepository;
+    
+    @Autowired
+    private EmployeeRepository employeeRepository;
+    
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    
+    @Value("${krb.reports.directory:${java.io.tmpdir}/krb-reports}")
+    private String directoryPath;
+    
+    @Value("${krb.reports.workers:2}")
+    private int workers;
+    
+    @Value("${krb.reports.max-queued:20}")
+    private int maxQueued;
+    
+    @Value("${krb.reports.chunk-size:500}")
+    private int chunkSize;
+    
+    @Value("${krb.reports.result-ttl-seconds:900}")
+    private long resultTtlSeconds;
+    
+    private final ConcurrentHashMap<String, Job> jobs = new ConcurrentHashMap<>();
+    
+    private final ConcurrentHashMap<String, Job> jobsByParameters = new ConcurrentHashMap<>();
+    
+    private Path directory;
+    
+    private ThreadPoolExecutor executor;
+    
+    private TransactionTemplate readOnlyTransaction;
+    
+    @PostConstruct
+    public void start() throws IOException {
+        directory = Paths.get(directoryPath);
+        Files.createDirectories(directory);
+        // Job state lives in memory, so files left by a previous run can never be downloaded again.
+        try (Stream<Path> leftovers = Files.list(directory)) {
+            leftovers.filter(path -> path.getFileName().toString().startsWith("report-"))
+                    .forEach(ReportJobService::deleteQuietly);
+        }
+        
+        AtomicInteger threadCount = new AtomicInteger();
+        executor = new ThreadPoolExecutor(workers, workers, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(maxQueued), runnable -> {
+                    Thread thread = new Thread(runnable, "report-worker-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        
+        readOnlyTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction.setReadOnly(true);
+    }
+    
+    @PreDestroy
+    public void stop() {
+        executor.shutdownNow();
+    }
+    
+    // A request whose parameters match a queued, running or unexpired finished job is attached to
+    // that job instead of producing the same file twice; refresh only skips a finished file.
+    public synchronized ReportJobDto submit(ReportType type, Long employeeId, boolean refresh) {
+        if (employeeId != null && !employeeRepository.existsById(employeeId)) {
+            throw new RuntimeException("Employee not found with id: " + employeeId);
+        }
+        
+        String parameters = type + ":" + (employeeId != null ? employeeId : "all");
+        Job existing = jobsByParameters.get(parameters);
+        if (existing != null && existing.isReusable() && !(refresh && existing.isFinished())) {
+            return convertToDto(existing, true);
+        }
+        
+        Job job = new Job(UUID.randomUUID().toString(), type, employeeId, parameters);
+        jobs.put(job.id, job);
+        jobsByParameters.put(parameters, job);
+        try {
+            job.future = executor.submit(() -> run(job));
+        } catch (RejectedExecutionException e) {
+            jobs.remove(job.id);
+            jobsByParameters.remove(parameters, job);
+            throw new IllegalStateException("Report queue is full, try again later");
+        }
+        return convertToDto(job, false);
+    }
+    
+    public Optional<ReportJobDto> getJob(String id) {
+        return Optional.ofNullable(jobs.get(id)).map(job -> convertToDto(job, false));
+    }
+    
+    public List<ReportJobDto> getJobs() {
+        return jobs.values().stream()
+                .sorted(Comparator.comparing((Job job) -> job.submittedAt).reversed())
+                .map(job -> convertToDto(job, false))
+                .collect(Collectors.toList());
+    }
+    
+    public Path getResultFile(String id) {
+        Job job = jobs.get(id);
+        if (job == null) {
+            throw new RuntimeException("Report job not found with id: " + id);
+        }
+        if (job.status != Status.COMPLETED || job.resultFile == null || !Files.exists(job.resultFile)) {
+            throw new RuntimeException("Report is not available, job status is " + job.status);
+        }
+        return job.resultFile;
+    }
+    
+    public String getDownloadName(String id) {
+        Job job = jobs.get(id);
+        String scope = job.employeeId != null ? "employee-" + job.employeeId : "all";
+        return job.type.name().toLowerCase().replace('_', '-') + "-" + scope + ".csv";
+    }
+    
+    public ReportJobDto cancel(String id) {
+        Job job = jobs.get(id);
+        if (job == null) {
+            throw new RuntimeException("Report job not found with id: " + id);
+        }
+        synchronized (job) {
+            if (job.isFinished()) {
+                throw new RuntimeException("Report job already finished with status " + job.status);
+            }
+            job.cancelled = true;
+            if (job.status == Status.QUEUED) {
+                job.finish(Status.CANCELLED, null);
+            }
+        }
+        jobsByParameters.remove(job.parameters, job);
+        Future<?> future = job.future;
+        if (future != null) {
+            future.cancel(true);
+        }
+        return convertToDto(job, false);
+    }
+    
+    @Scheduled(fixedRateString = "${krb.reports.purge-interval-ms:60000}")
+    public void purgeExpired() {
+        LocalDateTime now = LocalDateTime.now();
+        for (Job job : jobs.values()) {
+            if (job.isFinished() && job.expiresAt.isBefore(now)) {
+                jobs.remove(job.id);
+                jobsByParameters.remove(job.parameters, job);
+                if (job.resultFile != null) {
+                    deleteQuietly(job.resultFile);
+                }
+            }
+        }
+    }
+    
+    private void run(Job job) {
+        synchronized (job) {
+            if (job.cancelled) {
+                return;
+            }
+            job.status = Status.RUNNING;
+            job.startedAt = LocalDateTime.now();
+        }
+        
+        Path partial = directory.resolve("report-" + job.id + ".csv.part");
+        try {
+            try (BufferedWriter writer = Files.newBufferedWriter(partial, StandardCharsets.UTF_8)) {
+                if (job.type == ReportType.EMPLOYEE_CUSTOMERS) {
+                    writeCustomerReport(job, writer);
+                } else {
+                    writeAccountReport(job, writer);
+                }
+            }
+            Path result = directory.resolve("report-" + job.id + ".csv");
+            synchronized (job) {
+                checkCancelled(job);
+                Files.move(partial, result, StandardCopyOption.ATOMIC_MOVE);
+                job.sizeBytes = Files.size(result);
+                job.resultFile = result;
+                job.finish(Status.COMPLETED, null);
+            }
+        } catch (Exception e) {
+            deleteQuietly(partial);
+            jobsByParameters.remove(job.parameters, job);
+            if (job.cancelled) {
+                job.finish(Status.CANCELLED, null);
+            } else {
+                log.warn("Report job {} ({}) failed", job.id, job.parameters, e);
+                job.finish(Status.FAILED, e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName());
+            }
+        }
+    }
+    
+    // Rows are read in keyset-paged chunks, each in its own short read-only transaction, and
+    // written out before the next chunk is fetched, so neither the heap nor a connection is held
+    // for the size of the whole portfolio.
+    private void writeCustomerReport(Job job, BufferedWriter writer) throws IOException {
+        job.totalItems = readOnlyTransaction.execute(status -> job.employeeId != null
+                ? customerRepository.countCustomersByEmployee(job.employeeId)
+                : customerRepository.countCustomers());
+        writeLine(writer, CUSTOMER_HEADER);
+        
+        long afterId = 0;
+        while (true) {
+            checkCancelled(job);
+            long cursor = afterId;
+            Chunk chunk = readOnlyTransaction.execute(status -> readCustomerChunk(job.employeeId, cursor));
+            if (chunk.rows.isEmpty()) {
+                return;
+            }
+            for (String row : chunk.rows) {
+                writeLine(writer, row);
+            }
+            job.rowsWritten += chunk.rows.size();
+            job.processedItems += chunk.items;
+            afterId = chunk.lastId;
+        }
+    }
+    
+    private void writeAccountReport(Job job, BufferedWriter writer) throws IOException {
+        job.totalItems = readOnlyTransaction.execute(status -> job.employeeId != null
+                ? accountRepository.countAccountsByEmployee(job.employeeId)
+                : accountRepository.countAccounts());
+        writeLine(writer, ACCOUNT_HEADER);
+        
+        long afterId = 0;
+        while (true) {
+            checkCancelled(job);
+            long cursor = afterId;
+            Chunk chunk = readOnlyTransaction.execute(status -> readAccountChunk(job.employeeId, cursor));
+            if (chunk.rows.isEmpty()) {
+                return;
+            }
+            for (String row : chunk.rows) {
+                writeLine(writer, row);
+            }
+            job.rowsWritten += chunk.rows.size();
+            job.processedItems += chunk.items;
+            afterId = chunk.lastId;
+        }
+    }
+    
+    private Chunk readCustomerChunk(Long employeeId, long afterId) {
+        List<Long> ids = customerRepository.findIdsForReport(employeeId, afterId, PageRequest.of(0, chunkSize));
+        if (ids.isEmpty()) {
+            return new Chunk(List.of(), 0, afterId);
+        }
+        Map<Long, Customer> customers = customerRepository.findAllByIdInWithCreatedBy(ids).stream()
+                .collect(Collectors.toMap(Customer::getId, customer -> customer));
+        Map<Long, List<Account>> accountsByCustomer = accountRepository.findByCustomerIdInWithCreatedBy(ids).stream()
+                .collect(Collectors.groupingBy(account -> account.getCustomer().getId()));
+        
+        List<String> rows = new ArrayList<>();
+        for (Long id : ids) {
+            Customer customer = customers.get(id);
+            if (customer == null) {
+                continue;
+            }
+            String customerColumns = csv(customer.getId(), customer.getFirstName(), customer.getLastName(),
+                    customer.getEmail(), customer.getPhoneNumber(), customer.getCreatedAt(),
+                    customer.getCreatedBy() != null ? customer.getCreatedBy().getId() : null);
+            List<Account> accounts = accountsByCustomer.getOrDefault(id, List.of());
+            if (accounts.isEmpty()) {
+                rows.add(customerColumns + ",,,,,,");
+            }
+            for (Account account : accounts) {
+                rows.add(customerColumns + "," + csv(account.getAccountNumber(), account.getAccountType(),
+                        account.getStatus(), account.getBalance(), account.getCreditLimit(), account.getCreatedAt()));
+            }
+        }
+        return new Chunk(rows, ids.size(), ids.get(ids.size() - 1));
+    }
+    
+    private Chunk readAccountChunk(Long employeeId, long afterId) {
+        List<Account> accounts = accountRepository.findChunkForReport(employeeId, afterId, PageRequest.of(0, chunkSize));
+        if (accounts.isEmpty()) {
+            return new Chunk(List.of(), 0, afterId);
+        }
+        List<String> rows = new ArrayList<>(accounts.size());
+        for (Account account : accounts) {
+            rows.add(csv(account.getId(), account.getAccountNumber(), account.getAccountType(), account.getStatus(),
+                    account.getBalance(), account.getInterestRate(), account.getCreditLimit(),
+                    account.getCustomer().getId(), account.getCustomer().getFullName(),
+                    account.getCreatedBy() != null ? account.getCreatedBy().getId() : null,
+                    account.getCreatedAt(), account.getUpdatedAt()));
+        }
+        return new Chunk(rows, accounts.size(), accounts.get(accounts.size() - 1).getId());
+    }
+    
+    private static void checkCancelled(Job job) {
+        if (job.cancelled || Thread.currentThread().isInterrupted()) {
+            job.cancelled = true;
+            throw new IllegalStateException("Report job cancelled");
+        }
+    }
+    
+    private static void writeLine(BufferedWriter writer, String line) throws IOException {
+        writer.write(line);
+        writer.write("\r\n");
+    }
+    
+    private static String csv(Object... values) {
+        StringBuilder line = new StringBuilder();
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                line.append(',');
+            }
+            String value = Objects.toString(values[i], "");
+            if (value.indexOf(',') >= 0 || value.indexOf('"') >= 0 || value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0) {
+                line.append('"').append(value.replace("\"", "\"\"")).append('"');
+            } else {
+                line.append(value);
+            }
+        }
+        return line.toString();
+    }
+    
+    private static void deleteQuietly(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            log.warn("Could not delete report file {}", path, e);
+        }
+    }
+    
+    private ReportJobDto convertToDto(Job job, boolean reused) {
+        ReportJobDto dto = new ReportJobDto();
+        dto.setId(job.id);
+        dto.setType(job.type);
+        dto.setEmployeeId(job.employeeId);
+        dto.setStatus(job.status);
+        dto.setProcessedItems(job.processedItems);
+        dto.setTotalItems(job.totalItems);
+        dto.setProgressPercent(job.status == Status.COMPLETED ? 100
+                : job.totalItems > 0 ? (int) Math.min(99, job.processedItems * 100 / job.totalItems) : 0);
+        dto.setRowsWritten(job.rowsWritten);
+        dto.setSizeBytes(job.sizeBytes);
+        dto.setError(job.error);
+        dto.setReused(reused);
+        dto.setSubmittedAt(job.submittedAt);
+        dto.setStartedAt(job.startedAt);
+        dto.setFinishedAt(job.finishedAt);
+        dto.setExpiresAt(job.expiresAt);
+        return dto;
+    }
+    
+    private static final class Chunk {
+        
+        private final List<String> rows;
+        private final int items;
+        private final long lastId;
+        
+        private Chunk(List<String> rows, int items, long lastId) {
+            this.rows = rows;
+            this.items = items;
+            this.lastId = lastId;
+        }
+    }
+    
+    private final class Job {
+        
+        private final String id;
+        private final ReportType type;
+        private final Long employeeId;
+        private final String parameters;
+        private final LocalDateTime submittedAt = LocalDateTime.now();
+        private volatile Future<?> future;
+        private volatile Status status = Status.QUEUED;
+        private volatile boolean cancelled;
+        private volatile long processedItems;
+        private volatile long totalItems;
+        private volatile long rowsWritten;
+        private volatile long sizeBytes;
+        private volatile String error;
+        private volatile Path resultFile;
+        private volatile LocalDateTime startedAt;
+        private volatile LocalDateTime finishedAt;
+        private volatile LocalDateTime expiresAt;
+        
+        private Job(String id, ReportType type, Long employeeId, String parameters) {
+            this.id = id;
+            this.type = type;
+            this.employeeId = employeeId;
+            this.parameters = parameters;
+        }
+        
+        private synchronized void finish(Status finalStatus, String failure) {
+            finishedAt = LocalDateTime.now();
+            expiresAt = finishedAt.plusSeconds(resultTtlSeconds);
+            error = failure;
+            status = finalStatus;
+        }
+        
+        private boolean isFinished() {
+            return status == Status.COMPLETED || status == Status.FAILED || status == Status.CANCELLED;
+        }
+        
+        private boolean isReusable() {
+            if (status == Status.QUEUED || status == Status.RUNNING) {
+                return !cancelled;
+            }
+            return status == Status.COMPLETED && expiresAt.isAfter(LocalDateTime.now())
+                    && resultFile != null && Files.exists(resultFile);
+        }
+    }
+}
@@ -0,0 +1,281 @@
+package com.krb.backend.service;
+
+import com.krb.backend.dto.TimeSeriesPoint;
+import com.krb.backend.entity.Account;
+import com.krb.backend.entity.AccountDailyRollup;
+import com.krb.backend.entity.CustomerDailyRollup;
+import com.krb.backend.repository.AccountDailyRollupRepository;
+import com.krb.backend.repository.CustomerDailyRollupRepository;
+import com.krb.backend.repository.EmployeeRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Daily rollups behind the growth time series. Account and customer writes add their deltas to
+ * the day's row in the same transaction as the change, so the series are exact as of the last
+ * commit and a ranged read touches at most one row per day and key instead of scanning created_at.
+ */
+@Service
+public class RollupService {
+    
+    private static final Logger log = LoggerFactory.getLogger(RollupService.class);
+    
+    public enum Granularity {
+        DAY, MONTH
+    }
+    
+    @Autowired
+    private AccountDailyRollupRepository accountRollupRepository;
+    
+    @Autowired
+    private CustomerDailyRollupRepository customerRollupRepository;
+    
+    @Autowired
+    private EmployeeRepository employeeRepository;
+    
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    
+    @Value("${krb.rollups.enabled:true}")
+    private boolean enabled;
+    
+    @Value("${krb.rollups.backfill-on-startup:true}")
+    private boolean backfillOnStartup;
+    
+    @Value("${krb.rollups.max-range-days:1096}")
+    private long maxRangeDays;
+    
+    private final AtomicBoolean backfilling = new AtomicBoolean();
+    
+    private final LongAdder increments = new LongAdder();
+    
+    private volatile LocalDate precreatedThrough;
+    
+    private volatile LocalDateTime lastBackfillAt;
+    
+    private volatile int lastBackfillRows;
+    
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordAccountOpened(Account account) {
+        addAccountDelta(account.getCreatedAt().toLocalDate(), account.getAccountType(), account.getStatus(),
+                1, 1, account.getBalance());
+    }
+    
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordAccountStatusChanged(Account account, Account.AccountStatus previousStatus) {
+        if (previousStatus == account.getStatus()) {
+            return;
+        }
+        LocalDate today = LocalDate.now();
+        addAccountDelta(today, account.getAccountType(), previousStatus, 0, -1, account.getBalance().negate());
+        addAccountDelta(today, account.getAccountType(), account.getStatus(), 0, 1, account.getBalance());
+    }
+    
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordAccountBalanceChanged(Account account, BigDecimal previousBalance) {
+        BigDecimal delta = account.getBalance().subtract(previousBalance);
+        if (delta.signum() != 0) {
+            addAccountDelta(LocalDate.now(), account.getAccountType(), account.getStatus(), 0, 0, delta);
+        }
+    }
+    
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordAccountDeleted(Account account) {
+        addAccountDelta(LocalDate.now(), account.getAccountType(), account.getStatus(), 0, -1,
+                account.getBalance().negate());
+    }
+    
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordCustomerOnboarded(LocalDateTime createdAt, Long employeeId) {
+        if (!enabled || employeeId == null) {
+            return;
+        }
+        customerRollupRepository.increment(createdAt.toLocalDate(), employeeId, 1);
+        increments.increment();
+    }
+    
+    @Transactional(readOnly = true)
+    public List<TimeSeriesPoint> getAccountsOpened(LocalDate from, LocalDate to, Account.AccountType accountType) {
+        checkRange(from, to);
+        List<TimeSeriesPoint> points = new ArrayList<>();
+        for (Object[] row : accountRollupRepository.sumOpenedByDayAndType(from, to, accountType)) {
+            points.add(new TimeSeriesPoint((LocalDate) row[0], row[1].toString(), ((Number) row[2]).longValue()));
+        }
+        return points;
+    }
+    
+    // The balance held in a status is a level, so every day in the range gets a point: the sum of
+    // all deltas before the range plus the running total within it.
+    @Transactional(readOnly = true)
+    public List<TimeSeriesPoint> getBalanceByDay(LocalDate from, LocalDate to, Account.AccountStatus status,
+                                                 Account.AccountType accountType) {
+        checkRange(from, to);
+        BigDecimal running = accountRollupRepository.sumNetBalanceBefore(from, status, accountType);
+        Map<LocalDate, BigDecimal> deltas = new HashMap<>();
+        for (Object[] row : accountRollupRepository.sumNetBalanceByDay(from, to, status, accountType)) {
+            deltas.put((LocalDate) row[0], (BigDecimal) row[1]);
+        }
+        String series = accountType == null ? status.name() : status + "/" + accountType;
+        List<TimeSeriesPoint> points = new ArrayList<>();
+        for (LocalDate day = from; !day.isAfter(to); day = day.plusDays(1)) {
+            running = running.add(deltas.getOrDefault(day, BigDecimal.ZERO));
+            points.add(new TimeSeriesPoint(day, series, running));
+        }
+        return points;
+    }
+    
+    @Transactional(readOnly = true)
+    public List<TimeSeriesPoint> getCustomersOnboarded(LocalDate from, LocalDate to, Long employeeId,
+                                                       Granularity granularity) {
+        checkRange(from, to);
+        Map<List<Object>, Long> totals = new LinkedHashMap<>();
+        for (CustomerDailyRollup row : customerRollupRepository.findInRange(from, to, employeeId)) {
+            LocalDate period = granularity == Granularity.MONTH ? row.getDay().withDayOfMonth(1) : row.getDay();
+            totals.merge(List.of(period, row.getEmployeeId()), row.getOnboarded(), Long::sum);
+        }
+        List<TimeSeriesPoint> points = new ArrayList<>();
+        totals.forEach((key, onboarded) ->
+                points.add(new TimeSeriesPoint((LocalDate) key.get(0), key.get(1).toString(), onboarded)));
+        return points;
+    }
+    
+    // Existing databases get their rollups once; after that they are kept up by the write path.
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillIfEmpty() {
+        if (enabled && backfillOnStartup && accountRollupRepository.count() == 0
+                && customerRollupRepository.count() == 0) {
+            backfill();
+        }
+        precreateRows();
+    }
+    
+    // The write path upserts, so the first write of a day for a key would insert the row; creating
+    // today's and tomorrow's rows ahead keeps concurrent first writes from racing on that insert.
+    @Scheduled(cron = "${krb.rollups.precreate-cron:0 0 23 * * *}")
+    public void precreateRows() {
+        if (!enabled) {
+            return;
+        }
+        LocalDate today = LocalDate.now();
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            List<Long> employeeIds = employeeRepository.findAllIds();
+            for (LocalDate day = today; !day.isAfter(today.plusDays(1)); day = day.plusDays(1)) {
+                for (Account.AccountType accountType : Account.AccountType.values()) {
+                    for (Account.AccountStatus accountStatus : Account.AccountStatus.values()) {
+                        accountRollupRepository.increment(day, accountType.name(), accountStatus.name(),
+                                0, 0, BigDecimal.ZERO);
+                    }
+                }
+                for (Long employeeId : employeeIds) {
+                    customerRollupRepository.increment(day, employeeId, 0);
+                }
+            }
+        });
+        precreatedThrough = today.plusDays(1);
+    }
+    
+    /**
+     * Rebuilds both rollup tables from the current accounts, archived accounts and customers in one
+     * transaction. Only current state is known, so every account counts towards the day it opened
+     * in its present status and balance; history recorded since the last backfill is replaced.
+     * Writes that commit while it runs can be lost, so run it when the system is quiet.
+     */
+    public int backfill() {
+        if (!backfilling.compareAndSet(false, true)) {
+            return 0;
+        }
+        try {
+            Integer rows = new TransactionTemplate(transactionManager).execute(status -> rebuild());
+            lastBackfillRows = rows == null ? 0 : rows;
+            lastBackfillAt = LocalDateTime.now();
+            log.info("Rollup backfill wrote {} rows", lastBackfillRows);
+            return lastBackfillRows;
+        } finally {
+            backfilling.set(false);
+        }
+    }
+    
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", enabled);
+        stats.put("accountRows", accountRollupRepository.count());
+        stats.put("customerRows", customerRollupRepository.count());
+        stats.put("increments", increments.sum());
+        stats.put("precreatedThrough", precreatedThrough);
+        stats.put("backfilling", backfilling.get());
+        stats.put("lastBackfillAt", lastBackfillAt);
+        stats.put("lastBackfillRows", lastBackfillRows);
+        return stats;
+    }
+    
+    private void addAccountDelta(LocalDate day, Account.AccountType accountType, Account.AccountStatus status,
+                                 long opened, long netCount, BigDecimal netBalance) {
+        if (!enabled) {
+            return;
+        }
+        BigDecimal balance = netBalance == null ? BigDecimal.ZERO : netBalance;
+        accountRollupRepository.increment(day, accountType.name(), status.name(), opened, netCount, balance);
+        increments.increment();
+    }
+    
+    private int rebuild() {
+        accountRollupRepository.deleteAllRollups();
+        customerRollupRepository.deleteAllRollups();
+        
+        Map<List<Object>, AccountDailyRollup> accountRows = new LinkedHashMap<>();
+        List<Object[]> sources = new ArrayList<>(accountRollupRepository.aggregateAccountsByCreatedDay());
+        sources.addAll(accountRollupRepository.aggregateArchivedAccountsByCreatedDay());
+        for (Object[] row : sources) {
+            LocalDate day = (LocalDate) row[0];
+            Account.AccountType accountType = (Account.AccountType) row[1];
+            Account.AccountStatus status = (Account.AccountStatus) row[2];
+            long count = ((Number) row[3]).longValue();
+            BigDecimal balance = row[4] == null ? BigDecimal.ZERO : (BigDecimal) row[4];
+            AccountDailyRollup rollup = accountRows.computeIfAbsent(List.of(day, accountType, status),
+                    key -> new AccountDailyRollup(day, accountType, status));
+            rollup.setOpened(rollup.getOpened() + count);
+            rollup.setNetCount(rollup.getNetCount() + count);
+            rollup.setNetBalance(rollup.getNetBalance().add(balance));
+        }
+        accountRollupRepository.saveAll(accountRows.values());
+        
+        List<CustomerDailyRollup> customerRows = new ArrayList<>();
+        for (Object[] row : customerRollupRepository.aggregateCustomersByCreatedDay()) {
+            CustomerDailyRollup rollup = new CustomerDailyRollup((LocalDate) row[0], (Long) row[1]);
+            rollup.setOnboarded(((Number) row[2]).longValue());
+            customerRows.add(rollup);
+        }
+        customerRollupRepository.saveAll(customerRows);
+        return accountRows.size() + customerRows.size();
+    }
+    
+    private void checkRange(LocalDate from, LocalDate to) {
+        if (from.isAfter(to)) {
+            throw new RuntimeException("from must not be after to");
+        }
+        if (ChronoUnit.DAYS.between(from, to) >= maxRangeDays) {
+            throw new RuntimeException("Range is limited to " + maxRangeDays + " days");
+        }
+    }
+}
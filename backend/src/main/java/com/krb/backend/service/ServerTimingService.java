@@ -0,0 +1,129 @@
+package com.krb.backend.service;
+
+import com.krb.backend.util.LatencyHistogram;
+import com.krb.backend.util.RequestTiming;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.util.AntPathMatcher;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Aggregates the per-request phase breakdown into one histogram per route and phase, plus one for
+ * the whole request, and formats the Server-Timing header for requests that asked for it. Routes
+ * are the matched handler pattern ("GET /api/accounts/{id}"), so the map stays as small as the API.
+ */
+@Service
+public class ServerTimingService {
+    
+    public static final String REQUEST_HEADER = "X-Server-Timing";
+    
+    public enum Exposure { OFF, ON_REQUEST, ALWAYS }
+    
+    private static final AntPathMatcher PATH_MATCHER = new AntPathMatcher();
+    
+    private static final RequestTiming.Phase[] PHASES = RequestTiming.Phase.values();
+    
+    @Value("${krb.server-timing.enabled:true}")
+    private boolean enabled;
+    
+    @Value("${krb.server-timing.header:on-request}")
+    private String header;
+    
+    @Value("${krb.server-timing.excluded-paths:/api/events/stream,/api/reports/*/download}")
+    private List<String> excludedPaths;
+    
+    private final Map<String, LatencyHistogram[]> histograms = new ConcurrentHashMap<>();
+    
+    private volatile LocalDateTime since = LocalDateTime.now();
+    
+    public boolean isTimed(String path) {
+        if (!enabled || !path.startsWith("/api/")) {
+            return false;
+        }
+        for (String pattern : excludedPaths) {
+            if (PATH_MATCHER.match(pattern, path)) {
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    public Exposure getExposure() {
+        return Exposure.valueOf(header.trim().toUpperCase(Locale.ROOT).replace('-', '_'));
+    }
+    
+    public boolean shouldExpose(String requestHeader) {
+        return switch (getExposure()) {
+            case OFF -> false;
+            case ON_REQUEST -> requestHeader != null && !"0".equals(requestHeader.trim())
+                    && !"false".equalsIgnoreCase(requestHeader.trim());
+            case ALWAYS -> true;
+        };
+    }
+    
+    public void record(String route, RequestTiming timing) {
+        LatencyHistogram[] routeHistograms = histograms.computeIfAbsent(route, key -> newHistograms());
+        for (RequestTiming.Phase phase : PHASES) {
+            routeHistograms[phase.ordinal()].record(timing.getNanos(phase));
+        }
+        routeHistograms[PHASES.length].record(timing.getTotalNanos());
+    }
+    
+    // Server-Timing durations are milliseconds; desc is a quoted-string, which the fixed phase
+    // descriptions never need to escape.
+    public String formatHeader(RequestTiming timing) {
+        StringBuilder value = new StringBuilder();
+        for (RequestTiming.Phase phase : PHASES) {
+            appendMetric(value, phase.getMetricName(), timing.getNanos(phase), phase.getDescription());
+        }
+        appendMetric(value, "total", timing.getTotalNanos(), "Total");
+        return value.toString();
+    }
+    
+    public Map<String, Object> getStats() {
+        Map<String, Object> routes = new TreeMap<>();
+        histograms.forEach((route, routeHistograms) -> {
+            Map<String, Object> phases = new LinkedHashMap<>();
+            phases.put("total", routeHistograms[PHASES.length].summary());
+            for (RequestTiming.Phase phase : PHASES) {
+                phases.put(phase.getMetricName(), routeHistograms[phase.ordinal()].summary());
+            }
+            routes.put(route, phases);
+        });
+        
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", enabled);
+        stats.put("header", getExposure());
+        stats.put("excludedPaths", excludedPaths);
+        stats.put("since", since);
+        stats.put("routes", routes);
+        return stats;
+    }
+    
+    public void reset() {
+        histograms.clear();
+        since = LocalDateTime.now();
+    }
+    
+    private static LatencyHistogram[] newHistograms() {
+        LatencyHistogram[] routeHistograms = new LatencyHistogram[PHASES.length + 1];
+        for (int i = 0; i < routeHistograms.length; i++) {
+            routeHistograms[i] = new LatencyHistogram();
+        }
+        return routeHistograms;
+    }
+    
+    private static void appendMetric(StringBuilder value, String name, long nanos, String description) {
+        if (value.length() > 0) {
+            value.append(", ");
+        }
+        value.append(name).append(";dur=").append(String.format(Locale.ROOT, "%.2f", nanos / 1e6))
+                .append(";desc=\"").append(description).append('"');
+    }
+}
@@ -0,0 +1,309 @@
+package com.krb.backend.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.krb.backend.dto.SlowQuery;
+import com.krb.backend.util.JdbcTimingProxy;
+import com.krb.backend.util.MpscRingBuffer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import java.io.InputStream;
+import java.io.Reader;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Keeps the statements that ran longer than the threshold: the worst ones seen since the last
+ * reset and the most recent ones, each bounded, with bind values and the repository and service
+ * methods that issued them. Each slow statement is also logged as one JSON line under the
+ * krb.slow-query logger by a background thread, so the JDBC thread never waits on the appender.
+ */
+@Service
+public class SlowQueryService implements JdbcTimingProxy.StatementListener {
+    
+    private static final Logger log = LoggerFactory.getLogger(SlowQueryService.class);
+    
+    private static final Logger slowQueryLog = LoggerFactory.getLogger("krb.slow-query");
+    
+    private static final ThreadLocal<String> REPOSITORY_METHOD = new ThreadLocal<>();
+    
+    private static final Pattern INSERT = Pattern.compile(
+            "^\\s*insert\\s+into\\s+\\S+\\s*\\(([^)]*)\\)\\s*values\\s*\\((.*)\\)\\s*$", Pattern.DOTALL);
+    
+    // The column a placeholder is compared with or assigned to: "c1_0.ssn=?", "ssn in (?,?", "set password=?".
+    private static final Pattern COMPARED_COLUMN = Pattern.compile(
+            "(?:[a-z0-9_]+\\.)?([a-z_][a-z0-9_]*)\\s*(?:=|<>|!=|<=|>=|<|>|\\s+like|\\s+in\\s*\\((?:\\s*\\?\\s*,)*)\\s*$");
+    
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(20);
+    
+    private static final int MAX_VALUE_LENGTH = 100;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    @Value("${krb.slow-query.threshold-ms:200}")
+    private long thresholdMs;
+    
+    @Value("${krb.slow-query.worst-entries:50}")
+    private int worstEntries;
+    
+    @Value("${krb.slow-query.recent-entries:100}")
+    private int recentEntries;
+    
+    @Value("${krb.slow-query.log-buffer:1024}")
+    private int logBuffer;
+    
+    @Value("${krb.slow-query.masked-columns:ssn,password}")
+    private List<String> maskedColumns;
+    
+    private long thresholdNanos;
+    
+    private Set<String> masked;
+    
+    private List<Pattern> maskedMentions;
+    
+    private final PriorityQueue<SlowQuery> worst = new PriorityQueue<>(Comparator.comparingDouble(SlowQuery::getElapsedMs));
+    
+    private final Deque<SlowQuery> recent = new ArrayDeque<>();
+    
+    private MpscRingBuffer<SlowQuery> pendingLog;
+    
+    private final LongAdder statements = new LongAdder();
+    
+    private final LongAdder slowStatements = new LongAdder();
+    
+    private final LongAdder droppedLogLines = new LongAdder();
+    
+    private volatile boolean running;
+    
+    private Thread logWriter;
+    
+    @PostConstruct
+    public void init() {
+        thresholdNanos = TimeUnit.MILLISECONDS.toNanos(thresholdMs);
+        masked = new HashSet<>();
+        maskedMentions = new ArrayList<>();
+        for (String column : maskedColumns) {
+            String name = column.trim().toLowerCase(Locale.ROOT);
+            masked.add(name);
+            maskedMentions.add(Pattern.compile("\\b" + Pattern.quote(name) + "\\b"));
+        }
+        pendingLog = new MpscRingBuffer<>(logBuffer);
+        running = true;
+        logWriter = new Thread(this::runLogWriter, "slow-query-log");
+        logWriter.setDaemon(true);
+        logWriter.start();
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        running = false;
+        LockSupport.unpark(logWriter);
+    }
+    
+    public static String enterRepository(String method) {
+        String previous = REPOSITORY_METHOD.get();
+        REPOSITORY_METHOD.set(method);
+        return previous;
+    }
+    
+    public static void exitRepository(String previous) {
+        if (previous == null) {
+            REPOSITORY_METHOD.remove();
+        } else {
+            REPOSITORY_METHOD.set(previous);
+        }
+    }
+    
+    @Override
+    public void onStatement(JdbcTimingProxy.StatementExecution execution) {
+        statements.increment();
+        if (execution.getTotalNanos() < thresholdNanos) {
+            return;
+        }
+        slowStatements.increment();
+        
+        SlowQuery query = new SlowQuery();
+        query.setRecordedAt(LocalDateTime.now());
+        query.setElapsedMs(toMillis(execution.getTotalNanos()));
+        query.setExecuteMs(toMillis(execution.getExecuteNanos()));
+        query.setFetchMs(toMillis(execution.getFetchNanos()));
+        query.setRows(execution.getRows());
+        query.setBatchSize(execution.getBatchSize());
+        query.setSql(execution.getSql());
+        query.setParameters(describeParameters(execution.getSql(), execution.getParameters()));
+        query.setRepositoryMethod(REPOSITORY_METHOD.get());
+        query.setServiceMethod(callingServiceMethod());
+        query.setThread(Thread.currentThread().getName());
+        
+        synchronized (this) {
+            worst.add(query);
+            if (worst.size() > worstEntries) {
+                worst.poll();
+            }
+            recent.addFirst(query);
+            if (recent.size() > recentEntries) {
+                recent.removeLast();
+            }
+        }
+        if (!pendingLog.offer(query)) {
+            droppedLogLines.increment();
+        }
+    }
+    
+    public synchronized List<SlowQuery> getWorst(int limit) {
+        List<SlowQuery> sorted = new ArrayList<>(worst);
+        sorted.sort(Comparator.comparingDouble(SlowQuery::getElapsedMs).reversed());
+        return sorted.subList(0, Math.min(limit, sorted.size()));
+    }
+    
+    public synchronized List<SlowQuery> getRecent(int limit) {
+        List<SlowQuery> latest = new ArrayList<>(Math.min(limit, recent.size()));
+        Iterator<SlowQuery> iterator = recent.iterator();
+        while (iterator.hasNext() && latest.size() < limit) {
+            latest.add(iterator.next());
+        }
+        return latest;
+    }
+    
+    public synchronized void reset() {
+        worst.clear();
+        recent.clear();
+    }
+    
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("thresholdMs", thresholdMs);
+        stats.put("statements", statements.sum());
+        stats.put("slowStatements", slowStatements.sum());
+        stats.put("droppedLogLines", droppedLogLines.sum());
+        synchronized (this) {
+            stats.put("worstKept", worst.size());
+            stats.put("recentKept", recent.size());
+            stats.put("slowestMs", worst.stream().mapToDouble(SlowQuery::getElapsedMs).max().orElse(0));
+        }
+        return stats;
+    }
+    
+    /**
+     * Formats bind values in parameter order. A value is masked when its placeholder is assigned
+     * to or compared with a masked column, or when the statement mentions a masked column and the
+     * placeholder cannot be tied to any column (for example inside a function call).
+     */
+    private List<String> describeParameters(String sql, Map<Integer, Object> parameters) {
+        if (parameters.isEmpty()) {
+            return List.of();
+        }
+        String lower = sql == null ? "" : sql.toLowerCase(Locale.ROOT);
+        List<String> columns = placeholderColumns(lower);
+        boolean mentionsMasked = maskedMentions.stream().anyMatch(mention -> mention.matcher(lower).find());
+        List<String> described = new ArrayList<>(parameters.size());
+        for (Map.Entry<Integer, Object> parameter : parameters.entrySet()) {
+            int position = parameter.getKey() - 1;
+            String column = position < columns.size() ? columns.get(position) : null;
+            boolean hide = column != null ? masked.contains(column) : mentionsMasked;
+            described.add(hide ? "****" : format(parameter.getValue()));
+        }
+        return described;
+    }
+    
+    private List<String> placeholderColumns(String sql) {
+        List<String> columns = new ArrayList<>();
+        Matcher insert = INSERT.matcher(sql);
+        if (insert.matches()) {
+            String[] names = insert.group(1).split(",");
+            String[] values = insert.group(2).split(",");
+            for (int i = 0; i < values.length; i++) {
+                if (values[i].trim().equals("?")) {
+                    columns.add(i < names.length ? names[i].trim() : null);
+                }
+            }
+            return columns;
+        }
+        for (int i = sql.indexOf('?'); i >= 0; i = sql.indexOf('?', i + 1)) {
+            Matcher compared = COMPARED_COLUMN.matcher(sql.substring(Math.max(0, i - 200), i));
+            columns.add(compared.find() ? compared.group(1) : null);
+        }
+        return columns;
+    }
+    
+    // The innermost application frame outside the JDBC and recorder plumbing, skipping Spring's
+    // generated proxy subclasses.
+    private static String callingServiceMethod() {
+        return StackWalker.getInstance().walk(frames -> frames
+                .filter(frame -> frame.getClassName().startsWith("com.krb.backend.service.")
+                        || frame.getClassName().startsWith("com.krb.backend.config.")
+                        || frame.getClassName().startsWith("com.krb.backend.controller."))
+                .filter(frame -> !frame.getClassName().contains("$$")
+                        && !frame.getClassName().equals(SlowQueryService.class.getName())
+                        && !frame.getClassName().startsWith("com.krb.backend.config.SlowQueryConfig"))
+                .findFirst()
+                .map(frame -> frame.getClassName().substring(frame.getClassName().lastIndexOf('.') + 1)
+                        + "." + frame.getMethodName())
+                .orElse(null));
+    }
+    
+    private static String format(Object value) {
+        if (value == null) {
+            return "NULL";
+        }
+        if (value instanceof byte[] bytes) {
+            return "<" + bytes.length + " bytes>";
+        }
+        if (value instanceof Reader || value instanceof InputStream) {
+            return "<stream>";
+        }
+        String text = value.toString();
+        if (text.length() > MAX_VALUE_LENGTH) {
+            text = text.substring(0, MAX_VALUE_LENGTH) + "...";
+        }
+        return value instanceof CharSequence ? "'" + text + "'" : text;
+    }
+    
+    private static double toMillis(long nanos) {
+        return Math.round(nanos / 10_000.0) / 100.0;
+    }
+    
+    private void runLogWriter() {
+        List<SlowQuery> batch = new ArrayList<>();
+        while (true) {
+            boolean stopping = !running;
+            batch.clear();
+            pendingLog.drainTo(batch, 256);
+            for (SlowQuery query : batch) {
+                try {
+                    slowQueryLog.warn(objectMapper.writeValueAsString(query));
+                } catch (JsonProcessingException e) {
+                    log.debug("Could not serialise slow query: {}", e.getMessage());
+                }
+            }
+            if (batch.isEmpty()) {
+                if (stopping) {
+                    break;
+                }
+                LockSupport.parkNanos(IDLE_PARK_NANOS);
+            }
+        }
+    }
+}
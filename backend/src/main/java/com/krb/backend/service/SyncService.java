@@ -0,0 +1,79 @@
+package com.krb.backend.service;
+
+import com.krb.backend.dto.SyncResponse;
+import com.krb.backend.entity.Tombstone;
+import com.krb.backend.repository.TombstoneRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+@Service
+@Transactional(readOnly = true)
+public class SyncService {
+    
+    @Autowired
+    private AccountService accountService;
+    
+    @Autowired
+    private CustomerService customerService;
+    
+    @Autowired
+    private EmployeeService employeeService;
+    
+    @Autowired
+    private TombstoneRepository tombstoneRepository;
+    
+    // Rows committed by a transaction that started before "until" can become visible after
+    // this read, so each pull re-reads a short window behind the cursor. Clients upsert by id.
+    @Value("${krb.sync.overlap-ms:2000}")
+    private long overlapMs;
+    
+    @Value("${krb.sync.tombstone-retention-days:30}")
+    private int tombstoneRetentionDays;
+    
+    public SyncResponse getChangesSince(Long sinceCursor) {
+        LocalDateTime until = LocalDateTime.now();
+        SyncResponse response = new SyncResponse();
+        response.setCursor(toCursor(until));
+        
+        LocalDateTime retentionHorizon = until.minusDays(tombstoneRetentionDays);
+        if (sinceCursor == null || sinceCursor <= 0 || fromCursor(sinceCursor).isBefore(retentionHorizon)) {
+            response.setFullResync(true);
+            return response;
+        }
+        
+        LocalDateTime since = fromCursor(sinceCursor - overlapMs);
+        response.setAccounts(accountService.getAccountsUpdatedBetween(since, until));
+        response.setCustomers(customerService.getCustomersUpdatedBetween(since, until));
+        response.setEmployees(employeeService.getEmployeesUpdatedBetween(since, until));
+        
+        for (Tombstone tombstone : tombstoneRepository.findDeletedBetween(since, until)) {
+            switch (tombstone.getEntityType()) {
+                case ACCOUNT -> response.getDeletedAccountIds().add(tombstone.getEntityId());
+                case CUSTOMER -> response.getDeletedCustomerIds().add(tombstone.getEntityId());
+                case EMPLOYEE -> response.getDeletedEmployeeIds().add(tombstone.getEntityId());
+            }
+        }
+        
+        return response;
+    }
+    
+    @Scheduled(cron = "${krb.sync.tombstone-purge-cron:0 30 2 * * *}")
+    @Transactional
+    public void purgeExpiredTombstones() {
+        tombstoneRepository.deleteOlderThan(LocalDateTime.now().minusDays(tombstoneRetentionDays));
+    }
+    
+    private static long toCursor(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+    
+    private static LocalDateTime fromCursor(long cursor) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(cursor), ZoneId.systemDefault());
+    }
+}
@@ -0,0 +1,381 @@
+package com.krb.backend.service;
+
+import com.krb.backend.dto.AccountDto;
+import com.krb.backend.dto.ChangeEvent;
+import com.krb.backend.dto.CustomerDto;
+import com.krb.backend.dto.TypeaheadSuggestion;
+import com.krb.backend.entity.Account;
+import com.krb.backend.entity.Tombstone;
+import com.krb.backend.repository.AccountRepository;
+import com.krb.backend.repository.CustomerRepository;
+import com.krb.backend.util.PrefixIndex;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import java.text.Normalizer;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+@Service
+public class TypeaheadService {
+    
+    public enum Field {
+        FIRST_NAME, LAST_NAME, FULL_NAME, EMAIL, ACCOUNT_NUMBER
+    }
+    
+    private static final Field[] FIELDS = Field.values();
+    
+    private static final Pattern COMBINING_MARKS = Pattern.compile("\\p{M}+");
+    
+    private static final Pattern CONTROL_CHARACTERS = Pattern.compile("\\p{Cntrl}+");
+    
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+    
+    private static final Pattern ACCOUNT_NUMBER_SEPARATORS = Pattern.compile("[\\s-]+");
+    
+    @Autowired
+    private CustomerRepository customerRepository;
+    
+    @Autowired
+    private AccountRepository accountRepository;
+    
+    @Value("${krb.typeahead.default-limit:10}")
+    private int defaultLimit;
+    
+    @Value("${krb.typeahead.max-limit:50}")
+    private int maxLimit;
+    
+    @Value("${krb.typeahead.min-compaction-entries:4096}")
+    private int minCompactionEntries;
+    
+    private PrefixIndex customerIndex;
+    
+    private PrefixIndex accountIndex;
+    
+    private final ConcurrentHashMap<Long, CustomerRecord> customers = new ConcurrentHashMap<>();
+    
+    private final ConcurrentHashMap<Long, AccountRecord> accounts = new ConcurrentHashMap<>();
+    
+    private volatile Set<Long> customersTouchedDuringRebuild;
+    
+    private volatile Set<Long> accountsTouchedDuringRebuild;
+    
+    private volatile LocalDateTime lastRebuildAt;
+    
+    private volatile long lastRebuildMs;
+    
+    private final LongAdder searches = new LongAdder();
+    
+    private final LongAdder searchNanos = new LongAdder();
+    
+    @PostConstruct
+    public void init() {
+        customerIndex = new PrefixIndex(minCompactionEntries);
+        accountIndex = new PrefixIndex(minCompactionEntries);
+    }
+    
+    public List<TypeaheadSuggestion> suggest(String term, Integer limit, Set<Tombstone.EntityType> types) {
+        long started = System.nanoTime();
+        int k = Math.max(1, Math.min(limit != null ? limit : defaultLimit, maxLimit));
+        List<Candidate> candidates = new ArrayList<>();
+        
+        if (types.contains(Tombstone.EntityType.CUSTOMER)) {
+            for (PrefixIndex.Entry entry : customerIndex.search(normalize(term), k, this::isCurrentCustomerKey)) {
+                CustomerRecord customer = customers.get(entry.getId());
+                if (customer != null) {
+                    candidates.add(new Candidate(entry.getKey(), new TypeaheadSuggestion(Tombstone.EntityType.CUSTOMER,
+                            customer.id, customer.id, FIELDS[entry.getTag()].name(), customer.label())));
+                }
+            }
+        }
+        if (types.contains(Tombstone.EntityType.ACCOUNT)) {
+            for (PrefixIndex.Entry entry : accountIndex.search(normalizeAccountNumber(term), k, this::isCurrentAccountKey)) {
+                AccountRecord account = accounts.get(entry.getId());
+                if (account != null) {
+                    candidates.add(new Candidate(entry.getKey(), new TypeaheadSuggestion(Tombstone.EntityType.ACCOUNT,
+                            account.id, account.customerId, Field.ACCOUNT_NUMBER.name(),
+                            account.label(customers.get(account.customerId)))));
+                }
+            }
+        }
+        
+        candidates.sort(Comparator.comparingInt((Candidate candidate) -> candidate.key.length())
+                .thenComparing(candidate -> candidate.key));
+        List<TypeaheadSuggestion> suggestions = new ArrayList<>(Math.min(k, candidates.size()));
+        for (int i = 0; i < candidates.size() && i < k; i++) {
+            suggestions.add(candidates.get(i).suggestion);
+        }
+        searches.increment();
+        searchNanos.add(System.nanoTime() - started);
+        return suggestions;
+    }
+    
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public synchronized void onChange(ChangeEvent event) {
+        switch (event.getType()) {
+            case CUSTOMER_CREATED, CUSTOMER_UPDATED -> {
+                if (event.getData() instanceof CustomerDto customer) {
+                    putCustomer(new CustomerRecord(customer.getId(), customer.getFirstName(), customer.getLastName(),
+                            customer.getEmail()));
+                }
+            }
+            case CUSTOMER_DELETED -> removeCustomer(event.getEntityId());
+            case ACCOUNT_CREATED -> {
+                if (event.getData() instanceof AccountDto account) {
+                    putAccount(new AccountRecord(account.getId(), account.getAccountNumber(), account.getAccountType(),
+                            account.getCustomerId()));
+                }
+            }
+            case ACCOUNT_DELETED -> removeAccount(event.getEntityId());
+            case ACCOUNTS_ARCHIVED -> removeAccounts(event.archivedAccountIds());
+            default -> { }
+        }
+    }
+    
+    public synchronized void removeAccounts(Collection<Long> accountIds) {
+        accountIds.forEach(this::removeAccount);
+    }
+    
+    // Changes that commit while the tables are being scanned are applied to both the live records
+    // and the index overlay, and win over whatever the scan read for the same row. Index entries
+    // that still go stale are harmless: every hit is checked against its record before it is
+    // returned.
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${krb.typeahead.rebuild-cron:0 30 4 * * *}")
+    @Transactional(readOnly = true)
+    public void rebuildAll() {
+        long started = System.nanoTime();
+        Set<Long> touchedCustomers = ConcurrentHashMap.newKeySet();
+        Set<Long> touchedAccounts = ConcurrentHashMap.newKeySet();
+        synchronized (this) {
+            customersTouchedDuringRebuild = touchedCustomers;
+            accountsTouchedDuringRebuild = touchedAccounts;
+        }
+        
+        Map<Long, CustomerRecord> scannedCustomers = new HashMap<>();
+        List<PrefixIndex.Entry> customerEntries = new ArrayList<>();
+        try (Stream<Object[]> rows = customerRepository.streamTypeaheadFields()) {
+            rows.forEach(row -> {
+                CustomerRecord customer = new CustomerRecord((Long) row[0], (String) row[1], (String) row[2],
+                        (String) row[3]);
+                scannedCustomers.put(customer.id, customer);
+                customer.forEachKey((field, key) -> customerEntries.add(new PrefixIndex.Entry(key, customer.id,
+                        (byte) field.ordinal())));
+            });
+        }
+        
+        Map<Long, AccountRecord> scannedAccounts = new HashMap<>();
+        List<PrefixIndex.Entry> accountEntries = new ArrayList<>();
+        try (Stream<Object[]> rows = accountRepository.streamTypeaheadFields()) {
+            rows.forEach(row -> {
+                AccountRecord account = new AccountRecord((Long) row[0], (String) row[1],
+                        (Account.AccountType) row[2], (Long) row[3]);
+                scannedAccounts.put(account.id, account);
+                accountEntries.add(new PrefixIndex.Entry(account.key, account.id, (byte) Field.ACCOUNT_NUMBER.ordinal()));
+            });
+        }
+        
+        synchronized (this) {
+            scannedCustomers.forEach((id, customer) -> {
+                if (!touchedCustomers.contains(id)) {
+                    customers.put(id, customer);
+                }
+            });
+            customers.keySet().removeIf(id -> !scannedCustomers.containsKey(id) && !touchedCustomers.contains(id));
+            scannedAccounts.forEach((id, account) -> {
+                if (!touchedAccounts.contains(id)) {
+                    accounts.put(id, account);
+                }
+            });
+            accounts.keySet().removeIf(id -> !scannedAccounts.containsKey(id) && !touchedAccounts.contains(id));
+            customersTouchedDuringRebuild = null;
+            accountsTouchedDuringRebuild = null;
+        }
+        customerIndex.rebuild(customerEntries);
+        accountIndex.rebuild(accountEntries);
+        
+        lastRebuildAt = LocalDateTime.now();
+        lastRebuildMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started);
+    }
+    
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("lastRebuildAt", lastRebuildAt);
+        stats.put("lastRebuildMs", lastRebuildMs);
+        stats.put("customers", customers.size());
+        stats.put("accounts", accounts.size());
+        stats.put("customerIndex", indexStats(customerIndex));
+        stats.put("accountIndex", indexStats(accountIndex));
+        long count = searches.sum();
+        stats.put("searches", count);
+        stats.put("avgSearchMicros", count == 0 ? 0.0 : searchNanos.sum() / 1000.0 / count);
+        return stats;
+    }
+    
+    public static String normalize(String value) {
+        if (value == null) {
+            return "";
+        }
+        String folded = COMBINING_MARKS.matcher(Normalizer.normalize(value, Normalizer.Form.NFD)).replaceAll("");
+        folded = CONTROL_CHARACTERS.matcher(folded).replaceAll(" ");
+        return WHITESPACE.matcher(folded.toLowerCase(Locale.ROOT).trim()).replaceAll(" ");
+    }
+    
+    public static String normalizeAccountNumber(String value) {
+        return ACCOUNT_NUMBER_SEPARATORS.matcher(normalize(value)).replaceAll("");
+    }
+    
+    private Map<String, Object> indexStats(PrefixIndex index) {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        int entries = index.size();
+        long bytes = index.getEstimatedBytes();
+        stats.put("entries", entries);
+        stats.put("snapshotEntries", index.getSnapshotSize());
+        stats.put("overlayEntries", index.getOverlaySize());
+        stats.put("compactions", index.getCompactions());
+        stats.put("estimatedBytes", bytes);
+        stats.put("estimatedBytesPerMillionEntries", entries == 0 ? 0 : bytes * 1_000_000L / entries);
+        return stats;
+    }
+    
+    private boolean isCurrentCustomerKey(PrefixIndex.Entry entry) {
+        CustomerRecord customer = customers.get(entry.getId());
+        return customer != null && entry.getKey().equals(customer.keys[entry.getTag()]);
+    }
+    
+    private boolean isCurrentAccountKey(PrefixIndex.Entry entry) {
+        AccountRecord account = accounts.get(entry.getId());
+        return account != null && entry.getKey().equals(account.key);
+    }
+    
+    private void putCustomer(CustomerRecord customer) {
+        markTouched(customersTouchedDuringRebuild, customer.id);
+        CustomerRecord previous = customers.put(customer.id, customer);
+        if (previous != null) {
+            previous.forEachKey((field, key) -> {
+                if (!key.equals(customer.keys[field.ordinal()])) {
+                    customerIndex.remove(key, previous.id, (byte) field.ordinal());
+                }
+            });
+        }
+        customer.forEachKey((field, key) -> customerIndex.add(key, customer.id, (byte) field.ordinal()));
+    }
+    
+    private void removeCustomer(Long customerId) {
+        markTouched(customersTouchedDuringRebuild, customerId);
+        CustomerRecord previous = customers.remove(customerId);
+        if (previous != null) {
+            previous.forEachKey((field, key) -> customerIndex.remove(key, previous.id, (byte) field.ordinal()));
+        }
+    }
+    
+    private void putAccount(AccountRecord account) {
+        markTouched(accountsTouchedDuringRebuild, account.id);
+        accounts.put(account.id, account);
+        accountIndex.add(account.key, account.id, (byte) Field.ACCOUNT_NUMBER.ordinal());
+    }
+    
+    private void removeAccount(Long accountId) {
+        markTouched(accountsTouchedDuringRebuild, accountId);
+        AccountRecord previous = accounts.remove(accountId);
+        if (previous != null) {
+            accountIndex.remove(previous.key, previous.id, (byte) Field.ACCOUNT_NUMBER.ordinal());
+        }
+    }
+    
+    private static void markTouched(Set<Long> touched, Long id) {
+        if (touched != null && id != null) {
+            touched.add(id);
+        }
+    }
+    
+    private interface KeyVisitor {
+        void visit(Field field, String key);
+    }
+    
+    private static final class CustomerRecord {
+        
+        private final long id;
+        private final String firstName;
+        private final String lastName;
+        private final String email;
+        private final String[] keys = new String[FIELDS.length];
+        
+        private CustomerRecord(long id, String firstName, String lastName, String email) {
+            this.id = id;
+            this.firstName = firstName;
+            this.lastName = lastName;
+            this.email = email;
+            keys[Field.FIRST_NAME.ordinal()] = normalize(firstName);
+            keys[Field.LAST_NAME.ordinal()] = normalize(lastName);
+            keys[Field.FULL_NAME.ordinal()] = normalize(firstName + " " + lastName);
+            keys[Field.EMAIL.ordinal()] = normalize(email);
+        }
+        
+        private void forEachKey(KeyVisitor visitor) {
+            for (Field field : FIELDS) {
+                String key = keys[field.ordinal()];
+                if (key != null && !key.isEmpty()) {
+                    visitor.visit(field, key);
+                }
+            }
+        }
+        
+        private String label() {
+            return firstName + " " + lastName + " <" + email + ">";
+        }
+    }
+    
+    private static final class AccountRecord {
+        
+        private final long id;
+        private final String accountNumber;
+        private final Account.AccountType accountType;
+        private final Long customerId;
+        private final String key;
+        
+        private AccountRecord(long id, String accountNumber, Account.AccountType accountType, Long customerId) {
+            this.id = id;
+            this.accountNumber = accountNumber;
+            this.accountType = accountType;
+            this.customerId = customerId;
+            this.key = normalizeAccountNumber(accountNumber);
+        }
+        
+        private String label(CustomerRecord customer) {
+            return accountNumber + " - " + accountType + (customer != null
+                    ? " - " + customer.firstName + " " + customer.lastName : "");
+        }
+    }
+    
+    private static final class Candidate {
+        
+        private final String key;
+        private final TypeaheadSuggestion suggestion;
+        
+        private Candidate(String key, TypeaheadSuggestion suggestion) {
+            this.key = key;
+            this.suggestion = suggestion;
+        }
+    }
+}
@@ -0,0 +1,241 @@
+package com.krb.backend.service;
+
+import com.krb.backend.dto.ChangeEvent;
+import com.krb.backend.dto.CustomerDto;
+import com.krb.backend.dto.EmployeeDto;
+import com.krb.backend.repository.CustomerRepository;
+import com.krb.backend.repository.EmployeeRepository;
+import com.krb.backend.util.BloomFilter;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.util.EnumMap;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+@Service
+public class UniquenessFilterService {
+    
+    private static final Logger log = LoggerFactory.getLogger(UniquenessFilterService.class);
+    
+    private static final String DIGEST_ALGORITHM = "HmacSHA256";
+    
+    public enum Key {
+        CUSTOMER_EMAIL, CUSTOMER_SSN, EMPLOYEE_USERNAME, EMPLOYEE_EMAIL
+    }
+    
+    @Autowired
+    private CustomerRepository customerRepository;
+    
+    @Autowired
+    private EmployeeRepository employeeRepository;
+    
+    @Value("${krb.uniqueness-filter.false-positive-rate:0.01}")
+    private double falsePositiveRate;
+    
+    @Value("${krb.uniqueness-filter.min-capacity:10000}")
+    private long minCapacity;
+    
+    @Value("${krb.uniqueness-filter.digest-key:}")
+    private String digestKey;
+    
+    private SecretKeySpec macKey;
+    
+    private final ThreadLocal<Mac> macs = ThreadLocal.withInitial(this::newMac);
+    
+    private final Map<Key, TrackedFilter> filters = new EnumMap<>(Key.class);
+    
+    public UniquenessFilterService() {
+        for (Key key : Key.values()) {
+            filters.put(key, new TrackedFilter());
+        }
+    }
+    
+    // Without a configured key the digests are only comparable within this process, which is
+    // enough for a single instance because the filter is rebuilt from the database at startup.
+    @PostConstruct
+    public void init() {
+        byte[] key;
+        if (digestKey == null || digestKey.isBlank()) {
+            key = new byte[32];
+            new SecureRandom().nextBytes(key);
+            log.info("No krb.uniqueness-filter.digest-key set; SSN digests use a random per-instance key");
+        } else {
+            key = digestKey.getBytes(StandardCharsets.UTF_8);
+        }
+        macKey = new SecretKeySpec(key, DIGEST_ALGORITHM);
+    }
+    
+    // SSNs are held in the filter, and sent to other nodes through the outbox, only as a keyed
+    // digest, so neither the filter's memory nor the outbox table carries the number itself.
+    public String digest(String value) {
+        if (value == null) {
+            return null;
+        }
+        return HexFormat.of().formatHex(macs.get().doFinal(value.getBytes(StandardCharsets.UTF_8)));
+    }
+    
+    // Definite negatives skip the database; "maybe" answers (and every answer before the first
+    // build) fall through to the real exists query.
+    public boolean exists(Key key, String value, Predicate<String> databaseCheck) {
+        TrackedFilter tracked = filters.get(key);
+        BloomFilter filter = tracked.filter;
+        if (value != null && filter != null && !filter.mightContain(filterValue(key, value))) {
+            tracked.definiteNegatives.increment();
+            return false;
+        }
+        
+        boolean exists = databaseCheck.test(value);
+        if (filter != null) {
+            (exists ? tracked.confirmedPositives : tracked.falsePositives).increment();
+        }
+        return exists;
+    }
+    
+    public void record(Key key, String value) {
+        if (value != null) {
+            recordFilterValue(key, filterValue(key, value));
+        }
+    }
+    
+    // For values that are already in filter form, such as the SSN digest carried by a relayed
+    // outbox event.
+    public void recordDigest(Key key, String digest) {
+        if (digest != null) {
+            recordFilterValue(key, digest);
+        }
+    }
+    
+    private void recordFilterValue(Key key, String value) {
+        TrackedFilter tracked = filters.get(key);
+        tracked.recent.add(value);
+        // The reverse of rebuild's writes (filter, then next = null): a null next read here means
+        // the filter read after it is already the replacement, so the value cannot miss both.
+        BloomFilter next = tracked.next;
+        BloomFilter filter = tracked.filter;
+        if (next != null) {
+            next.add(value);
+        }
+        if (filter != null && filter != next) {
+            filter.add(value);
+        }
+    }
+    
+    // Values written on other nodes arrive through the outbox relay. Local writes were already
+    // recorded before they committed, and recording a value twice is harmless. Relayed customers
+    // carry no SSN; the outbox relay records its digest through recordDigest instead.
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onChange(ChangeEvent event) {
+        switch (event.getType()) {
+            case CUSTOMER_CREATED, CUSTOMER_UPDATED -> {
+                if (event.getData() instanceof CustomerDto customer) {
+                    record(Key.CUSTOMER_EMAIL, customer.getEmail());
+                    record(Key.CUSTOMER_SSN, customer.getSsn());
+                }
+            }
+            case EMPLOYEE_CREATED, EMPLOYEE_UPDATED -> {
+                if (event.getData() instanceof EmployeeDto employee) {
+                    record(Key.EMPLOYEE_USERNAME, employee.getUsername());
+                    record(Key.EMPLOYEE_EMAIL, employee.getEmail());
+                }
+            }
+            default -> { }
+        }
+    }
+    
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${krb.uniqueness-filter.rebuild-cron:0 0 3 * * *}")
+    @Transactional(readOnly = true)
+    public void rebuildAll() {
+        long customers = customerRepository.countCustomers();
+        long employees = employeeRepository.count();
+        rebuild(Key.CUSTOMER_EMAIL, customers, customerRepository.streamAllEmails());
+        rebuild(Key.CUSTOMER_SSN, customers, customerRepository.streamAllSsns().map(this::digest));
+        rebuild(Key.EMPLOYEE_USERNAME, employees, employeeRepository.streamAllUsernames());
+        rebuild(Key.EMPLOYEE_EMAIL, employees, employeeRepository.streamAllEmails());
+    }
+    
+    public Map<String, Map<String, Object>> getStats() {
+        Map<String, Map<String, Object>> stats = new LinkedHashMap<>();
+        filters.forEach((key, tracked) -> {
+            Map<String, Object> entry = new LinkedHashMap<>();
+            BloomFilter filter = tracked.filter;
+            long negatives = tracked.definiteNegatives.sum();
+            long falsePositives = tracked.falsePositives.sum();
+            entry.put("built", filter != null);
+            entry.put("bits", filter != null ? filter.getBitCount() : 0);
+            entry.put("hashFunctions", filter != null ? filter.getHashCount() : 0);
+            entry.put("expectedFalsePositiveRate", filter != null ? filter.getExpectedFalsePositiveRate() : 0.0);
+            entry.put("definiteNegatives", negatives);
+            entry.put("confirmedPositives", tracked.confirmedPositives.sum());
+            entry.put("falsePositives", falsePositives);
+            entry.put("observedFalsePositiveRate",
+                    negatives + falsePositives == 0 ? 0.0 : (double) falsePositives / (negatives + falsePositives));
+            stats.put(key.name(), entry);
+        });
+        return stats;
+    }
+    
+    // A value recorded by a transaction that has not committed yet is invisible to the scan, so
+    // everything recorded since the previous rebuild is replayed into the new filter, and writes
+    // that race with the scan are mirrored into it through "next".
+    private void rebuild(Key key, long currentSize, Stream<String> values) {
+        TrackedFilter tracked = filters.get(key);
+        BloomFilter replacement = new BloomFilter(Math.max(minCapacity, currentSize * 2), falsePositiveRate);
+        tracked.next = replacement;
+        Set<String> recorded = tracked.recent;
+        tracked.recent = ConcurrentHashMap.newKeySet();
+        
+        try (values) {
+            values.forEach(replacement::add);
+        }
+        recorded.forEach(replacement::add);
+        
+        tracked.filter = replacement;
+        tracked.next = null;
+    }
+    
+    private String filterValue(Key key, String value) {
+        return key == Key.CUSTOMER_SSN ? digest(value) : value;
+    }
+    
+    private Mac newMac() {
+        try {
+            Mac mac = Mac.getInstance(DIGEST_ALGORITHM);
+            mac.init(macKey);
+            return mac;
+        } catch (GeneralSecurityException e) {
+            throw new RuntimeException("Could not initialise the SSN digest", e);
+        }
+    }
+    
+    private static final class TrackedFilter {
+        
+        private volatile BloomFilter filter;
+        private volatile BloomFilter next;
+        private volatile Set<String> recent = ConcurrentHashMap.newKeySet();
+        private final LongAdder definiteNegatives = new LongAdder();
+        private final LongAdder confirmedPositives = new LongAdder();
+        private final LongAdder falsePositives = new LongAdder();
+    }
+}
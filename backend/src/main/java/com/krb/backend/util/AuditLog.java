@@ -0,0 +1,332 @@
+package com.krb.backend.util;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.krb.backend.dto.AuditEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+public class AuditLog implements AutoCloseable {
+    
+    private static final Logger log = LoggerFactory.getLogger(AuditLog.class);
+    
+    private static final String SEGMENT_PREFIX = "audit-";
+    private static final String SEGMENT_SUFFIX = ".log";
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+    
+    private final Path directory;
+    private final long segmentBytes;
+    private final int batchSize;
+    private final long fsyncIntervalNanos;
+    private final long offerTimeoutNanos;
+    private final ObjectMapper objectMapper;
+    private final MpscRingBuffer<AuditEvent> buffer;
+    
+    private final LongAdder appended = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final AtomicLong droppedSinceGap = new AtomicLong();
+    private final AtomicLong written = new AtomicLong();
+    private final AtomicLong batches = new AtomicLong();
+    private final AtomicLong fsyncs = new AtomicLong();
+    private final AtomicLong writeErrors = new AtomicLong();
+    
+    private volatile boolean running;
+    private volatile long lastSequence;
+    private Thread writer;
+    private FileChannel segment;
+    private long segmentSize;
+    private boolean unsynced;
+    private long lastSyncNanos;
+    private int flushedInBatch;
+    
+    public AuditLog(Path directory, int bufferCapacity, int batchSize, long segmentBytes,
+                    long fsyncIntervalMs, long offerTimeoutMicros, ObjectMapper objectMapper) {
+        this.directory = directory;
+        this.buffer = new MpscRingBuffer<>(bufferCapacity);
+        this.batchSize = batchSize;
+        this.segmentBytes = segmentBytes;
+        this.fsyncIntervalNanos = TimeUnit.MILLISECONDS.toNanos(fsyncIntervalMs);
+        this.offerTimeoutNanos = TimeUnit.MICROSECONDS.toNanos(offerTimeoutMicros);
+        this.objectMapper = objectMapper;
+    }
+    
+    public synchronized void start() throws IOException {
+        Files.createDirectories(directory);
+        lastSequence = recoverLastSequence();
+        running = true;
+        writer = new Thread(this::runWriter, "audit-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+    
+    // Loss is bounded by the ring: a producer waits at most offerTimeoutMicros for space and then
+    // drops the event, and the writer records how many were dropped as a GAP entry in the log.
+    public boolean append(AuditEvent event) {
+        if (!running) {
+            return false;
+        }
+        if (!buffer.offer(event)) {
+            long deadline = System.nanoTime() + offerTimeoutNanos;
+            boolean accepted = false;
+            while (offerTimeoutNanos > 0 && System.nanoTime() - deadline < 0) {
+                Thread.onSpinWait();
+                if (buffer.offer(event)) {
+                    accepted = true;
+                    break;
+                }
+            }
+            if (!accepted) {
+                dropped.increment();
+                droppedSinceGap.incrementAndGet();
+                return false;
+            }
+        }
+        appended.increment();
+        return true;
+    }
+    
+    public List<AuditEvent> read(long fromSequence, int limit, Predicate<AuditEvent> filter) throws IOException {
+        List<AuditEvent> events = new ArrayList<>();
+        List<Path> segments = listSegments();
+        int first = 0;
+        for (int i = 0; i < segments.size(); i++) {
+            if (startSequence(segments.get(i)) <= fromSequence) {
+                first = i;
+            }
+        }
+        
+        for (int i = first; i < segments.size() && events.size() < limit; i++) {
+            try (BufferedReader reader = Files.newBufferedReader(segments.get(i), StandardCharsets.UTF_8)) {
+                String line;
+                while (events.size() < limit && (line = reader.readLine()) != null) {
+                    AuditEvent event = parse(line);
+                    if (event != null && event.getSequence() >= fromSequence && filter.test(event)) {
+                        events.add(event);
+                    }
+                }
+            }
+        }
+        return events;
+    }
+    
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        long batchCount = batches.get();
+        stats.put("running", running);
+        stats.put("bufferCapacity", buffer.capacity());
+        stats.put("buffered", buffer.size());
+        stats.put("appended", appended.sum());
+        stats.put("dropped", dropped.sum());
+        stats.put("written", written.get());
+        stats.put("batches", batchCount);
+        stats.put("avgBatchSize", batchCount == 0 ? 0.0 : (double) written.get() / batchCount);
+        stats.put("fsyncs", fsyncs.get());
+        stats.put("writeErrors", writeErrors.get());
+        stats.put("lastSequence", lastSequence);
+        return stats;
+    }
+    
+    @Override
+    public void close() {
+        Thread current;
+        synchronized (this) {
+            running = false;
+            current = writer;
+        }
+        if (current != null) {
+            LockSupport.unpark(current);
+            try {
+                current.join(TimeUnit.SECONDS.toMillis(10));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+    
+    private void runWriter() {
+        List<AuditEvent> batch = new ArrayList<>(batchSize + 1);
+        ByteArrayOutputStream pending = new ByteArrayOutputStream(64 * 1024);
+        while (true) {
+            boolean stopping = !running;
+            batch.clear();
+            long gap = droppedSinceGap.getAndSet(0);
+            if (gap > 0) {
+                batch.add(AuditEvent.gap(gap));
+            }
+            buffer.drainTo(batch, batchSize);
+            
+            if (batch.isEmpty()) {
+                syncIfDue(stopping);
+                if (stopping) {
+                    break;
+                }
+                LockSupport.parkNanos(IDLE_PARK_NANOS);
+                continue;
+            }
+            
+            try {
+                writeBatch(batch, pending);
+                syncIfDue(false);
+            } catch (IOException e) {
+                // The sequences of the unwritten events are already spent, so they are counted as
+                // dropped and the next batch opens with a GAP entry covering them. A GAP entry that
+                // was itself lost carries its own count forward.
+                long lost = batch.size() - flushedInBatch;
+                if (gap > 0 && flushedInBatch == 0) {
+                    lost += gap - 1;
+                }
+                dropped.add(lost);
+                droppedSinceGap.addAndGet(lost);
+                writeErrors.incrementAndGet();
+                log.error("Failed to write audit batch of {} events, {} lost", batch.size(), lost, e);
+                closeSegment();
+            }
+        }
+        closeSegment();
+    }
+    
+    private void writeBatch(List<AuditEvent> batch, ByteArrayOutputStream pending) throws IOException {
+        pending.reset();
+        flushedInBatch = 0;
+        long sequence = lastSequence;
+        try {
+            for (int i = 0; i < batch.size(); i++) {
+                AuditEvent event = batch.get(i);
+                event.setSequence(++sequence);
+                byte[] line = objectMapper.writeValueAsBytes(event);
+                long projected = segmentSize + pending.size();
+                if (segment == null || (projected > 0 && projected + line.length + 1 > segmentBytes)) {
+                    writePending(pending);
+                    flushedInBatch = i;
+                    syncIfDue(true);
+                    closeSegment();
+                    openSegment(sequence);
+                }
+                pending.write(line);
+                pending.write('\n');
+            }
+            writePending(pending);
+            flushedInBatch = batch.size();
+        } finally {
+            lastSequence = sequence;
+        }
+        batches.incrementAndGet();
+        written.addAndGet(batch.size());
+    }
+    
+    private void writePending(ByteArrayOutputStream pending) throws IOException {
+        if (pending.size() == 0 || segment == null) {
+            return;
+        }
+        ByteBuffer data = ByteBuffer.wrap(pending.toByteArray());
+        while (data.hasRemaining()) {
+            segmentSize += segment.write(data);
+        }
+        pending.reset();
+        unsynced = true;
+    }
+    
+    private void syncIfDue(boolean force) {
+        if (!unsynced || segment == null) {
+            return;
+        }
+        long now = System.nanoTime();
+        if (!force && now - lastSyncNanos < fsyncIntervalNanos) {
+            return;
+        }
+        try {
+            segment.force(false);
+            fsyncs.incrementAndGet();
+            unsynced = false;
+            lastSyncNanos = now;
+        } catch (IOException e) {
+            writeErrors.incrementAndGet();
+            log.error("Failed to sync audit segment", e);
+        }
+    }
+    
+    private void openSegment(long startSequence) throws IOException {
+        Path path = directory.resolve(String.format("%s%020d%s", SEGMENT_PREFIX, startSequence, SEGMENT_SUFFIX));
+        segment = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        segmentSize = segment.size();
+    }
+    
+    private void closeSegment() {
+        if (segment == null) {
+            return;
+        }
+        syncIfDue(true);
+        try {
+            segment.close();
+        } catch (IOException e) {
+            log.warn("Failed to close audit segment", e);
+        }
+        segment = null;
+    }
+    
+    // Existing segments are never reopened for writing; a restart always starts a new segment
+    // after the last complete record, and a torn final line is simply skipped by readers.
+    private long recoverLastSequence() throws IOException {
+        List<Path> segments = listSegments();
+        for (int i = segments.size() - 1; i >= 0; i--) {
+            long last = 0;
+            try (BufferedReader reader = Files.newBufferedReader(segments.get(i), StandardCharsets.UTF_8)) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    AuditEvent event = parse(line);
+                    if (event != null) {
+                        last = Math.max(last, event.getSequence());
+                    }
+                }
+            }
+            if (last > 0) {
+                return last;
+            }
+        }
+        return 0;
+    }
+    
+    private List<Path> listSegments() throws IOException {
+        if (!Files.isDirectory(directory)) {
+            return List.of();
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            return files
+                    .filter(path -> path.getFileName().toString().startsWith(SEGMENT_PREFIX))
+                    .filter(path -> path.getFileName().toString().endsWith(SEGMENT_SUFFIX))
+                    .sorted()
+                    .toList();
+        }
+    }
+    
+    private static long startSequence(Path segment) {
+        String name = segment.getFileName().toString();
+        return Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+    }
+    
+    private AuditEvent parse(String line) {
+        try {
+            return objectMapper.readValue(line, AuditEvent.class);
+        } catch (IOException e) {
+            return null;
+        }
+    }
+}
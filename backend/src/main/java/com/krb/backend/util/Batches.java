@@ -0,0 +1,51 @@
+package com.krb.backend.util;
+
+import com.krb.backend.dto.BatchGetResponse;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+
+public final class Batches {
+    
+    private Batches() {}
+    
+    /**
+     * Validates the ids of a batch-get request and returns them de-duplicated in request order,
+     * split into chunks of at most chunkSize so each IN list stays bounded.
+     */
+    public static List<List<Long>> chunkIds(List<Long> ids, int maxIds, int chunkSize) {
+        if (ids == null || ids.isEmpty()) {
+            throw new RuntimeException("At least one id is required");
+        }
+        if (ids.size() > maxIds) {
+            throw new RuntimeException("At most " + maxIds + " ids per request");
+        }
+        if (ids.contains(null)) {
+            throw new RuntimeException("Ids must not be null");
+        }
+        List<Long> distinct = new ArrayList<>(new LinkedHashSet<>(ids));
+        List<List<Long>> chunks = new ArrayList<>();
+        for (int start = 0; start < distinct.size(); start += chunkSize) {
+            chunks.add(distinct.subList(start, Math.min(start + chunkSize, distinct.size())));
+        }
+        return chunks;
+    }
+    
+    public static <T> BatchGetResponse<T> toResponse(List<List<Long>> chunks, Map<Long, T> found) {
+        Map<Long, T> results = new LinkedHashMap<>();
+        List<Long> missing = new ArrayList<>();
+        for (List<Long> chunk : chunks) {
+            for (Long id : chunk) {
+                T value = found.get(id);
+                if (value != null) {
+                    results.put(id, value);
+                } else {
+                    missing.add(id);
+                }
+            }
+        }
+        return new BatchGetResponse<>(results, missing);
+    }
+}
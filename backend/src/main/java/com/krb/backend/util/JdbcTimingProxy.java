@@ -0,0 +1,228 @@
+package com.krb.backend.util;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * JDK proxies around a DataSource that time every statement. Execution time is measured around
+ * execute*, fetch time is the time spent in ResultSet.next, and the row count is the update count
+ * or the number of rows read. The listener is called once per execution, when its result set or
+ * statement is closed, on the thread that ran it.
+ *
+ * Bind values are kept by parameter index in a map owned by the statement; listeners that keep
+ * them beyond the callback must copy them.
+ */
+public final class JdbcTimingProxy {
+    
+    public interface StatementListener {
+        void onStatement(StatementExecution execution);
+    }
+    
+    public static final class StatementExecution {
+        
+        private final String sql;
+        private final Map<Integer, Object> parameters;
+        private final int batchSize;
+        private final long executeNanos;
+        private long fetchNanos;
+        private long rows;
+        private boolean finished;
+        
+        private StatementExecution(String sql, Map<Integer, Object> parameters, int batchSize, long executeNanos) {
+            this.sql = sql;
+            this.parameters = parameters;
+            this.batchSize = batchSize;
+            this.executeNanos = executeNanos;
+        }
+        
+        public String getSql() { return sql; }
+        public Map<Integer, Object> getParameters() { return parameters; }
+        public int getBatchSize() { return batchSize; }
+        public long getExecuteNanos() { return executeNanos; }
+        public long getFetchNanos() { return fetchNanos; }
+        public long getTotalNanos() { return executeNanos + fetchNanos; }
+        public long getRows() { return rows; }
+    }
+    
+    private JdbcTimingProxy() {}
+    
+    public static DataSource wrap(DataSource target, StatementListener listener) {
+        Class<?>[] interfaces = target instanceof Closeable
+                ? new Class<?>[] {DataSource.class, Closeable.class}
+                : new Class<?>[] {DataSource.class};
+        return (DataSource) Proxy.newProxyInstance(JdbcTimingProxy.class.getClassLoader(), interfaces,
+                (proxy, method, args) -> {
+                    Object result = invoke(target, method, args);
+                    return result instanceof Connection connection ? wrapConnection(connection, listener) : result;
+                });
+    }
+    
+    private static Connection wrapConnection(Connection target, StatementListener listener) {
+        return (Connection) Proxy.newProxyInstance(JdbcTimingProxy.class.getClassLoader(),
+                new Class<?>[] {Connection.class}, (proxy, method, args) -> {
+                    Object result = invoke(target, method, args);
+                    if (!(result instanceof Statement statement)) {
+                        return result;
+                    }
+                    String sql = args != null && args.length > 0 && args[0] instanceof String text ? text : null;
+                    Class<?> type = method.getReturnType();
+                    return Proxy.newProxyInstance(JdbcTimingProxy.class.getClassLoader(), new Class<?>[] {type},
+                            new StatementHandler(statement, sql, type != Statement.class, listener));
+                });
+    }
+    
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+    
+    private static final class StatementHandler implements InvocationHandler {
+        
+        private final Statement target;
+        private final String preparedSql;
+        private final Map<Integer, Object> parameters;
+        private final StatementListener listener;
+        private int batched;
+        private String batchSql;
+        private StatementExecution pending;
+        
+        private StatementHandler(Statement target, String preparedSql, boolean prepared, StatementListener listener) {
+            this.target = target;
+            this.preparedSql = preparedSql;
+            this.parameters = prepared ? new TreeMap<>() : Map.of();
+            this.listener = listener;
+        }
+        
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            if (name.startsWith("execute")) {
+                return execute(proxy, method, args);
+            }
+            switch (name) {
+                case "clearParameters" -> {
+                    finishPending();
+                    parameters.clear();
+                }
+                case "addBatch" -> {
+                    batched++;
+                    if (args != null && args.length == 1 && batchSql == null) {
+                        batchSql = (String) args[0];
+                    }
+                }
+                case "clearBatch" -> {
+                    batched = 0;
+                    batchSql = null;
+                }
+                case "getResultSet" -> {
+                    Object result = JdbcTimingProxy.invoke(target, method, args);
+                    return pending != null && result instanceof ResultSet resultSet
+                            ? wrapResultSet(resultSet, proxy)
+                            : result;
+                }
+                case "close" -> finishPending();
+                default -> {
+                    if (name.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer index
+                            && target instanceof PreparedStatement) {
+                        finishPending();
+                        parameters.put(index, name.equals("setNull") ? null : args[1]);
+                    }
+                }
+            }
+            return JdbcTimingProxy.invoke(target, method, args);
+        }
+        
+        private Object execute(Object proxy, Method method, Object[] args) throws Throwable {
+            finishPending();
+            String name = method.getName();
+            boolean batch = name.endsWith("Batch");
+            String sql = args != null && args.length > 0 && args[0] instanceof String text ? text
+                    : batch && batchSql != null ? batchSql : preparedSql;
+            long started = System.nanoTime();
+            Object result = JdbcTimingProxy.invoke(target, method, args);
+            StatementExecution execution = new StatementExecution(sql, parameters, batch ? batched : 0,
+                    System.nanoTime() - started);
+            
+            if (result instanceof ResultSet resultSet) {
+                pending = execution;
+                return wrapResultSet(resultSet, proxy);
+            }
+            if (result instanceof Boolean hasResultSet) {
+                pending = execution;
+                if (!hasResultSet) {
+                    execution.rows = target.getUpdateCount();
+                    finishPending();
+                }
+                return result;
+            }
+            if (result instanceof int[] counts) {
+                for (int count : counts) {
+                    execution.rows += Math.max(count, 0);
+                }
+            } else if (result instanceof long[] counts) {
+                for (long count : counts) {
+                    execution.rows += Math.max(count, 0);
+                }
+            } else if (result instanceof Number count) {
+                execution.rows = count.longValue();
+            }
+            if (batch) {
+                batched = 0;
+                batchSql = null;
+            }
+            pending = execution;
+            finishPending();
+            return result;
+        }
+        
+        private ResultSet wrapResultSet(ResultSet resultSet, Object statementProxy) {
+            StatementExecution execution = pending;
+            return (ResultSet) Proxy.newProxyInstance(JdbcTimingProxy.class.getClassLoader(),
+                    new Class<?>[] {ResultSet.class}, (proxy, method, args) -> {
+                        switch (method.getName()) {
+                            case "next" -> {
+                                long started = System.nanoTime();
+                                Object hasRow = JdbcTimingProxy.invoke(resultSet, method, args);
+                                execution.fetchNanos += System.nanoTime() - started;
+                                if (Boolean.TRUE.equals(hasRow)) {
+                                    execution.rows++;
+                                }
+                                return hasRow;
+                            }
+                            case "close" -> {
+                                if (pending == execution) {
+                                    finishPending();
+                                }
+                            }
+                            case "getStatement" -> {
+                                return statementProxy;
+                            }
+                            default -> { }
+                        }
+                        return JdbcTimingProxy.invoke(resultSet, method, args);
+                    });
+        }
+        
+        private void finishPending() {
+            StatementExecution execution = pending;
+            pending = null;
+            if (execution != null && !execution.finished) {
+                execution.finished = true;
+                listener.onStatement(execution);
+            }
+        }
+    }
+}
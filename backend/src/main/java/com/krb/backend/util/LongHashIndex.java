@@ -0,0 +1,230 @@
+package com.krb.backend.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * Fixed-capacity open-addressing map from a non-zero long key to an id and a value, sized at
+ * construction so the table never resizes (load factor at most 0.5). Slots are parallel primitive
+ * arrays with linear probing and backward-shift deletion, so there are no tombstones and no boxed
+ * keys. When the table holds maxEntries, inserting evicts whichever entry a rotating cursor reaches
+ * next.
+ *
+ * Reads are optimistic: they probe without locking and retry under the read lock only if a writer
+ * ran concurrently. Writers are serialised by the lock.
+ */
+public final class LongHashIndex<V> {
+    
+    private static final long EMPTY = 0L;
+    
+    private final StampedLock lock = new StampedLock();
+    private final int maxEntries;
+    private final int mask;
+    private final long[] keys;
+    private final long[] ids;
+    private final Object[] values;
+    private int size;
+    private int evictionCursor;
+    private long evictions;
+    
+    public LongHashIndex(int maxEntries) {
+        if (maxEntries <= 0) {
+            throw new IllegalArgumentException("maxEntries must be positive");
+        }
+        int capacity = Integer.highestOneBit(Math.max(maxEntries, 8) * 2 - 1) << 1;
+        this.maxEntries = maxEntries;
+        this.mask = capacity - 1;
+        this.keys = new long[capacity];
+        this.ids = new long[capacity];
+        this.values = new Object[capacity];
+    }
+    
+    public V get(long key) {
+        long stamp = lock.tryOptimisticRead();
+        V value = find(key);
+        if (!lock.validate(stamp)) {
+            stamp = lock.readLock();
+            try {
+                value = find(key);
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+        return value;
+    }
+    
+    public void put(long key, long id, V value) {
+        checkKey(key);
+        long stamp = lock.writeLock();
+        try {
+            int slot = slotOf(key);
+            if (slot >= 0) {
+                ids[slot] = id;
+                values[slot] = value;
+                return;
+            }
+            if (size >= maxEntries) {
+                evictOne();
+            }
+            slot = home(key);
+            while (keys[slot] != EMPTY) {
+                slot = (slot + 1) & mask;
+            }
+            keys[slot] = key;
+            ids[slot] = id;
+            values[slot] = value;
+            size++;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+    
+    public boolean remove(long key) {
+        long stamp = lock.writeLock();
+        try {
+            int slot = slotOf(key);
+            if (slot < 0) {
+                return false;
+            }
+            deleteAt(slot);
+            return true;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+    
+    @SuppressWarnings("unchecked")
+    public int removeIf(EntryPredicate<V> predicate) {
+        long stamp = lock.writeLock();
+        try {
+            List<Long> matching = new ArrayList<>();
+            for (int slot = 0; slot < keys.length; slot++) {
+                if (keys[slot] != EMPTY && predicate.test(ids[slot], (V) values[slot])) {
+                    matching.add(keys[slot]);
+                }
+            }
+            for (long key : matching) {
+                deleteAt(slotOf(key));
+            }
+            return matching.size();
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+    
+    public void clear() {
+        long stamp = lock.writeLock();
+        try {
+            Arrays.fill(keys, EMPTY);
+            Arrays.fill(ids, 0L);
+            Arrays.fill(values, null);
+            size = 0;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+    
+    public int size() {
+        long stamp = lock.readLock();
+        try {
+            return size;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+    
+    public int capacity() {
+        return keys.length;
+    }
+    
+    public long getEvictions() {
+        long stamp = lock.readLock();
+        try {
+            return evictions;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+    
+    // A racing writer can leave the probe looking at a half-moved run, so the walk is bounded by
+    // the table size and its answer is only trusted once the caller has validated the stamp.
+    @SuppressWarnings("unchecked")
+    private V find(long key) {
+        int slot = home(key);
+        for (int probes = 0; probes < keys.length; probes++) {
+            long candidate = keys[slot];
+            if (candidate == EMPTY) {
+                return null;
+            }
+            if (candidate == key) {
+                return (V) values[slot];
+            }
+            slot = (slot + 1) & mask;
+        }
+        return null;
+    }
+    
+    private int slotOf(long key) {
+        int slot = home(key);
+        while (keys[slot] != EMPTY) {
+            if (keys[slot] == key) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return -1;
+    }
+    
+    private void evictOne() {
+        while (keys[evictionCursor] == EMPTY) {
+            evictionCursor = (evictionCursor + 1) & mask;
+        }
+        deleteAt(evictionCursor);
+        evictions++;
+    }
+    
+    // Backward-shift deletion: walk the run after the hole and pull back every entry whose home
+    // slot is not cyclically inside (hole, current], so lookups never need tombstones.
+    private void deleteAt(int slot) {
+        int hole = slot;
+        int current = slot;
+        while (true) {
+            current = (current + 1) & mask;
+            long key = keys[current];
+            if (key == EMPTY) {
+                break;
+            }
+            int home = home(key);
+            boolean movable = hole <= current
+                    ? home <= hole || home > current
+                    : home <= hole && home > current;
+            if (movable) {
+                keys[hole] = key;
+                ids[hole] = ids[current];
+                values[hole] = values[current];
+                hole = current;
+            }
+        }
+        keys[hole] = EMPTY;
+        ids[hole] = 0L;
+        values[hole] = null;
+        size--;
+    }
+    
+    private int home(long key) {
+        long hash = key * 0x9E3779B97F4A7C15L;
+        return (int) (hash ^ (hash >>> 32)) & mask;
+    }
+    
+    public interface EntryPredicate<V> {
+        boolean test(long id, V value);
+    }
+    
+    private static void checkKey(long key) {
+        if (key == EMPTY) {
+            throw new IllegalArgumentException("Key 0 is reserved for empty slots");
+        }
+    }
+}
@@ -0,0 +1,379 @@
+package com.krb.backend.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.Predicate;
+
+/**
+ * Prefix lookup over (key, id, tag) entries for typeahead. The bulk of the entries live in sorted
+ * primitive arrays (all key characters in one char[], plus offsets, ids and tags), which costs
+ * roughly 2 bytes per key character and 13 bytes per entry and answers a prefix with one binary
+ * search. Incremental changes go into a small concurrent overlay keyed the same way; once it grows
+ * past a fraction of the arrays it is merged into a fresh set of arrays.
+ *
+ * Readers never lock. Writers must be serialised by the caller or go through the synchronized
+ * mutators here.
+ */
+public final class PrefixIndex {
+    
+    private static final char SEPARATOR = '\u0000';
+    private static final int ID_WIDTH = 16;
+    
+    private static final Comparator<Entry> ENTRY_ORDER = Comparator
+            .comparing((Entry entry) -> entry.key)
+            .thenComparingInt(entry -> entry.tag)
+            .thenComparingLong(entry -> entry.id);
+    
+    private final int minCompactionThreshold;
+    
+    private volatile State state = new State(Snapshot.EMPTY);
+    
+    private long compactions;
+    
+    public PrefixIndex(int minCompactionThreshold) {
+        this.minCompactionThreshold = minCompactionThreshold;
+    }
+    
+    public synchronized void add(String key, long id, byte tag) {
+        update(key, id, tag, true);
+    }
+    
+    public synchronized void remove(String key, long id, byte tag) {
+        update(key, id, tag, false);
+    }
+    
+    // The overlay holds the latest state of every entry touched since the last compaction, so
+    // replaying it over a freshly scanned snapshot is safe even for changes the scan already saw.
+    public void rebuild(List<Entry> entries) {
+        List<Entry> sorted = new ArrayList<>(entries);
+        sorted.sort(ENTRY_ORDER);
+        Builder builder = new Builder(sorted.size(), sorted.stream().mapToInt(entry -> entry.key.length()).sum());
+        for (Entry entry : sorted) {
+            builder.append(entry.key, entry.id, entry.tag);
+        }
+        Snapshot scanned = builder.build();
+        synchronized (this) {
+            state = new State(merge(scanned, state.overlay));
+        }
+    }
+    
+    /**
+     * Returns up to limit entries whose key starts with prefix and that pass the filter, in key
+     * order, keeping only the first (shortest-key) entry for each id.
+     */
+    public List<Entry> search(String prefix, int limit, Predicate<Entry> filter) {
+        List<Entry> matches = new ArrayList<>(Math.min(limit, 64));
+        if (prefix == null || prefix.isEmpty() || limit <= 0) {
+            return matches;
+        }
+        State current = state;
+        Snapshot base = current.base;
+        Set<Long> seen = new HashSet<>();
+        
+        int index = base.lowerBound(prefix);
+        Iterator<Map.Entry<String, Boolean>> overlay = current.overlay
+                .subMap(prefix, true, prefix + Character.MAX_VALUE, false).entrySet().iterator();
+        Map.Entry<String, Boolean> pending = overlay.hasNext() ? overlay.next() : null;
+        
+        while (matches.size() < limit) {
+            boolean baseMatches = index < base.size && base.startsWith(index, prefix);
+            if (!baseMatches && pending == null) {
+                break;
+            }
+            int order = !baseMatches ? 1 : pending == null ? -1 : base.compareComposite(index, pending.getKey());
+            Entry candidate = null;
+            if (order < 0) {
+                candidate = base.entry(index++);
+            } else {
+                if (pending.getValue()) {
+                    candidate = parse(pending.getKey());
+                }
+                if (order == 0) {
+                    index++;
+                }
+                pending = overlay.hasNext() ? overlay.next() : null;
+            }
+            if (candidate != null && filter.test(candidate) && seen.add(candidate.id)) {
+                matches.add(candidate);
+            }
+        }
+        return matches;
+    }
+    
+    public int size() {
+        return state.base.size + state.overlaySize;
+    }
+    
+    public int getSnapshotSize() {
+        return state.base.size;
+    }
+    
+    public int getOverlaySize() {
+        return state.overlaySize;
+    }
+    
+    public synchronized long getCompactions() {
+        return compactions;
+    }
+    
+    // Array payloads plus headers for the snapshot; overlay entries are charged for the composite
+    // string and a skip-list node with its share of index nodes.
+    public long getEstimatedBytes() {
+        State current = state;
+        Snapshot base = current.base;
+        long snapshotBytes = 4L * 16 + 2L * base.chars.length + 4L * base.offsets.length
+                + 8L * base.ids.length + base.tags.length;
+        return snapshotBytes + current.overlaySize * 120L;
+    }
+    
+    private void update(String key, long id, byte tag, boolean present) {
+        if (key == null || key.isEmpty()) {
+            return;
+        }
+        State current = state;
+        if (current.overlay.put(composite(key, id, tag), present) == null) {
+            current.overlaySize++;
+        }
+        if (current.overlaySize > Math.max(minCompactionThreshold, current.base.size / 32)) {
+            state = new State(merge(current.base, current.overlay));
+            compactions++;
+        }
+    }
+    
+    private static Snapshot merge(Snapshot base, ConcurrentSkipListMap<String, Boolean> overlay) {
+        int extraChars = 0;
+        for (String key : overlay.keySet()) {
+            extraChars += key.length();
+        }
+        Builder builder = new Builder(base.size + overlay.size(), base.chars.length + extraChars);
+        Iterator<Map.Entry<String, Boolean>> changes = overlay.entrySet().iterator();
+        Map.Entry<String, Boolean> pending = changes.hasNext() ? changes.next() : null;
+        int index = 0;
+        while (index < base.size || pending != null) {
+            int order = index >= base.size ? 1 : pending == null ? -1 : base.compareComposite(index, pending.getKey());
+            if (order < 0) {
+                builder.append(base, index++);
+            } else {
+                if (pending.getValue()) {
+                    Entry entry = parse(pending.getKey());
+                    builder.append(entry.key, entry.id, entry.tag);
+                }
+                if (order == 0) {
+                    index++;
+                }
+                pending = changes.hasNext() ? changes.next() : null;
+            }
+        }
+        return builder.build();
+    }
+    
+    // key, separator, tag, zero-padded hex id: plain string order then matches (key, tag, id) order.
+    private static String composite(String key, long id, byte tag) {
+        StringBuilder composite = new StringBuilder(key.length() + 2 + ID_WIDTH).append(key).append(SEPARATOR)
+                .append((char) tag);
+        String hex = Long.toHexString(id);
+        for (int i = hex.length(); i < ID_WIDTH; i++) {
+            composite.append('0');
+        }
+        return composite.append(hex).toString();
+    }
+    
+    private static Entry parse(String composite) {
+        int separator = composite.length() - ID_WIDTH - 2;
+        return new Entry(composite.substring(0, separator),
+                Long.parseUnsignedLong(composite.substring(separator + 2), 16), (byte) composite.charAt(separator + 1));
+    }
+    
+    public static final class Entry {
+        
+        private final String key;
+        private final long id;
+        private final byte tag;
+        
+        public Entry(String key, long id, byte tag) {
+            this.key = key;
+            this.id = id;
+            this.tag = tag;
+        }
+        
+        public String getKey() { return key; }
+        public long getId() { return id; }
+        public byte getTag() { return tag; }
+    }
+    
+    private static final class State {
+        
+        private final Snapshot base;
+        private final ConcurrentSkipListMap<String, Boolean> overlay = new ConcurrentSkipListMap<>();
+        private volatile int overlaySize;
+        
+        private State(Snapshot base) {
+            this.base = base;
+        }
+    }
+    
+    private static final class Snapshot {
+        
+        private static final Snapshot EMPTY = new Snapshot(new char[0], new int[1], new long[0], new byte[0], 0);
+        
+        private final char[] chars;
+        private final int[] offsets;
+        private final long[] ids;
+        private final byte[] tags;
+        private final int size;
+        
+        private Snapshot(char[] chars, int[] offsets, long[] ids, byte[] tags, int size) {
+            this.chars = chars;
+            this.offsets = offsets;
+            this.ids = ids;
+            this.tags = tags;
+            this.size = size;
+        }
+        
+        private int lowerBound(String prefix) {
+            int low = 0;
+            int high = size;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (compareKey(mid, prefix) < 0) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+        
+        private int compareKey(int index, String other) {
+            int start = offsets[index];
+            int length = offsets[index + 1] - start;
+            int common = Math.min(length, other.length());
+            for (int i = 0; i < common; i++) {
+                int difference = chars[start + i] - other.charAt(i);
+                if (difference != 0) {
+                    return difference;
+                }
+            }
+            return length - other.length();
+        }
+        
+        private boolean startsWith(int index, String prefix) {
+            int start = offsets[index];
+            if (offsets[index + 1] - start < prefix.length()) {
+                return false;
+            }
+            for (int i = 0; i < prefix.length(); i++) {
+                if (chars[start + i] != prefix.charAt(i)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        
+        private String key(int index) {
+            return new String(chars, offsets[index], offsets[index + 1] - offsets[index]);
+        }
+        
+        // Same order as comparing composite(key(index), ...) with other, without building the string.
+        private int compareComposite(int index, String other) {
+            int otherKeyLength = other.length() - ID_WIDTH - 2;
+            int start = offsets[index];
+            int length = offsets[index + 1] - start;
+            int common = Math.min(length, otherKeyLength);
+            for (int i = 0; i < common; i++) {
+                int difference = chars[start + i] - other.charAt(i);
+                if (difference != 0) {
+                    return difference;
+                }
+            }
+            if (length != otherKeyLength) {
+                return length - otherKeyLength;
+            }
+            int tagOrder = tags[index] - other.charAt(otherKeyLength + 1);
+            if (tagOrder != 0) {
+                return tagOrder;
+            }
+            return Long.compare(ids[index], Long.parseUnsignedLong(other.substring(otherKeyLength + 2), 16));
+        }
+        
+        private Entry entry(int index) {
+            return new Entry(key(index), ids[index], tags[index]);
+        }
+    }
+    
+    private static final class Builder {
+        
+        private char[] chars;
+        private int[] offsets;
+        private long[] ids;
+        private byte[] tags;
+        private int size;
+        private int length;
+        
+        private Builder(int entries, int characters) {
+            chars = new char[Math.max(characters, 16)];
+            offsets = new int[Math.max(entries, 16) + 1];
+            ids = new long[Math.max(entries, 16)];
+            tags = new byte[Math.max(entries, 16)];
+        }
+        
+        private void append(String key, long id, byte tag) {
+            if (size > 0 && ids[size - 1] == id && tags[size - 1] == tag && sameAsLast(key)) {
+                return;
+            }
+            ensureCapacity(key.length());
+            key.getChars(0, key.length(), chars, length);
+            length += key.length();
+            ids[size] = id;
+            tags[size] = tag;
+            offsets[++size] = length;
+        }
+        
+        private void append(Snapshot source, int index) {
+            int start = source.offsets[index];
+            int keyLength = source.offsets[index + 1] - start;
+            ensureCapacity(keyLength);
+            System.arraycopy(source.chars, start, chars, length, keyLength);
+            length += keyLength;
+            ids[size] = source.ids[index];
+            tags[size] = source.tags[index];
+            offsets[++size] = length;
+        }
+        
+        private boolean sameAsLast(String key) {
+            int start = offsets[size - 1];
+            if (offsets[size] - start != key.length()) {
+                return false;
+            }
+            for (int i = 0; i < key.length(); i++) {
+                if (chars[start + i] != key.charAt(i)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        
+        private void ensureCapacity(int keyLength) {
+            if (length + keyLength > chars.length) {
+                chars = Arrays.copyOf(chars, Math.max(chars.length * 2, length + keyLength));
+            }
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+                tags = Arrays.copyOf(tags, size * 2);
+                offsets = Arrays.copyOf(offsets, size * 2 + 1);
+            }
+        }
+        
+        private Snapshot build() {
+            return new Snapshot(Arrays.copyOf(chars, length), Arrays.copyOf(offsets, size + 1),
+                    Arrays.copyOf(ids, size), Arrays.copyOf(tags, size), size);
+        }
+    }
+}
@@ -0,0 +1,164 @@
+package com.krb.backend.util;
+
+/**
+ * Splits one request's wall-clock time into exclusive phases. Entering a phase charges the time
+ * since the last switch to the phase that was running and pushes it; closing pops back to it, so
+ * every nanosecond lands in exactly one innermost phase. JDBC time is reported after the fact by
+ * the statement timer and moved from the running phase into DB.
+ *
+ * A timing is bound to the request thread by the Server-Timing filter; on any other thread
+ * enter returns a no-op scope.
+ */
+public final class RequestTiming implements AutoCloseable {
+    
+    public enum Phase {
+        FILTER("filter", "Filters and dispatch"),
+        CONTROLLER("controller", "Controller"),
+        SERVICE("service", "Service logic"),
+        REPOSITORY("repository", "Repository and Hibernate outside JDBC"),
+        DB("db", "JDBC execute and fetch"),
+        MAPPING("mapping", "Entity to DTO mapping"),
+        SERIALIZATION("serialization", "Response body writing");
+        
+        private final String metricName;
+        private final String description;
+        
+        Phase(String metricName, String description) {
+            this.metricName = metricName;
+            this.description = description;
+        }
+        
+        public String getMetricName() { return metricName; }
+        public String getDescription() { return description; }
+    }
+    
+    private static final ThreadLocal<RequestTiming> CURRENT = new ThreadLocal<>();
+    
+    private static final Phase[] PHASES = Phase.values();
+    
+    private static final int MAX_DEPTH = 64;
+    
+    private static final RequestTiming NO_OP = new RequestTiming(0);
+    
+    private final long[] nanos = new long[PHASES.length];
+    private final Phase[] stack = new Phase[MAX_DEPTH];
+    private final long startedAt;
+    private int depth;
+    private int handlerDepth;
+    private Phase running = Phase.FILTER;
+    private long switchedAt;
+    private long finishedAt;
+    
+    private RequestTiming(long startedAt) {
+        this.startedAt = startedAt;
+        this.switchedAt = startedAt;
+    }
+    
+    public static RequestTiming begin() {
+        RequestTiming timing = new RequestTiming(System.nanoTime());
+        CURRENT.set(timing);
+        return timing;
+    }
+    
+    public static RequestTiming current() {
+        return CURRENT.get();
+    }
+    
+    public static RequestTiming enter(Phase phase) {
+        RequestTiming timing = CURRENT.get();
+        if (timing == null) {
+            return NO_OP;
+        }
+        timing.push(phase);
+        return timing;
+    }
+    
+    // Service calls only count as SERVICE while a controller is running, so services used by
+    // filters (admission, rate limits, idempotency) stay in FILTER.
+    public static RequestTiming enterService() {
+        RequestTiming timing = CURRENT.get();
+        if (timing == null || timing.handlerDepth == 0) {
+            return NO_OP;
+        }
+        timing.push(Phase.SERVICE);
+        return timing;
+    }
+    
+    public static RequestTiming enterController() {
+        RequestTiming timing = CURRENT.get();
+        if (timing == null) {
+            return NO_OP;
+        }
+        timing.handlerDepth++;
+        timing.push(Phase.CONTROLLER);
+        return timing;
+    }
+    
+    // Replaces the running phase without nesting; used where the framework gives a start and an
+    // end callback instead of a call to wrap (response writing).
+    public static void switchTo(Phase phase) {
+        RequestTiming timing = CURRENT.get();
+        if (timing != null) {
+            timing.charge(System.nanoTime());
+            timing.running = phase;
+        }
+    }
+    
+    public static void recordDatabase(long databaseNanos) {
+        RequestTiming timing = CURRENT.get();
+        if (timing != null) {
+            timing.charge(System.nanoTime());
+            timing.nanos[timing.running.ordinal()] -= databaseNanos;
+            timing.nanos[Phase.DB.ordinal()] += databaseNanos;
+        }
+    }
+    
+    @Override
+    public void close() {
+        if (this == NO_OP) {
+            return;
+        }
+        charge(System.nanoTime());
+        if (running == Phase.CONTROLLER && handlerDepth > 0) {
+            handlerDepth--;
+        }
+        if (depth > 0) {
+            depth--;
+            if (depth < MAX_DEPTH) {
+                running = stack[depth];
+            }
+        }
+    }
+    
+    public void finish() {
+        if (CURRENT.get() == this) {
+            CURRENT.remove();
+        }
+        finishedAt = System.nanoTime();
+        charge(finishedAt);
+    }
+    
+    public long getTotalNanos() {
+        return (finishedAt == 0 ? System.nanoTime() : finishedAt) - startedAt;
+    }
+    
+    // A JDBC call that started in one phase and finished in another can leave a small negative
+    // remainder in the first; it is reported as zero.
+    public long getNanos(Phase phase) {
+        return Math.max(0, nanos[phase.ordinal()]);
+    }
+    
+    private void push(Phase phase) {
+        charge(System.nanoTime());
+        if (depth < MAX_DEPTH) {
+            stack[depth] = running;
+        }
+        depth++;
+        running = phase;
+    }
+    
+    private void charge(long now) {
+        nanos[running.ordinal()] += now - switchedAt;
+        switchedAt = now;
+    }
+}
@@ -0,0 +1,125 @@
+package com.krb.backend.util;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Collapses concurrent calls for the same key into one execution of the loader. The first caller
+ * runs it on its own thread; callers that arrive while it is running wait for and share its
+ * result or its exception. A successful result is also handed out for freshMillis after it
+ * completes (0 disables this). invalidate detaches the current flight, so callers arriving after a
+ * write start a new execution instead of joining one that may have read the old state.
+ */
+public final class SingleFlight<K, V> {
+    
+    private final Map<K, Flight<V>> flights = new ConcurrentHashMap<>();
+    private final long freshNanos;
+    private final LongAdder calls = new LongAdder();
+    private final LongAdder executions = new LongAdder();
+    private final LongAdder joined = new LongAdder();
+    private final LongAdder freshHits = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+    
+    public SingleFlight(long freshMillis) {
+        if (freshMillis < 0) {
+            throw new IllegalArgumentException("freshMillis must not be negative");
+        }
+        this.freshNanos = TimeUnit.MILLISECONDS.toNanos(freshMillis);
+    }
+    
+    public V get(K key, Supplier<V> loader) {
+        calls.increment();
+        while (true) {
+            Flight<V> current = flights.get(key);
+            if (current != null) {
+                if (!current.result.isDone()) {
+                    joined.increment();
+                    return await(current);
+                }
+                if (current.isFresh(freshNanos)) {
+                    freshHits.increment();
+                    return await(current);
+                }
+            }
+            
+            Flight<V> mine = new Flight<>();
+            boolean leader = current == null
+                    ? flights.putIfAbsent(key, mine) == null
+                    : flights.replace(key, current, mine);
+            if (!leader) {
+                continue;
+            }
+            executions.increment();
+            try {
+                V value = loader.get();
+                mine.completedAt = System.nanoTime();
+                mine.result.complete(value);
+                if (freshNanos == 0) {
+                    flights.remove(key, mine);
+                }
+                return value;
+            } catch (RuntimeException | Error e) {
+                failures.increment();
+                mine.result.completeExceptionally(e);
+                flights.remove(key, mine);
+                throw e;
+            }
+        }
+    }
+    
+    public void invalidate(K key) {
+        flights.remove(key);
+    }
+    
+    public void invalidateAll() {
+        flights.clear();
+    }
+    
+    public Map<String, Object> getStats() {
+        long callCount = calls.sum();
+        long executionCount = executions.sum();
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("freshMillis", TimeUnit.NANOSECONDS.toMillis(freshNanos));
+        stats.put("calls", callCount);
+        stats.put("executions", executionCount);
+        stats.put("joined", joined.sum());
+        stats.put("freshHits", freshHits.sum());
+        stats.put("saved", callCount - executionCount);
+        stats.put("failures", failures.sum());
+        return stats;
+    }
+    
+    private static <V> V await(Flight<V> flight) {
+        try {
+            return flight.result.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw e;
+        } catch (CancellationException e) {
+            throw new IllegalStateException("Shared execution was cancelled", e);
+        }
+    }
+    
+    private static final class Flight<V> {
+        
+        private final CompletableFuture<V> result = new CompletableFuture<>();
+        private volatile long completedAt;
+        
+        private boolean isFresh(long freshNanos) {
+            return freshNanos > 0 && !result.isCompletedExceptionally()
+                    && System.nanoTime() - completedAt < freshNanos;
+        }
+    }
+}
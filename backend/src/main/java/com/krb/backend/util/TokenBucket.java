@@ -0,0 +1,42 @@
+package com.krb.backend.util;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+public class TokenBucket {
+    
+    private final long refillIntervalNanos;
+    private final long burstWindowNanos;
+    private final AtomicLong nextFreeAt;
+    
+    // Stored as the instant the bucket will be full again (the GCRA formulation), which keeps the
+    // whole bucket in a single long that can be updated with one compare-and-set.
+    public TokenBucket(double tokensPerSecond, int capacity, long nowNanos) {
+        this.refillIntervalNanos = Math.max(1, (long) (1_000_000_000L / tokensPerSecond));
+        this.burstWindowNanos = refillIntervalNanos * Math.max(1, capacity);
+        this.nextFreeAt = new AtomicLong(nowNanos);
+    }
+    
+    public long tryAcquire(long nowNanos) {
+        while (true) {
+            long current = nextFreeAt.get();
+            long base = current - nowNanos > 0 ? current : nowNanos;
+            long next = base + refillIntervalNanos;
+            long overdraw = next - nowNanos - burstWindowNanos;
+            if (overdraw > 0) {
+                return overdraw;
+            }
+            if (nextFreeAt.compareAndSet(current, next)) {
+                return 0;
+            }
+        }
+    }
+    
+    // Gives back a token taken by tryAcquire for a request that was then turned away elsewhere.
+    public void refund() {
+        nextFreeAt.addAndGet(-refillIntervalNanos);
+    }
+    
+    public boolean isFull(long nowNanos) {
+        return nextFreeAt.get() - nowNanos <= 0;
+    }
+}
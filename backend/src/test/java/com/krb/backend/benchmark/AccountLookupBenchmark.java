@@ -0,0 +1,145 @@
+package com.krb.backend.benchmark;
+
+import com.krb.backend.KrbBackendApplication;
+import com.krb.backend.dto.AccountDto;
+import com.krb.backend.entity.Account;
+import com.krb.backend.entity.Customer;
+import com.krb.backend.entity.Employee;
+import com.krb.backend.repository.AccountRepository;
+import com.krb.backend.repository.CustomerRepository;
+import com.krb.backend.repository.EmployeeRepository;
+import com.krb.backend.service.AccountNumberIndexService;
+import com.krb.backend.service.AccountService;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Compares GET /api/accounts/number/{accountNumber} as it was (transactional service, repository
+ * lookup by the unique index, entity to DTO) with the account-number index, both driven in-process
+ * against an in-memory H2 database from one thread per core. The index is filled with one pass
+ * over every account before its timed run, so that run measures steady-state hits.
+ *
+ * mvn -q test-compile exec:java -Dexec.classpathScope=test \
+ *     -Dexec.mainClass=com.krb.backend.benchmark.AccountLookupBenchmark
+ */
+public class AccountLookupBenchmark {
+    
+    private static final int ACCOUNTS = 10_000;
+    private static final int THREADS = Math.max(2, Runtime.getRuntime().availableProcessors());
+    private static final long WARMUP_MILLIS = 3_000;
+    private static final long RUN_MILLIS = 5_000;
+    
+    public static void main(String[] args) throws Exception {
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(KrbBackendApplication.class)
+                .web(WebApplicationType.NONE)
+                .run(
+                        "--spring.datasource.url=jdbc:h2:mem:lookup-benchmark;DB_CLOSE_DELAY=-1",
+                        "--spring.jpa.show-sql=false",
+                        "--logging.level.root=WARN",
+                        "--krb.warmup.enabled=false",
+                        "--krb.audit.directory=" + Files.createTempDirectory("lookup-benchmark-audit"),
+                        "--krb.reports.directory=" + Files.createTempDirectory("lookup-benchmark-reports"),
+                        "--krb.account-index.max-entries=" + ACCOUNTS * 2);
+        try {
+            String[] accountNumbers = seed(context);
+            AccountService accountService = context.getBean(AccountService.class);
+            AccountNumberIndexService indexService = context.getBean(AccountNumberIndexService.class);
+            
+            run(accountNumbers, accountService::getAccountByAccountNumber, WARMUP_MILLIS);
+            double repository = run(accountNumbers, accountService::getAccountByAccountNumber, RUN_MILLIS);
+            long fillStarted = System.nanoTime();
+            for (String accountNumber : accountNumbers) {
+                indexService.getAccountByAccountNumber(accountNumber);
+            }
+            long fillMs = (System.nanoTime() - fillStarted) / 1_000_000;
+            run(accountNumbers, indexService::getAccountByAccountNumber, WARMUP_MILLIS);
+            double indexed = run(accountNumbers, indexService::getAccountByAccountNumber, RUN_MILLIS);
+            
+            System.out.printf("%-20s %15s%n", "path", "lookups/s");
+            System.out.printf("%-20s %,15.0f%n", "repository", repository);
+            System.out.printf("%-20s %,15.0f%n", "account index", indexed);
+            System.out.printf("%nspeed-up %.0fx, %d threads, %,d accounts, index filled in %d ms%n",
+                    indexed / repository, THREADS, ACCOUNTS, fillMs);
+            System.out.println(indexService.getStats());
+        } finally {
+            context.close();
+        }
+    }
+    
+    private static String[] seed(ConfigurableApplicationContext context) {
+        CustomerRepository customerRepository = context.getBean(CustomerRepository.class);
+        AccountRepository accountRepository = context.getBean(AccountRepository.class);
+        Employee employee = context.getBean(EmployeeRepository.class).findAll().get(0);
+        TransactionTemplate transaction = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        
+        String[] accountNumbers = new String[ACCOUNTS];
+        int perBatch = 1000;
+        for (int start = 0; start < ACCOUNTS; start += perBatch) {
+            int first = start;
+            transaction.executeWithoutResult(status -> {
+                List<Account> accounts = new ArrayList<>(perBatch);
+                for (int i = first; i < first + perBatch && i < ACCOUNTS; i++) {
+                    Customer customer = new Customer("First" + i, "Last" + i, "customer" + i + "@example.com",
+                            String.format("555%07d", i), "1 Main St", LocalDate.of(1980, 1, 1),
+                            String.format("%03d-%02d-%04d", i / 1_000_000, (i / 10_000) % 100, i % 10_000), employee);
+                    customerRepository.save(customer);
+                    
+                    Account account = new Account();
+                    account.setAccountType(Account.AccountType.SAVINGS);
+                    account.setAccountNumber(String.format("SAV%08d", i));
+                    account.setBalance(BigDecimal.valueOf(1000 + i));
+                    account.setCustomer(customer);
+                    account.setCreatedBy(employee);
+                    accounts.add(account);
+                    accountNumbers[i] = account.getAccountNumber();
+                }
+                accountRepository.saveAll(accounts);
+            });
+        }
+        return accountNumbers;
+    }
+    
+    private static double run(String[] accountNumbers, Function<String, Optional<AccountDto>> lookup, long millis)
+            throws InterruptedException {
+        LongAdder completed = new LongAdder();
+        CountDownLatch start = new CountDownLatch(1);
+        long deadline = System.nanoTime() + millis * 1_000_000;
+        Thread[] workers = new Thread[THREADS];
+        for (int t = 0; t < THREADS; t++) {
+            workers[t] = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                while (System.nanoTime() < deadline) {
+                    if (lookup.apply(accountNumbers[random.nextInt(accountNumbers.length)]).isEmpty()) {
+                        throw new IllegalStateException("Seeded account not found");
+                    }
+                    completed.increment();
+                }
+            });
+            workers[t].start();
+        }
+        long begin = System.nanoTime();
+        start.countDown();
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        return completed.sum() / ((System.nanoTime() - begin) / 1e9);
+    }
+}
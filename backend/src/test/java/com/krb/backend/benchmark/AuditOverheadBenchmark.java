@@ -0,0 +1,105 @@
+package com.krb.backend.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.krb.backend.dto.AuditEvent;
+import com.krb.backend.entity.Tombstone;
+import com.krb.backend.util.AuditLog;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.stream.Stream;
+
+/**
+ * Measures what a mutating request pays for auditing: building the event and handing it to the
+ * ring buffer, with the writer draining to real segment files concurrently. The target is well
+ * under 50µs per call at p99.
+ *
+ * mvn -q test-compile exec:java -Dexec.classpathScope=test \
+ *     -Dexec.mainClass=com.krb.backend.benchmark.AuditOverheadBenchmark
+ */
+public class AuditOverheadBenchmark {
+    
+    private static final int THREADS = 8;
+    private static final int WARMUP_EVENTS = 200_000;
+    private static final int EVENTS_PER_THREAD = 100_000;
+    private static final long PACED_GAP_NANOS = 50_000;
+    
+    public static void main(String[] args) throws Exception {
+        Path directory = Files.createTempDirectory("audit-benchmark");
+        AuditLog auditLog = new AuditLog(directory, 65536, 1024, 64L * 1024 * 1024, 50, 20, new ObjectMapper());
+        auditLog.start();
+        try {
+            run(auditLog, 1, WARMUP_EVENTS, 0);
+            System.out.printf("%-28s %10s %10s %10s %10s%n", "run", "mean ns", "p50 ns", "p99 ns", "p99.9 ns");
+            report("1 thread, paced", run(auditLog, 1, EVENTS_PER_THREAD, PACED_GAP_NANOS));
+            report(THREADS + " threads, paced", run(auditLog, THREADS, EVENTS_PER_THREAD, PACED_GAP_NANOS));
+            report(THREADS + " threads, saturating", run(auditLog, THREADS, EVENTS_PER_THREAD, 0));
+            
+            Thread.sleep(500);
+            Map<String, Object> stats = auditLog.getStats();
+            System.out.printf("%nwritten=%s dropped=%s batches=%s avgBatchSize=%.1f fsyncs=%s%n",
+                    stats.get("written"), stats.get("dropped"), stats.get("batches"),
+                    (Double) stats.get("avgBatchSize"), stats.get("fsyncs"));
+        } finally {
+            auditLog.close();
+            deleteRecursively(directory);
+        }
+    }
+    
+    // The paced runs leave a gap between events on each thread, standing in for the rest of a request;
+    // the saturating run produces faster than the writer can encode, so it exercises the loss policy.
+    private static long[] run(AuditLog auditLog, int threads, int eventsPerThread, long gapNanos)
+            throws InterruptedException {
+        long[] samples = new long[threads * eventsPerThread];
+        CountDownLatch start = new CountDownLatch(1);
+        Thread[] workers = new Thread[threads];
+        for (int t = 0; t < threads; t++) {
+            int offset = t * eventsPerThread;
+            long actor = t + 1;
+            workers[t] = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (int i = 0; i < eventsPerThread; i++) {
+                    long begin = System.nanoTime();
+                    auditLog.append(new AuditEvent(actor, Tombstone.EntityType.ACCOUNT, (long) i,
+                            AuditEvent.Action.BALANCE_CHANGE, "100.00 -> " + i));
+                    samples[offset + i] = System.nanoTime() - begin;
+                    long resume = System.nanoTime() + gapNanos;
+                    while (gapNanos > 0 && System.nanoTime() - resume < 0) {
+                        Thread.onSpinWait();
+                    }
+                }
+            });
+            workers[t].start();
+        }
+        start.countDown();
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        return samples;
+    }
+    
+    private static void report(String name, long[] samples) {
+        Arrays.sort(samples);
+        double mean = Arrays.stream(samples).average().orElse(0);
+        System.out.printf("%-28s %10.0f %10d %10d %10d%n", name, mean,
+                percentile(samples, 0.50), percentile(samples, 0.99), percentile(samples, 0.999));
+    }
+    
+    private static long percentile(long[] sorted, double quantile) {
+        return sorted[Math.min(sorted.length - 1, (int) (sorted.length * quantile))];
+    }
+    
+    private static void deleteRecursively(Path directory) throws IOException {
+        try (Stream<Path> paths = Files.walk(directory)) {
+            paths.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+}
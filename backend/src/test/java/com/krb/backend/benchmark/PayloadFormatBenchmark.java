@@ -0,0 +1,94 @@
+package com.krb.backend.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.krb.backend.dto.AccountDto;
+import com.krb.backend.entity.Account;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Compares payload size and serialization CPU of a 10k-row account list as JSON, CBOR and Smile,
+ * with and without gzip.
+ *
+ * mvn -q test-compile exec:java -Dexec.classpathScope=test \
+ *     -Dexec.mainClass=com.krb.backend.benchmark.PayloadFormatBenchmark
+ */
+public class PayloadFormatBenchmark {
+    
+    private static final int ROWS = 10_000;
+    private static final int WARMUP_ITERATIONS = 50;
+    private static final int MEASURED_ITERATIONS = 100;
+    
+    public static void main(String[] args) throws IOException {
+        List<AccountDto> accounts = sampleAccounts();
+        
+        ObjectMapper json = Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+        ObjectMapper cbor = Jackson2ObjectMapperBuilder.json()
+                .factory(new CBORFactory())
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+        ObjectMapper smile = Jackson2ObjectMapperBuilder.json()
+                .factory(new SmileFactory())
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+        
+        System.out.printf("%-12s %12s %12s %14s%n", "format", "bytes", "gzip bytes", "encode ms/op");
+        report("json", json, accounts);
+        report("cbor", cbor, accounts);
+        report("smile", smile, accounts);
+    }
+    
+    private static void report(String name, ObjectMapper mapper, List<AccountDto> accounts) throws IOException {
+        byte[] encoded = mapper.writeValueAsBytes(accounts);
+        
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+            mapper.writeValueAsBytes(accounts);
+        }
+        long start = System.nanoTime();
+        long sink = 0;
+        for (int i = 0; i < MEASURED_ITERATIONS; i++) {
+            sink += mapper.writeValueAsBytes(accounts).length;
+        }
+        double msPerOp = (System.nanoTime() - start) / 1_000_000.0 / MEASURED_ITERATIONS;
+        
+        System.out.printf("%-12s %12d %12d %14.2f%n", name, encoded.length, gzip(encoded).length, msPerOp);
+        if (sink == 0) {
+            System.out.println();
+        }
+    }
+    
+    private static byte[] gzip(byte[] data) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(data);
+        }
+        return out.toByteArray();
+    }
+    
+    private static List<AccountDto> sampleAccounts() {
+        Account.AccountType[] types = Account.AccountType.values();
+        Account.AccountStatus[] statuses = Account.AccountStatus.values();
+        LocalDateTime now = LocalDateTime.now();
+        List<AccountDto> accounts = new ArrayList<>(ROWS);
+        for (int i = 0; i < ROWS; i++) {
+            Account.AccountType type = types[i % types.length];
+            accounts.add(new AccountDto((long) i, "SAV" + (10_000_000 + i), type,
+                    BigDecimal.valueOf(i * 37L % 1_000_000, 2), BigDecimal.valueOf(type.getDefaultInterestRate()),
+                    type == Account.AccountType.CREDIT_CARD ? BigDecimal.valueOf(5000) : null,
+                    statuses[i % statuses.length], now.minusDays(i % 365), now,
+                    (long) (i / 3), "Customer " + (i / 3), (long) (i % 20), "Employee " + (i % 20)));
+        }
+        return accounts;
+    }
+}
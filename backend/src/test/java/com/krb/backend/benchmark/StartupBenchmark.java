@@ -0,0 +1,135 @@
+package com.krb.backend.benchmark;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.ZipFile;
+
+/**
+ * Launches the packaged backend repeatedly and reports time from process start to the first
+ * successful response, for the default configuration and the startup-optimised variants that
+ * have been built. Run from backend/ after "mvn package" (and optionally ./cds-train.sh --aot).
+ *
+ * mvn -q test-compile exec:java -Dexec.classpathScope=test \
+ *     -Dexec.mainClass=com.krb.backend.benchmark.StartupBenchmark
+ */
+public class StartupBenchmark {
+    
+    private static final int RUNS = 3;
+    private static final Duration TIMEOUT = Duration.ofMinutes(2);
+    private static final String PROBE = "/api/employees/count";
+    private static final String AOT_MARKER = "com/krb/backend/KrbBackendApplication__ApplicationContextInitializer.class";
+    
+    private static final HttpClient HTTP = HttpClient.newBuilder().connectTimeout(Duration.ofMillis(200)).build();
+    
+    public static void main(String[] args) throws Exception {
+        Path fatJar = Files.list(Path.of("target"))
+                .filter(path -> path.getFileName().toString().matches("krb-backend-.*\\.jar"))
+                .findFirst()
+                .orElseThrow(() -> new IllegalStateException("Run mvn package first"));
+        Path cdsJar = Path.of("target", "cds", "app.jar");
+        Path cdsArchive = Path.of("target", "cds", "app.jsa");
+        Path workDir = Files.createTempDirectory("startup-benchmark");
+        
+        // Replicas join an existing database, so the schema and seed data are created once up front.
+        List<String> common = List.of(
+                "--spring.datasource.url=jdbc:h2:file:" + workDir.resolve("db") + ";DB_CLOSE_ON_EXIT=FALSE",
+                "--krb.audit.directory=" + workDir.resolve("audit"),
+                "--spring.jpa.show-sql=false");
+        measure(command(List.of(), fatJar, common, List.of()));
+        
+        System.out.printf("%-34s %10s %10s %10s%n", "configuration", "min ms", "median ms", "max ms");
+        report("fat jar, default", command(List.of(), fatJar, common, List.of()));
+        List<String> fatJarFlags = aotFlags(fatJar);
+        report("fat jar" + (fatJarFlags.isEmpty() ? "" : " + aot") + ", fast-start",
+                command(fatJarFlags, fatJar, common, List.of("--spring.profiles.active=fast-start")));
+        if (Files.exists(cdsArchive)) {
+            List<String> cdsFlags = aotFlags(cdsJar);
+            List<String> jvm = new ArrayList<>(cdsFlags);
+            jvm.add("-XX:SharedArchiveFile=" + cdsArchive);
+            jvm.add("-Xlog:cds=off");
+            report("cds" + (cdsFlags.isEmpty() ? "" : " + aot") + ", fast-start",
+                    command(jvm, cdsJar, common, List.of("--spring.profiles.active=fast-start")));
+        } else {
+            System.out.println("(no target/cds/app.jsa: run ./cds-train.sh --aot to include the CDS configuration)");
+        }
+    }
+    
+    private static void report(String name, List<String> command) throws Exception {
+        long[] millis = new long[RUNS];
+        for (int i = 0; i < RUNS; i++) {
+            millis[i] = measure(command);
+        }
+        Arrays.sort(millis);
+        System.out.printf("%-34s %10d %10d %10d%n", name, millis[0], millis[RUNS / 2], millis[RUNS - 1]);
+    }
+    
+    private static long measure(List<String> command) throws Exception {
+        int port = freePort();
+        List<String> withPort = new ArrayList<>(command);
+        withPort.add("--server.port=" + port);
+        HttpRequest probe = HttpRequest.newBuilder(URI.create("http://localhost:" + port + PROBE))
+                .timeout(Duration.ofSeconds(5))
+                .build();
+        
+        long start = System.nanoTime();
+        Process process = new ProcessBuilder(withPort)
+                .redirectErrorStream(true)
+                .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+                .start();
+        try {
+            while (System.nanoTime() - start < TIMEOUT.toNanos()) {
+                if (!process.isAlive()) {
+                    throw new IllegalStateException("Backend exited with " + process.exitValue() + ": " + withPort);
+                }
+                try {
+                    if (HTTP.send(probe, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+                    }
+                } catch (IOException notListeningYet) {
+                }
+                Thread.sleep(20);
+            }
+            throw new IllegalStateException("No successful response within " + TIMEOUT);
+        } finally {
+            process.destroy();
+            if (!process.waitFor(30, TimeUnit.SECONDS)) {
+                process.destroyForcibly().waitFor();
+            }
+        }
+    }
+    
+    private static List<String> command(List<String> jvmArgs, Path jar, List<String> common, List<String> extra) {
+        List<String> command = new ArrayList<>();
+        command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        command.addAll(jvmArgs);
+        command.add("-jar");
+        command.add(jar.toString());
+        command.addAll(common);
+        command.addAll(extra);
+        return command;
+    }
+    
+    private static List<String> aotFlags(Path jar) throws IOException {
+        try (ZipFile zip = new ZipFile(jar.toFile())) {
+            boolean hasAot = zip.getEntry(AOT_MARKER) != null || zip.getEntry("BOOT-INF/classes/" + AOT_MARKER) != null;
+            return hasAot ? List.of("-Dspring.aot.enabled=true") : List.of();
+        }
+    }
+    
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
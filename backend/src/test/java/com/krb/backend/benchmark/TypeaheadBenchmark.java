@@ -0,0 +1,124 @@
+package com.krb.backend.benchmark;
+
+import com.krb.backend.service.TypeaheadService;
+import com.krb.backend.util.PrefixIndex;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Builds the typeahead index over synthetic customers (first name, last name, full name and email
+ * per customer, so four entries each), then reports its heap footprint per million entries, top-10
+ * prefix lookup latency, and the cost of incremental updates including overlay compactions.
+ *
+ * mvn -q test-compile exec:java -Dexec.classpathScope=test \
+ *     -Dexec.mainClass=com.krb.backend.benchmark.TypeaheadBenchmark
+ */
+public class TypeaheadBenchmark {
+    
+    private static final int CUSTOMERS = 250_000;
+    private static final int QUERIES = 200_000;
+    private static final int UPDATES = 100_000;
+    private static final int LIMIT = 10;
+    
+    private static final String[] FIRST_NAMES = {"James", "Mary", "Robert", "Patricia", "John", "Jennifer", "Michael",
+            "Linda", "David", "Elizabeth", "William", "Barbara", "Richard", "Susan", "José", "Zoë", "Anaïs", "Li", "Priya"};
+    private static final String[] LAST_NAMES = {"Smith", "Johnson", "Williams", "Brown", "Jones", "Garcia", "Miller",
+            "Davis", "Rodriguez", "Martinez", "Hernandez", "Lopez", "Gonzalez", "Wilson", "Anderson", "Thomas", "Nguyen"};
+    
+    public static void main(String[] args) {
+        Random random = new Random(42);
+        List<PrefixIndex.Entry> entries = new ArrayList<>(CUSTOMERS * 4);
+        for (long id = 1; id <= CUSTOMERS; id++) {
+            String first = FIRST_NAMES[random.nextInt(FIRST_NAMES.length)] + suffix(random);
+            String last = LAST_NAMES[random.nextInt(LAST_NAMES.length)] + suffix(random);
+            addCustomer(entries, id, first, last);
+        }
+        
+        long heapBefore = usedHeap();
+        PrefixIndex index = new PrefixIndex(4096);
+        long buildStarted = System.nanoTime();
+        index.rebuild(entries);
+        long buildMs = (System.nanoTime() - buildStarted) / 1_000_000;
+        long heapAfter = usedHeap();
+        entries = null;
+        
+        long measured = heapAfter - heapBefore;
+        System.out.printf("entries=%d build=%d ms%n", index.size(), buildMs);
+        System.out.printf("estimated %.1f MB (%.1f MB per million entries), measured heap delta %.1f MB%n",
+                index.getEstimatedBytes() / 1e6, index.getEstimatedBytes() * 1e6 / index.size() / 1e6, measured / 1e6);
+        
+        String[] prefixes = new String[QUERIES];
+        for (int i = 0; i < QUERIES; i++) {
+            String source = random.nextBoolean()
+                    ? FIRST_NAMES[random.nextInt(FIRST_NAMES.length)]
+                    : LAST_NAMES[random.nextInt(LAST_NAMES.length)];
+            prefixes[i] = TypeaheadService.normalize(source.substring(0, 1 + random.nextInt(Math.min(4, source.length()))));
+        }
+        for (int i = 0; i < QUERIES; i++) {
+            index.search(prefixes[i], LIMIT, entry -> true);
+        }
+        
+        System.out.printf("%n%-28s %10s %10s %10s %10s%n", "run", "mean ns", "p50 ns", "p99 ns", "p99.9 ns");
+        long[] samples = new long[QUERIES];
+        for (int i = 0; i < QUERIES; i++) {
+            long begin = System.nanoTime();
+            index.search(prefixes[i], LIMIT, entry -> true);
+            samples[i] = System.nanoTime() - begin;
+        }
+        report("search, snapshot only", samples);
+        
+        long[] updates = new long[UPDATES];
+        for (int i = 0; i < UPDATES; i++) {
+            long id = 1 + random.nextInt(CUSTOMERS);
+            String last = LAST_NAMES[random.nextInt(LAST_NAMES.length)] + suffix(random);
+            long begin = System.nanoTime();
+            index.add(TypeaheadService.normalize(last), id, (byte) TypeaheadService.Field.LAST_NAME.ordinal());
+            updates[i] = System.nanoTime() - begin;
+        }
+        report("add (incl. compactions)", updates);
+        
+        for (int i = 0; i < QUERIES; i++) {
+            long begin = System.nanoTime();
+            index.search(prefixes[i], LIMIT, entry -> true);
+            samples[i] = System.nanoTime() - begin;
+        }
+        report("search, snapshot + overlay", samples);
+        System.out.printf("%noverlay=%d compactions=%d%n", index.getOverlaySize(), index.getCompactions());
+    }
+    
+    private static void addCustomer(List<PrefixIndex.Entry> entries, long id, String first, String last) {
+        entries.add(new PrefixIndex.Entry(TypeaheadService.normalize(first), id,
+                (byte) TypeaheadService.Field.FIRST_NAME.ordinal()));
+        entries.add(new PrefixIndex.Entry(TypeaheadService.normalize(last), id,
+                (byte) TypeaheadService.Field.LAST_NAME.ordinal()));
+        entries.add(new PrefixIndex.Entry(TypeaheadService.normalize(first + " " + last), id,
+                (byte) TypeaheadService.Field.FULL_NAME.ordinal()));
+        entries.add(new PrefixIndex.Entry(TypeaheadService.normalize(first + "." + last + id + "@example.com"), id,
+                (byte) TypeaheadService.Field.EMAIL.ordinal()));
+    }
+    
+    private static String suffix(Random random) {
+        return random.nextInt(4) == 0 ? "" : String.valueOf((char) ('a' + random.nextInt(26)));
+    }
+    
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+    
+    private static void report(String name, long[] samples) {
+        Arrays.sort(samples);
+        double mean = Arrays.stream(samples).average().orElse(0);
+        System.out.printf("%-28s %10.0f %10d %10d %10d%n", name, mean,
+                percentile(samples, 0.50), percentile(samples, 0.99), percentile(samples, 0.999));
+    }
+    
+    private static long percentile(long[] sorted, double quantile) {
+        return sorted[Math.min(sorted.length - 1, (int) (sorted.length * quantile))];
+    }
+}
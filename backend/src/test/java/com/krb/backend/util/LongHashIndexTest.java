@@ -0,0 +1,132 @@
+package com.krb.backend.util;
+
+import org.junit.jupiter.api.Test;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LongHashIndexTest {
+    
+    @Test
+    void putGetAndOverwrite() {
+        LongHashIndex<String> index = new LongHashIndex<>(8);
+        index.put(42, 1, "a");
+        index.put(42, 2, "b");
+        
+        assertEquals("b", index.get(42));
+        assertEquals(1, index.size());
+        assertNull(index.get(43));
+    }
+    
+    @Test
+    void rejectsTheEmptyKey() {
+        LongHashIndex<String> index = new LongHashIndex<>(8);
+        assertThrows(IllegalArgumentException.class, () -> index.put(0, 1, "a"));
+    }
+    
+    // Three keys homed in the last slot fill it and wrap into slots 0 and 1, and a key homed in
+    // slot 0 is pushed to slot 2; every removal has to shift the rest back across the end.
+    @Test
+    void removeShiftsRunsBackAcrossTheEndOfTheTable() {
+        LongHashIndex<String> index = new LongHashIndex<>(8);
+        int lastSlot = index.capacity() - 1;
+        List<Long> wrapping = keysHomedAt(lastSlot, index.capacity(), 3);
+        long homedAtZero = keysHomedAt(0, index.capacity(), 1).get(0);
+        for (long key : wrapping) {
+            index.put(key, key, "w" + key);
+        }
+        index.put(homedAtZero, homedAtZero, "z");
+        
+        assertTrue(index.remove(wrapping.get(0)));
+        assertNull(index.get(wrapping.get(0)));
+        assertEquals("w" + wrapping.get(1), index.get(wrapping.get(1)));
+        assertEquals("w" + wrapping.get(2), index.get(wrapping.get(2)));
+        assertEquals("z", index.get(homedAtZero));
+        
+        assertTrue(index.remove(wrapping.get(2)));
+        assertEquals("w" + wrapping.get(1), index.get(wrapping.get(1)));
+        assertEquals("z", index.get(homedAtZero));
+        assertFalse(index.remove(wrapping.get(2)));
+        assertEquals(2, index.size());
+    }
+    
+    @Test
+    void matchesAMapUnderRandomPutsAndRemoves() {
+        LongHashIndex<Long> index = new LongHashIndex<>(64);
+        Map<Long, Long> expected = new HashMap<>();
+        Random random = new Random(7);
+        for (int i = 0; i < 20_000; i++) {
+            long key = 1 + random.nextInt(60);
+            if (random.nextBoolean()) {
+                index.put(key, key, (long) i);
+                expected.put(key, (long) i);
+            } else {
+                assertEquals(expected.remove(key) != null, index.remove(key));
+            }
+            if (i % 100 == 0) {
+                for (long probe = 1; probe <= 60; probe++) {
+                    assertEquals(expected.get(probe), index.get(probe));
+                }
+            }
+        }
+        assertEquals(expected.size(), index.size());
+        assertEquals(0, index.getEvictions());
+    }
+    
+    @Test
+    void evictsOneEntryPerInsertAtCapacity() {
+        LongHashIndex<String> index = new LongHashIndex<>(8);
+        for (long key = 1; key <= 8; key++) {
+            index.put(key, key, "v" + key);
+        }
+        index.put(3, 3, "updated");
+        assertEquals(0, index.getEvictions());
+        
+        index.put(100, 100, "new");
+        
+        assertEquals(8, index.size());
+        assertEquals(1, index.getEvictions());
+        assertEquals("new", index.get(100));
+        int present = 0;
+        for (long key = 1; key <= 8; key++) {
+            if (index.get(key) != null) {
+                present++;
+            }
+        }
+        assertEquals(7, present);
+    }
+    
+    @Test
+    void removeIfDeletesMatchingEntries() {
+        LongHashIndex<String> index = new LongHashIndex<>(32);
+        for (long key = 1; key <= 20; key++) {
+            index.put(key, key, "v" + key);
+        }
+        
+        assertEquals(10, index.removeIf((id, value) -> id % 2 == 0));
+        
+        for (long key = 1; key <= 20; key++) {
+            assertEquals(key % 2 == 0 ? null : "v" + key, index.get(key));
+        }
+    }
+    
+    // Same hash as LongHashIndex.home, searched for keys that land in a given slot.
+    private static List<Long> keysHomedAt(int slot, int capacity, int count) {
+        List<Long> keys = new ArrayList<>();
+        for (long key = 1; keys.size() < count; key++) {
+            long hash = key * 0x9E3779B97F4A7C15L;
+            if (((int) (hash ^ (hash >>> 32)) & (capacity - 1)) == slot) {
+                keys.add(key);
+            }
+        }
+        return keys;
+    }
+}
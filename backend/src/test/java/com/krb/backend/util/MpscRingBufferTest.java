@@ -0,0 +1,102 @@
+package com.krb.backend.util;
+
+import org.junit.jupiter.api.Test;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MpscRingBufferTest {
+    
+    @Test
+    void roundsCapacityUpToAPowerOfTwo() {
+        assertEquals(8, new MpscRingBuffer<Integer>(5).capacity());
+        assertEquals(8, new MpscRingBuffer<Integer>(8).capacity());
+    }
+    
+    @Test
+    void rejectsOffersWhenFullAndDrainsNothingWhenEmpty() {
+        MpscRingBuffer<Integer> buffer = new MpscRingBuffer<>(4);
+        List<Integer> drained = new ArrayList<>();
+        assertEquals(0, buffer.drainTo(drained, 10));
+        
+        for (int i = 0; i < 4; i++) {
+            assertTrue(buffer.offer(i));
+        }
+        assertFalse(buffer.offer(4));
+        assertEquals(4, buffer.size());
+        
+        assertEquals(1, buffer.drainTo(drained, 1));
+        assertTrue(buffer.offer(4));
+        assertFalse(buffer.offer(5));
+    }
+    
+    @Test
+    void drainsInOfferOrderAcrossWrapAround() {
+        MpscRingBuffer<Integer> buffer = new MpscRingBuffer<>(4);
+        List<Integer> drained = new ArrayList<>();
+        int next = 0;
+        for (int round = 0; round < 10; round++) {
+            while (buffer.offer(next)) {
+                next++;
+            }
+            buffer.drainTo(drained, 3);
+        }
+        buffer.drainTo(drained, Integer.MAX_VALUE);
+        
+        assertEquals(next, drained.size());
+        for (int i = 0; i < next; i++) {
+            assertEquals(i, drained.get(i));
+        }
+        assertEquals(0, buffer.size());
+    }
+    
+    @Test
+    void keepsEachProducersOrderUnderConcurrentOffers() throws InterruptedException {
+        int producers = 4;
+        int perProducer = 50_000;
+        MpscRingBuffer<long[]> buffer = new MpscRingBuffer<>(1024);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> threads = new ArrayList<>();
+        for (int p = 0; p < producers; p++) {
+            long producer = p;
+            Thread thread = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (long i = 0; i < perProducer; i++) {
+                    while (!buffer.offer(new long[] {producer, i})) {
+                        Thread.onSpinWait();
+                    }
+                }
+            });
+            thread.start();
+            threads.add(thread);
+        }
+        start.countDown();
+        
+        Map<Long, Long> lastSeen = new HashMap<>();
+        List<long[]> batch = new ArrayList<>();
+        int received = 0;
+        while (received < producers * perProducer) {
+            batch.clear();
+            received += buffer.drainTo(batch, 256);
+            for (long[] item : batch) {
+                long previous = lastSeen.getOrDefault(item[0], -1L);
+                assertEquals(previous + 1, item[1]);
+                lastSeen.put(item[0], item[1]);
+            }
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertEquals(0, buffer.size());
+    }
+}
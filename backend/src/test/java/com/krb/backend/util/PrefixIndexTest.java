@@ -0,0 +1,94 @@
+package com.krb.backend.util;
+
+import org.junit.jupiter.api.Test;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PrefixIndexTest {
+    
+    private static final byte NAME = 1;
+    private static final byte EMAIL = 2;
+    
+    @Test
+    void mergesSnapshotAndOverlayInKeyOrder() {
+        PrefixIndex index = new PrefixIndex(1000);
+        index.rebuild(List.of(
+                new PrefixIndex.Entry("anna", 1, NAME),
+                new PrefixIndex.Entry("anton", 2, NAME),
+                new PrefixIndex.Entry("bob", 3, NAME)));
+        index.add("andrew", 4, NAME);
+        index.add("anya", 5, NAME);
+        
+        assertEquals(3, index.getSnapshotSize());
+        assertEquals(2, index.getOverlaySize());
+        assertEquals(List.of("andrew", "anna", "anton", "anya"), keys(search(index, "an", 10)));
+        assertEquals(List.of("bob"), keys(search(index, "b", 10)));
+    }
+    
+    @Test
+    void overlayRemovalHidesASnapshotEntry() {
+        PrefixIndex index = new PrefixIndex(1000);
+        index.rebuild(List.of(
+                new PrefixIndex.Entry("anna", 1, NAME),
+                new PrefixIndex.Entry("anton", 2, NAME)));
+        
+        index.remove("anna", 1, NAME);
+        index.add("annabel", 1, NAME);
+        
+        assertEquals(List.of("annabel", "anton"), keys(search(index, "an", 10)));
+    }
+    
+    @Test
+    void returnsOneEntryPerIdAndHonoursTheLimitAndFilter() {
+        PrefixIndex index = new PrefixIndex(1000);
+        index.rebuild(List.of(
+                new PrefixIndex.Entry("smith", 1, NAME),
+                new PrefixIndex.Entry("smith@bank.test", 1, EMAIL),
+                new PrefixIndex.Entry("smythe", 2, NAME)));
+        index.add("smart", 3, NAME);
+        
+        assertEquals(List.of("smart", "smith", "smythe"), keys(search(index, "sm", 10)));
+        assertEquals(List.of("smart", "smith"), keys(search(index, "sm", 2)));
+        assertEquals(List.of("smith@bank.test"), keys(index.search("sm", 10, entry -> entry.getTag() == EMAIL)));
+    }
+    
+    @Test
+    void compactionFoldsTheOverlayIntoTheSnapshot() {
+        PrefixIndex index = new PrefixIndex(4);
+        index.rebuild(List.of(new PrefixIndex.Entry("carol", 1, NAME)));
+        for (long id = 2; id <= 6; id++) {
+            index.add("c" + id, id, NAME);
+        }
+        index.remove("carol", 1, NAME);
+        
+        assertEquals(1, index.getCompactions());
+        assertEquals(List.of("c2", "c3", "c4", "c5", "c6"), keys(search(index, "c", 10)));
+        assertEquals(6, index.getSnapshotSize());
+        assertEquals(1, index.getOverlaySize());
+    }
+    
+    // A change made after the rebuild's scan but before it is swapped in is still in the overlay,
+    // so it is replayed over the scanned entries rather than lost.
+    @Test
+    void rebuildReplaysTheOverlayOverTheScannedEntries() {
+        PrefixIndex index = new PrefixIndex(1000);
+        index.add("dave", 1, NAME);
+        index.remove("erin", 2, NAME);
+        
+        index.rebuild(List.of(new PrefixIndex.Entry("erin", 2, NAME)));
+        
+        assertEquals(List.of("dave"), keys(search(index, "d", 10)));
+        assertTrue(search(index, "e", 10).isEmpty());
+    }
+    
+    private static List<PrefixIndex.Entry> search(PrefixIndex index, String prefix, int limit) {
+        return index.search(prefix, limit, entry -> true);
+    }
+    
+    private static List<String> keys(List<PrefixIndex.Entry> entries) {
+        return entries.stream().map(PrefixIndex.Entry::getKey).collect(Collectors.toList());
+    }
+}
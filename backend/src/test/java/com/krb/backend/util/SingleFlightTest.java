@@ -0,0 +1,146 @@
+package com.krb.backend.util;
+
+import org.junit.jupiter.api.Test;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SingleFlightTest {
+    
+    @Test
+    void concurrentCallersShareOneExecution() throws Exception {
+        SingleFlight<String, Integer> flight = new SingleFlight<>(0);
+        AtomicInteger executions = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<Integer>> results = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                results.add(pool.submit(() -> flight.get("count", () -> {
+                    executions.incrementAndGet();
+                    await(release);
+                    return 42;
+                })));
+            }
+            waitFor(flight, "joined", 7);
+            release.countDown();
+            
+            for (Future<Integer> result : results) {
+                assertEquals(42, result.get(5, TimeUnit.SECONDS));
+            }
+            assertEquals(1, executions.get());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+    
+    @Test
+    void waitersReceiveTheLeadersExceptionAndTheNextCallRetries() throws Exception {
+        SingleFlight<String, Integer> flight = new SingleFlight<>(60_000);
+        IllegalStateException failure = new IllegalStateException("database down");
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(2);
+        try {
+            Future<Integer> leader = pool.submit(() -> flight.get("count", () -> {
+                started.countDown();
+                await(release);
+                throw failure;
+            }));
+            started.await();
+            Future<Integer> waiter = pool.submit(() -> flight.get("count", () -> 0));
+            waitFor(flight, "joined", 1);
+            release.countDown();
+            
+            assertSame(failure, assertThrows(ExecutionException.class, () -> leader.get(5, TimeUnit.SECONDS)).getCause());
+            assertSame(failure, assertThrows(ExecutionException.class, () -> waiter.get(5, TimeUnit.SECONDS)).getCause());
+        } finally {
+            pool.shutdownNow();
+        }
+        
+        // A failure is never served as a fresh result.
+        assertEquals(7, flight.get("count", () -> 7));
+        assertEquals(1L, flight.getStats().get("failures"));
+    }
+    
+    @Test
+    void freshResultsAreReusedUntilInvalidated() {
+        SingleFlight<String, Integer> flight = new SingleFlight<>(60_000);
+        AtomicInteger executions = new AtomicInteger();
+        
+        assertEquals(1, flight.get("count", executions::incrementAndGet));
+        assertEquals(1, flight.get("count", executions::incrementAndGet));
+        assertEquals(1, executions.get());
+        
+        flight.invalidate("count");
+        assertEquals(2, flight.get("count", executions::incrementAndGet));
+        assertEquals(2, flight.get("count", executions::incrementAndGet));
+    }
+    
+    @Test
+    void withoutFreshnessEveryCompletedCallRunsAgain() {
+        SingleFlight<String, Integer> flight = new SingleFlight<>(0);
+        AtomicInteger executions = new AtomicInteger();
+        
+        flight.get("count", executions::incrementAndGet);
+        flight.get("count", executions::incrementAndGet);
+        
+        assertEquals(2, executions.get());
+    }
+    
+    // invalidate detaches a running flight: a caller arriving after a write starts its own
+    // execution instead of joining one that may have read the old state.
+    @Test
+    void invalidateDetachesARunningFlight() throws Exception {
+        SingleFlight<String, Integer> flight = new SingleFlight<>(0);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService pool = Executors.newSingleThreadExecutor();
+        try {
+            Future<Integer> stale = pool.submit(() -> flight.get("count", () -> {
+                started.countDown();
+                await(release);
+                return 1;
+            }));
+            started.await();
+            
+            flight.invalidate("count");
+            assertEquals(2, flight.get("count", () -> 2));
+            
+            release.countDown();
+            assertEquals(1, stale.get(5, TimeUnit.SECONDS));
+            assertEquals(2L, flight.getStats().get("executions"));
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+    
+    // A caller counted as joined has seen the running flight and will wait on its result.
+    private static void waitFor(SingleFlight<?, ?> flight, String stat, long count) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while ((long) flight.getStats().get(stat) < count) {
+            assertTrue(System.nanoTime() < deadline, "callers did not join");
+            Thread.sleep(1);
+        }
+    }
+    
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package com.krb.backend.util;
+
+import org.junit.jupiter.api.Test;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TokenBucketTest {
+    
+    private static final long SECOND = 1_000_000_000L;
+    
+    @Test
+    void allowsABurstThenOneTokenPerInterval() {
+        long now = 0;
+        TokenBucket bucket = new TokenBucket(10, 5, now);
+        
+        for (int i = 0; i < 5; i++) {
+            assertEquals(0, bucket.tryAcquire(now));
+        }
+        long wait = bucket.tryAcquire(now);
+        assertEquals(SECOND / 10, wait);
+        
+        assertEquals(0, bucket.tryAcquire(now + wait));
+        assertTrue(bucket.tryAcquire(now + wait) > 0);
+    }
+    
+    @Test
+    void refillsToCapacityAndNoFurther() {
+        TokenBucket bucket = new TokenBucket(10, 3, 0);
+        for (int i = 0; i < 3; i++) {
+            bucket.tryAcquire(0);
+        }
+        assertFalse(bucket.isFull(0));
+        
+        long later = 60 * SECOND;
+        assertTrue(bucket.isFull(later));
+        for (int i = 0; i < 3; i++) {
+            assertEquals(0, bucket.tryAcquire(later));
+        }
+        assertTrue(bucket.tryAcquire(later) > 0);
+    }
+    
+    @Test
+    void refundReturnsTheTokenTaken() {
+        TokenBucket bucket = new TokenBucket(10, 2, 0);
+        assertEquals(0, bucket.tryAcquire(0));
+        assertEquals(0, bucket.tryAcquire(0));
+        assertTrue(bucket.tryAcquire(0) > 0);
+        
+        bucket.refund();
+        assertEquals(0, bucket.tryAcquire(0));
+        assertTrue(bucket.tryAcquire(0) > 0);
+        
+        bucket.refund();
+        bucket.refund();
+        assertTrue(bucket.isFull(0));
+    }
+    
+    @Test
+    void concurrentCallersNeverExceedTheBurst() throws InterruptedException {
+        TokenBucket bucket = new TokenBucket(1, 100, 0);
+        AtomicInteger granted = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            Thread thread = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (int i = 0; i < 1000; i++) {
+                    if (bucket.tryAcquire(0) == 0) {
+                        granted.incrementAndGet();
+                    }
+                }
+            });
+            thread.start();
+            threads.add(thread);
+        }
+        start.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        
+        assertEquals(100, granted.get());
+    }
+}
@@ -5,22 +5,25 @@ import { Input } from './ui/input';
 import { Button } from './ui/button';
 import { Search, Users, CreditCard } from 'lucide-react';
 import { apiService } from '../services/api';
-import { Customer, Account } from '../types';
+import { Customer, Account, PageResponse } from '../types';
 
 export default function CustomerAccountRelationship() {
   const [customers, setCustomers] = useState<Customer[]>([]);
   const [loading, setLoading] = useState(true);
   const [searchTerm, setSearchTerm] = useState('');
   const [error, setError] = useState('');
+  const [page, setPage] = useState(0);
+  const [totalPages, setTotalPages] = useState(0);
 
   useEffect(() => {
-    fetchCustomersWithAccounts();
-  }, []);
+    fetchCustomersWithAccounts(page);
+  }, [page]);
 
-  const fetchCustomersWithAccounts = async () => {
+  const fetchCustomersWithAccounts = async (pageToLoad = page) => {
     try {
-      const data = await apiService.getCustomersWithAccounts();
-      setCustomers(data);
+      const data: PageResponse<Customer> = await apiService.getCustomersWithAccounts(pageToLoad);
+      setCustomers(data.content);
+      setTotalPages(data.totalPages);
     } catch (error) {
       setError('Failed to fetch customer relationships');
     } finally {
@@ -35,18 +38,13 @@ export default function CustomerAccountRelationship() {
     }
 
     try {
-      const data = await apiService.searchCustomers(searchTerm);
-      const customersWithAccounts = await Promise.all(
-        data.map(async (customer: Customer) => {
-          try {
-            const accounts = await apiService.getAccountsByCustomer(customer.id);
-            return { ...customer, accounts };
-          } catch {
-            return { ...customer, accounts: [] };
-          }
-        })
-      );
-      setCustomers(customersWithAccounts);
+      const data: Customer[] = await apiService.searchCustomers(searchTerm);
+      if (data.length === 0) {
+        setCustomers([]);
+        return;
+      }
+      const { results } = await apiService.batchGetCustomers(data.map(customer => customer.id), true);
+      setCustomers(data.map(customer => results[customer.id] ?? { ...customer, accounts: [] }));
     } catch (error) {
       setError('Search failed');
     }
@@ -199,6 +197,20 @@ export default function CustomerAccountRelationship() {
         ))}
       </div>
 
+      {totalPages > 1 && !searchTerm.trim() && (
+        <div className="flex items-center justify-between">
+          <Button variant="outline" disabled={page === 0} onClick={() => setPage(page - 1)}>
+            Previous
+          </Button>
+          <span className="text-sm text-gray-600">
+            Page {page + 1} of {totalPages}
+          </span>
+          <Button variant="outline" disabled={page + 1 >= totalPages} onClick={() => setPage(page + 1)}>
+            Next
+          </Button>
+        </div>
+      )}
+
       {customers.length === 0 && !loading && (
         <Card>
           <CardContent className="pt-6">
@@ -1,14 +1,28 @@
 const API_BASE_URL = import.meta.env.VITE_API_URL || 'http://localhost:8080/api';
 
 class ApiService {
+  private employeeHeader(): Record<string, string> {
+    const savedUser = localStorage.getItem('currentUser');
+    if (!savedUser) {
+      return {};
+    }
+    try {
+      const user = JSON.parse(savedUser);
+      return user?.id ? { 'X-Employee-Id': String(user.id) } : {};
+    } catch {
+      return {};
+    }
+  }
+
   private async request<T>(endpoint: string, options: RequestInit = {}): Promise<T> {
     const url = `${API_BASE_URL}${endpoint}`;
     const config: RequestInit = {
+      ...options,
       headers: {
         'Content-Type': 'application/json',
+        ...this.employeeHeader(),
         ...options.headers,
       },
-      ...options,
     };
 
     try {
@@ -68,21 +82,29 @@ class ApiService {
     });
   }
 
-  async getCustomers(): Promise<any[]> {
-    return this.request('/customers');
+  async getCustomers(fields?: string[]): Promise<any[]> {
+    return this.request(fields ? `/customers?fields=${fields.join(',')}` : '/customers');
   }
 
-  async getCustomersWithAccounts(): Promise<any[]> {
-    return this.request('/customers/with-accounts');
+  async getCustomersWithAccounts(page = 0, size = 50): Promise<any> {
+    return this.request(`/customers/with-accounts?page=${page}&size=${size}`);
   }
 
   async getCustomerById(id: number) {
     return this.request(`/customers/${id}`);
   }
 
-  async createCustomer(customer: any, employeeId: number) {
+  async batchGetCustomers(ids: number[], includeAccounts = false): Promise<{ results: Record<string, any>; missing: number[] }> {
+    return this.request('/customers/batch-get', {
+      method: 'POST',
+      body: JSON.stringify({ ids, includeAccounts }),
+    });
+  }
+
+  async createCustomer(customer: any, employeeId: number, idempotencyKey?: string) {
     return this.request(`/customers?employeeId=${employeeId}`, {
       method: 'POST',
+      headers: idempotencyKey ? { 'Idempotency-Key': idempotencyKey } : undefined,
       body: JSON.stringify(customer),
     });
   }
@@ -100,25 +122,49 @@ class ApiService {
     });
   }
 
-  async searchCustomers(term: string): Promise<any[]> {
-    return this.request(`/customers/search?term=${encodeURIComponent(term)}`);
+  async searchCustomers(term: string, fields?: string[]): Promise<any[]> {
+    const fieldParam = fields ? `&fields=${fields.join(',')}` : '';
+    return this.request(`/customers/search?term=${encodeURIComponent(term)}${fieldParam}`);
+  }
+
+  async suggest(term: string, limit = 10, types?: Array<'CUSTOMER' | 'ACCOUNT'>): Promise<any[]> {
+    const params = new URLSearchParams({ q: term, limit: String(limit) });
+    if (types?.length) params.set('types', types.join(','));
+    return this.request(`/typeahead?${params.toString()}`);
   }
 
-  async getAccounts(): Promise<any[]> {
-    return this.request('/accounts');
+  async getAccounts(fields?: string[]): Promise<any[]> {
+    return this.request(fields ? `/accounts?fields=${fields.join(',')}` : '/accounts');
   }
 
   async getAccountById(id: number) {
     return this.request(`/accounts/${id}`);
   }
 
-  async getAccountsByCustomer(customerId: number): Promise<any[]> {
-    return this.request(`/accounts/customer/${customerId}`);
+  async queryAccounts(filters: Record<string, string | number | undefined>, sort: string[] = [], page = 0, size = 50): Promise<any> {
+    const params = new URLSearchParams({ page: String(page), size: String(size) });
+    Object.entries(filters).forEach(([key, value]) => {
+      if (value !== undefined && value !== '') params.set(key, String(value));
+    });
+    sort.forEach(key => params.append('sort', key));
+    return this.request(`/accounts/query?${params.toString()}`);
+  }
+
+  async batchGetAccounts(ids: number[], includeArchived = false): Promise<{ results: Record<string, any>; missing: number[] }> {
+    return this.request('/accounts/batch-get', {
+      method: 'POST',
+      body: JSON.stringify({ ids, includeArchived }),
+    });
+  }
+
+  async getAccountsByCustomer(customerId: number, includeArchived = false): Promise<any[]> {
+    return this.request(`/accounts/customer/${customerId}${includeArchived ? '?includeArchived=true' : ''}`);
   }
 
-  async createAccount(account: any, employeeId: number) {
+  async createAccount(account: any, employeeId: number, idempotencyKey?: string) {
     return this.request(`/accounts?employeeId=${employeeId}`, {
       method: 'POST',
+      headers: idempotencyKey ? { 'Idempotency-Key': idempotencyKey } : undefined,
       body: JSON.stringify(account),
     });
   }
@@ -157,6 +203,48 @@ class ApiService {
   async getEmployeeCount() {
     return this.request('/employees/count');
   }
+
+  async sync(since?: number): Promise<any> {
+    return this.request(since ? `/sync?since=${since}` : '/sync');
+  }
+
+  async submitReport(type: 'EMPLOYEE_CUSTOMERS' | 'EMPLOYEE_ACCOUNTS', employeeId?: number, refresh = false): Promise<any> {
+    return this.request('/reports', {
+      method: 'POST',
+      body: JSON.stringify({ type, employeeId, refresh }),
+    });
+  }
+
+  async getReportJob(id: string): Promise<any> {
+    return this.request(`/reports/${id}`);
+  }
+
+  async cancelReport(id: string): Promise<any> {
+    return this.request(`/reports/${id}`, {
+      method: 'DELETE',
+    });
+  }
+
+  getReportDownloadUrl(id: string): string {
+    return `${API_BASE_URL}/reports/${id}/download`;
+  }
+
+  async getRollupSeries(series: 'accounts/opened' | 'accounts/balance' | 'customers/onboarded',
+                        params: Record<string, string | number | undefined> = {}): Promise<{ period: string; series: string; value: number }[]> {
+    const query = new URLSearchParams();
+    Object.entries(params).forEach(([key, value]) => {
+      if (value !== undefined && value !== '') query.set(key, String(value));
+    });
+    return this.request(`/rollups/${series}${query.toString() ? `?${query.toString()}` : ''}`);
+  }
+
+  subscribeToChanges(filter: { customerId?: number; employeeId?: number } = {}): EventSource {
+    const params = new URLSearchParams();
+    if (filter.customerId) params.set('customerId', String(filter.customerId));
+    if (filter.employeeId) params.set('employeeId', String(filter.employeeId));
+    const query = params.toString();
+    return new EventSource(`${API_BASE_URL}/events/stream${query ? `?${query}` : ''}`);
+  }
 }
 
 export const apiService = new ApiService();
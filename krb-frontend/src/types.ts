@@ -41,6 +41,7 @@ export interface Account {
   customerName: string;
   createdByEmployeeId: number;
   createdByEmployeeName: string;
+  archived?: boolean;
 }
 
 export type AccountType = 
@@ -69,6 +70,25 @@ export interface CreateAccountRequest {
   creditLimit?: number;
 }
 
+export interface PageResponse<T> {
+  content: T[];
+  page: number;
+  size: number;
+  totalElements: number;
+  totalPages: number;
+}
+
+export interface SyncResponse {
+  cursor: number;
+  fullResync: boolean;
+  accounts: Account[];
+  customers: Customer[];
+  employees: Employee[];
+  deletedAccountIds: number[];
+  deletedCustomerIds: number[];
+  deletedEmployeeIds: number[];
+}
+
 export interface LoginCredentials {
   username: string;
   password: string;